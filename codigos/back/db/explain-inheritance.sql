@@ -0,0 +1,84 @@
+-- Planos das consultas mais frequentes sobre pedidos e usuários (PostgreSQL).
+--
+-- Rode antes e depois da migração V2 (src/main/resources/db/migration, aplicada
+-- pelo Flyway na subida da aplicação) e compare o tempo e os buffers lidos:
+--
+--   psql -v user_id=<id de um cliente com pedidos> -v email="'<e-mail dele>'" \
+--        -v order_id=<id de um pedido dele> -f explain-inheritance.sql
+--
+-- O que esperar:
+--   * Antes, cada consulta é um Append (UNION ALL) com uma varredura por
+--     tabela de subclasse, e a tabela sem índice na coluna filtrada é lida
+--     por inteiro (Seq Scan).
+--   * Depois, as consultas de pedido usam um único Index Scan em orders
+--     (orders_pkey ou idx_orders_user_created); a consulta por e-mail usa o
+--     índice único de users.email e junta client/doctor/admin pela chave.
+--
+-- Medido com InheritanceExplainBenchmark (PostgreSQL embutido, 20 mil clientes,
+-- 400 mil pedidos, menor tempo de 20 execuções com cache aquecido):
+--
+--   consulta                             antes              depois
+--   orderRepository.findById             0,024 ms  7 buf    0,010 ms  4 buf
+--   orderRepository.findHistoryByUserId  50,8 ms   4857 buf 0,051 ms  24 buf
+--   userRepository.findByEmail           0,022 ms  5 buf    0,057 ms  8 buf
+--
+-- O ganho está no histórico: antes não havia índice por usuário em nenhuma
+-- das tabelas de pedido e as duas eram lidas por inteiro. As buscas por
+-- chave já usavam índices; a por e-mail fica um pouco mais cara com os três
+-- LEFT JOINs, mas segue abaixo de 0,1 ms.
+--
+-- As consultas abaixo têm o mesmo formato das geradas pelo Hibernate em cada
+-- mapeamento; descomente o bloco correspondente.
+
+-- ---------------------------------------------------------------------------
+-- ANTES (TABLE_PER_CLASS)
+-- ---------------------------------------------------------------------------
+
+-- orderRepository.findById
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT o.* FROM (
+--     SELECT id, user_id, created_at, status, total_value, 1 AS clazz_ FROM homeopathic_orders
+--     UNION ALL
+--     SELECT id, user_id, created_at, status, total_value, 2 AS clazz_ FROM resale_orders
+-- ) o WHERE o.id = :order_id;
+
+-- orderRepository.findHistoryByUserId (primeira página do histórico)
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT o.id, o.created_at FROM (
+--     SELECT id, user_id, created_at FROM homeopathic_orders
+--     UNION ALL
+--     SELECT id, user_id, created_at FROM resale_orders
+-- ) o WHERE o.user_id = :user_id ORDER BY o.created_at DESC, o.id DESC LIMIT 21;
+
+-- userRepository.findByEmail (SecurityFilter, a cada requisição)
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT u.* FROM (
+--     SELECT id, email, password, role, active, NULL AS crm, 1 AS clazz_ FROM client
+--     UNION ALL
+--     SELECT id, email, password, role, active, crm, 2 AS clazz_ FROM doctor
+--     UNION ALL
+--     SELECT id, email, password, role, active, NULL AS crm, 3 AS clazz_ FROM admin
+-- ) u WHERE u.email = :email;
+
+-- ---------------------------------------------------------------------------
+-- DEPOIS (orders em SINGLE_TABLE, users em JOINED)
+-- ---------------------------------------------------------------------------
+
+-- orderRepository.findById
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT o.* FROM orders o WHERE o.id = :order_id;
+
+-- orderRepository.findHistoryByUserId (primeira página do histórico)
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT o.id, o.created_at FROM orders o
+-- WHERE o.user_id = :user_id ORDER BY o.created_at DESC, o.id DESC LIMIT 21;
+
+-- userRepository.findByEmail (SecurityFilter, a cada requisição)
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT u.*, d.crm,
+--        CASE WHEN c.id IS NOT NULL THEN 1 WHEN d.id IS NOT NULL THEN 2 WHEN a.id IS NOT NULL THEN 3 END AS clazz_
+-- FROM users u
+-- LEFT JOIN client c ON c.id = u.id
+-- LEFT JOIN doctor d ON d.id = u.id
+-- LEFT JOIN admin a ON a.id = u.id
+-- WHERE u.email = :email;
@@ -11,6 +11,8 @@ import br.com.livrementehomeopatia.backend.dto.RegisterResponseDTO;
 import br.com.livrementehomeopatia.backend.dto.DoctorDTO;
 import br.com.livrementehomeopatia.backend.dto.ResetPasswordDTO;
 import br.com.livrementehomeopatia.backend.dto.ResponseDTO;
+import br.com.livrementehomeopatia.backend.infra.cart.GuestCartCodec;
+import br.com.livrementehomeopatia.backend.infra.cart.service.GuestCartService;
 import br.com.livrementehomeopatia.backend.infra.security.TokenService;
 import br.com.livrementehomeopatia.backend.model.Client;
 import br.com.livrementehomeopatia.backend.model.Doctor;
@@ -40,21 +42,26 @@ public class AuthController {
     private final TokenService tokenService;
     private final PasswordResetService passwordResetService;
     private final CrmNationalValidator crmNationalValidator;
+    private final GuestCartService guestCartService;
 
     /**
      * Realiza o login do usuário com base nas credenciais fornecidas.
+     * Se houver um carrinho de visitante, ele é incorporado ao carrinho do usuário.
      *
      * @param body Objeto contendo o e-mail e a senha do usuário.
+     * @param guestCart token do carrinho de visitante (opcional).
      * @return {@code ResponseEntity<ResponseDTO>} contendo o nome do usuário e o
      *         token gerado, ou {@code badRequest()} se as credenciais forem inválidas.
      */
     @PostMapping("/login")
-    public ResponseEntity<ResponseDTO> login(@RequestBody LoginRequestDTO body) {
+    public ResponseEntity<ResponseDTO> login(@RequestBody LoginRequestDTO body,
+            @RequestHeader(value = GuestCartCodec.HEADER, required = false) String guestCart) {
         User user = this.repository.findByEmail(body.email())
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
         if (passwordEncoder.matches(body.password(), user.getPassword())) {
             String token = this.tokenService.generationToken(user);
+            guestCartService.mergeInto(user.getId(), guestCart);
 
             return ResponseEntity.ok(new ResponseDTO(
                 token,
@@ -69,28 +76,36 @@ public class AuthController {
 
     /**
      * Registra um novo cliente com base nas informações fornecidas.
+     * Se houver um carrinho de visitante, ele é incorporado ao novo carrinho.
      *
      * @param body Objeto contendo os dados do cliente.
+     * @param guestCart token do carrinho de visitante (opcional).
      * @return {@code ResponseEntity<ResponseDTO>} com nome e token.
      */
     @PostMapping("/register/client")
-    public ResponseEntity<?> registerClient(@RequestBody ClientDTO body) {
+    public ResponseEntity<?> registerClient(@RequestBody ClientDTO body,
+            @RequestHeader(value = GuestCartCodec.HEADER, required = false) String guestCart) {
         Client newCliente = clientService.create(body);
         String token = tokenService.generationToken(newCliente);
+        guestCartService.mergeInto(newCliente.getId(), guestCart);
         return ResponseEntity.ok(new RegisterResponseDTO(newCliente.getFullName(), token));
        
     }
 
     /**
      * Registra um novo médico com base nas informações fornecidas.
+     * Se houver um carrinho de visitante, ele é incorporado ao novo carrinho.
      *
      * @param body Objeto contendo os dados do médico.
+     * @param guestCart token do carrinho de visitante (opcional).
      * @return {@code ResponseEntity<ResponseDTO>} com nome e token.
      */
     @PostMapping("/register/doctor")
-    public ResponseEntity<?> registerDoctor(@RequestBody @Valid DoctorDTO body) {
+    public ResponseEntity<?> registerDoctor(@RequestBody @Valid DoctorDTO body,
+            @RequestHeader(value = GuestCartCodec.HEADER, required = false) String guestCart) {
     Doctor newMedico = doctorService.create(body);
     String token = tokenService.generationToken(newMedico);
+    guestCartService.mergeInto(newMedico.getId(), guestCart);
     return ResponseEntity.ok(new RegisterResponseDTO(newMedico.getFullName(), token));
 }
 
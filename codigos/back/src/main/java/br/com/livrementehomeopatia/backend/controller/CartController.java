@@ -7,11 +7,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import br.com.livrementehomeopatia.backend.dto.CartItemResponse;
+import br.com.livrementehomeopatia.backend.dto.CartLineUpdateDTO;
 import br.com.livrementehomeopatia.backend.services.CartService;
 import lombok.RequiredArgsConstructor;
 
@@ -24,13 +27,15 @@ public class CartController {
 
     /**
      * Adiciona um item ao carrinho do usuário autenticado.
+     * Responde com o resumo do carrinho, ou com os itens completos se
+     * {@code detailed=true}.
      */
     @PostMapping("/add")
-    public ResponseEntity<?> addItemToCart(@RequestParam Integer productId) {
+    public ResponseEntity<?> addItemToCart(@RequestParam Integer productId,
+            @RequestParam(defaultValue = "false") boolean detailed) {
         try {
             cartService.addItemToCart(productId);
-            List<CartItemResponse> updatedCart = cartService.getCartItemsForLoggedUser();
-            return ResponseEntity.ok(updatedCart);
+            return ResponseEntity.ok(updatedCart(detailed));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                 .body(Map.of("message", e.getMessage()));
@@ -39,13 +44,15 @@ public class CartController {
 
     /**
      * Remove um item do carrinho do usuário autenticado.
+     * Responde com o resumo do carrinho, ou com os itens completos se
+     * {@code detailed=true}.
      */
     @DeleteMapping("/remove")
-    public ResponseEntity<?> removeItemFromCart(@RequestParam Integer productId) {
+    public ResponseEntity<?> removeItemFromCart(@RequestParam Integer productId,
+            @RequestParam(defaultValue = "false") boolean detailed) {
         try {
             cartService.removeItemCompletelyFromCart(productId);
-            List<CartItemResponse> updatedCart = cartService.getCartItemsForLoggedUser();
-            return ResponseEntity.ok(updatedCart);
+            return ResponseEntity.ok(updatedCart(detailed));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                 .body(Map.of("message", e.getMessage()));
@@ -54,13 +61,42 @@ public class CartController {
 
     /**
      * Decrementa a quantidade de um item no carrinho do usuário autenticado.
+     * Responde com o resumo do carrinho, ou com os itens completos se
+     * {@code detailed=true}.
      */
     @PostMapping("/decrease")
-    public ResponseEntity<?> decreaseItemQuantity(@RequestParam Integer productId) {
+    public ResponseEntity<?> decreaseItemQuantity(@RequestParam Integer productId,
+            @RequestParam(defaultValue = "false") boolean detailed) {
         try {
             cartService.decreaseItemQuantityFromCart(productId);
-            List<CartItemResponse> updatedCart = cartService.getCartItemsForLoggedUser();
-            return ResponseEntity.ok(updatedCart);
+            return ResponseEntity.ok(updatedCart(detailed));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Define a quantidade de vários produtos do carrinho de uma só vez.
+     * Quantidade zero remove o produto. Responde com o resumo do carrinho.
+     */
+    @PutMapping("/items")
+    public ResponseEntity<?> updateCartLines(@RequestBody List<CartLineUpdateDTO> lines) {
+        try {
+            return ResponseEntity.ok(cartService.updateCartLines(lines));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Retorna o resumo do carrinho do usuário autenticado.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<?> getCartSummary() {
+        try {
+            return ResponseEntity.ok(cartService.getCartSummaryForLoggedUser());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                 .body(Map.of("message", e.getMessage()));
@@ -94,4 +130,11 @@ public class CartController {
                 .body(Map.of("message", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private Object updatedCart(boolean detailed) {
+        if (detailed) {
+            return cartService.getCartItemsForLoggedUser();
+        }
+        return cartService.getCartSummaryForLoggedUser();
+    }
+}
@@ -1,7 +1,5 @@
 package br.com.livrementehomeopatia.backend.controller;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,7 +11,9 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import br.com.livrementehomeopatia.backend.infra.catalog.service.CatalogResponseCache;
 import br.com.livrementehomeopatia.backend.infra.exception.NeighborhoodNotFoundException;
 import br.com.livrementehomeopatia.backend.model.Neighborhood;
 import br.com.livrementehomeopatia.backend.services.NeighborhoodService;
@@ -26,6 +26,9 @@ public class NeighborhoodController {
     @Autowired
     private NeighborhoodService neighborhoodService;
 
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
     /**
      * Cria um novo bairro.
      */
@@ -40,11 +43,12 @@ public class NeighborhoodController {
     }
 
     /**
-     * Retorna todos os bairros cadastrados.
+     * Retorna todos os bairros cadastrados, a partir do JSON pré-serializado.
+     * Responde 304 se o cliente já tiver a versão atual.
      */
     @GetMapping
-    public ResponseEntity<List<Neighborhood>> getAllNeighborhoods() {
-        return ResponseEntity.ok(neighborhoodService.findAll());
+    public ResponseEntity<byte[]> getAllNeighborhoods(WebRequest request) {
+        return catalogResponseCache.neighborhoods().toResponse(request);
     }
 
     /**
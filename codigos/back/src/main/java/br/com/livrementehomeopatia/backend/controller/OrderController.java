@@ -1,20 +1,32 @@
 package br.com.livrementehomeopatia.backend.controller;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import br.com.livrementehomeopatia.backend.dto.AdminOrderDTO;
+import br.com.livrementehomeopatia.backend.dto.AdminOrderPageDTO;
 import br.com.livrementehomeopatia.backend.dto.OrderDTO;
+import br.com.livrementehomeopatia.backend.dto.OrderHistoryDTO;
+import br.com.livrementehomeopatia.backend.dto.OrderHistoryPageDTO;
 import br.com.livrementehomeopatia.backend.enums.OrderStatus;
-import br.com.livrementehomeopatia.backend.model.Order;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageMimeTypes;
+import br.com.livrementehomeopatia.backend.infra.mercadopago.dto.PaymentLinkStatusDTO;
+import br.com.livrementehomeopatia.backend.infra.mercadopago.service.PaymentLinkService;
+import br.com.livrementehomeopatia.backend.infra.order.OrderSearchFilter;
 import br.com.livrementehomeopatia.backend.services.OrderService;
-import br.com.livrementehomeopatia.backend.services.MailService;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -34,14 +46,15 @@ public class OrderController {
     private static final Logger log = LoggerFactory.getLogger(OrderController.class);
     
     private final OrderService orderService;
-    private final MailService mailService;
+    private final PaymentLinkService paymentLinkService;
 
     /**
      * Cria um novo pedido a partir do carrinho do usuário autenticado.
      *
      * @param body Corpo da requisição contendo o nome do bairro
      * @return Um ResponseEntity contendo o resultado da criação do pedido.
-     * Para pedidos de revenda, retorna um {@link OrderService.ResaleOrderCreationResponse}.
+     * Para pedidos de revenda, retorna um {@link OrderService.ResaleOrderCreationResponse}; se o link de
+     * pagamento não ficar pronto dentro do prazo, a resposta é 202 sem a URL.
      * Para outros pedidos, retorna um {@link OrderDTO}.
      */
     @PostMapping("/create-from-cart")
@@ -59,19 +72,20 @@ public class OrderController {
 
             // [LÓGICA CORRIGIDA] Lida com os diferentes tipos de retorno do serviço.
             if (result instanceof OrderService.ResaleOrderCreationResponse response) {
-                // É um pedido de revenda com link de pagamento
-                log.info("Pedido de revenda ID {} criado. Retornando URL de pagamento.", response.orderDetails().getId());
-                // Enviar e-mail de notificação para a farmácia
-                Order order = orderService.getOrderEntityById(response.orderDetails().getId());
-                mailService.sendOrderNotificationToPharmacy(order);
-                return ResponseEntity.ok(response);
+                // É um pedido de revenda; o link de pagamento é gerado após o commit
+                Integer orderId = response.orderDetails().getId();
+                String paymentUrl = paymentLinkService.awaitLink(orderId);
+                if (paymentUrl == null) {
+                    // Link ainda não ficou pronto: o cliente consulta GET /api/orders/{id}/payment-link
+                    log.info("Pedido de revenda ID {} criado. Link de pagamento ainda em geração.", orderId);
+                    return ResponseEntity.accepted().body(response);
+                }
+                log.info("Pedido de revenda ID {} criado. Retornando URL de pagamento.", orderId);
+                return ResponseEntity.ok(new OrderService.ResaleOrderCreationResponse(response.orderDetails(), paymentUrl));
 
             } else if (result instanceof OrderDTO orderDTO) {
                 // É um pedido homeopático normal
                 log.info("Pedido homeopático ID {} criado com sucesso.", orderDTO.getId());
-                // Enviar e-mail de notificação para a farmácia
-                Order order = orderService.getOrderEntityById(orderDTO.getId());
-                mailService.sendOrderNotificationToPharmacy(order);
                 return ResponseEntity.ok(orderDTO);
 
             } else {
@@ -100,25 +114,141 @@ public class OrderController {
         }
     }
     
+    /**
+     * Retorna a situação do link de pagamento de um pedido de revenda do usuário autenticado.
+     *
+     * @param orderId ID do pedido de revenda
+     * @return situação do link e, quando pronta, a URL de pagamento
+     */
+    @GetMapping("/{orderId}/payment-link")
+    public ResponseEntity<?> getPaymentLink(@PathVariable Integer orderId) {
+        try {
+            PaymentLinkStatusDTO status = orderService.getPaymentLinkStatus(orderId);
+            return ResponseEntity.ok(status);
+        } catch (RuntimeException e) {
+            log.warn("Erro ao consultar link de pagamento do pedido ID: {} - {}", orderId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Retorna o histórico completo do usuário autenticado, sem fotos nem
+     * receitas embutidas.
+     *
+     * @deprecated use {@code GET /api/orders/myOrders/page}, que pagina o histórico
+     */
+    @Deprecated
     @GetMapping("/myOrders")
-    public ResponseEntity<List<OrderDTO>> getMyOrders() {
+    public ResponseEntity<List<OrderHistoryDTO>> getMyOrders() {
         try {
             log.debug("Recuperando histórico de pedidos do usuário autenticado");
-            List<OrderDTO> orders = orderService.getOrderHistoryForUser();
-            return ResponseEntity.ok(orders);
+            List<OrderHistoryDTO> orders = orderService.getOrderHistoryForUser();
+            return ResponseEntity.ok()
+                    .header("Deprecation", "true")
+                    .header(HttpHeaders.LINK, "</api/orders/myOrders/page>; rel=\"successor-version\"")
+                    .body(orders);
         } catch (RuntimeException e) {
             log.error("Erro ao recuperar histórico de pedidos: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * Retorna uma página do histórico de pedidos do usuário autenticado, sem
+     * fotos nem receitas embutidas (apenas URLs).
+     *
+     * @param cursor cursor da página anterior (ausente na primeira página)
+     * @param size   quantidade de pedidos por página
+     * @return a página e o cursor da próxima, nulo na última
+     */
+    @GetMapping("/myOrders/page")
+    public ResponseEntity<?> getMyOrdersPage(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            OrderHistoryPageDTO page = orderService.getOrderHistoryPageForUser(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            log.warn("Erro ao recuperar página do histórico de pedidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Retorna o arquivo da receita médica de um pedido homeopático.
+     *
+     * @param orderId ID do pedido
+     * @return o arquivo da receita
+     */
+    @GetMapping("/{orderId}/prescription")
+    public ResponseEntity<byte[]> getPrescription(@PathVariable Integer orderId) {
+        try {
+            byte[] prescription = orderService.getPrescription(orderId);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(prescriptionMimeType(prescription)))
+                    .cacheControl(CacheControl.noStore())
+                    .body(prescription);
+        } catch (RuntimeException e) {
+            log.warn("Receita do pedido ID: {} indisponível - {}", orderId, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Busca pedidos para o painel do administrador, com filtros e paginação por cursor.
+     *
+     * @param status         situação do pedido
+     * @param type           tipo do pedido (HOMEOPATICO ou REVENDA)
+     * @param from           primeiro dia do período (yyyy-MM-dd)
+     * @param to             último dia do período (yyyy-MM-dd)
+     * @param neighborhoodId bairro de entrega
+     * @param customer       parte do nome do cliente
+     * @param sort           "newest" (padrão) ou "oldest"
+     * @param cursor         cursor da página anterior (ausente na primeira página)
+     * @param size           quantidade de pedidos por página
+     * @return a página e o cursor da próxima, nulo na última
+     */
+    @GetMapping("/admin/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> searchOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) ProductType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer neighborhoodId,
+            @RequestParam(required = false) String customer,
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            if (!"newest".equalsIgnoreCase(sort) && !"oldest".equalsIgnoreCase(sort)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Ordenação inválida: use newest ou oldest"));
+            }
+            OrderSearchFilter filter = new OrderSearchFilter(status, type, from, to, neighborhoodId, customer,
+                    "oldest".equalsIgnoreCase(sort));
+            AdminOrderPageDTO page = orderService.searchOrdersForAdmin(filter, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            log.warn("Erro na busca de pedidos do administrador: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Retorna todos os pedidos do sistema, sem fotos nem receitas embutidas.
+     *
+     * @deprecated use {@code GET /api/orders/admin/search}, que filtra e pagina os pedidos
+     */
+    @Deprecated
     @GetMapping("/allOrders")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<OrderDTO>> getAllOrders() {
+    public ResponseEntity<List<AdminOrderDTO>> getAllOrders() {
         try {
             log.debug("Admin recuperando todos os pedidos do sistema");
-            List<OrderDTO> orders = orderService.getAllOrdersForAdmin();
-            return ResponseEntity.ok(orders);
+            List<AdminOrderDTO> orders = orderService.getAllOrdersForAdmin();
+            return ResponseEntity.ok()
+                    .header("Deprecation", "true")
+                    .header(HttpHeaders.LINK, "</api/orders/admin/search>; rel=\"successor-version\"")
+                    .body(orders);
         } catch (RuntimeException e) {
             log.error("Erro ao recuperar todos os pedidos: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -174,4 +304,12 @@ public class OrderController {
             return ResponseEntity.badRequest().build();
         }
     }
-}
\ No newline at end of file
+
+    private String prescriptionMimeType(byte[] prescription) {
+        if (prescription.length >= 4 && prescription[0] == '%' && prescription[1] == 'P'
+                && prescription[2] == 'D' && prescription[3] == 'F') {
+            return MediaType.APPLICATION_PDF_VALUE;
+        }
+        return ImageMimeTypes.detect(prescription, null);
+    }
+}
@@ -1,21 +1,42 @@
 package br.com.livrementehomeopatia.backend.controller;
 
 import br.com.livrementehomeopatia.backend.dto.ProductDTO;
+import br.com.livrementehomeopatia.backend.infra.catalog.service.CatalogResponseCache;
 import br.com.livrementehomeopatia.backend.infra.exception.ExistingProductException;
+import br.com.livrementehomeopatia.backend.dto.ProductImageDTO;
+import br.com.livrementehomeopatia.backend.dto.ProductSummaryDTO;
+import br.com.livrementehomeopatia.backend.enums.Categories;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.image.ProductImageUrls;
+import br.com.livrementehomeopatia.backend.infra.image.service.ImageDerivativeService;
+import br.com.livrementehomeopatia.backend.infra.image.service.ImageStreamingService;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageStore;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageVariant;
+import br.com.livrementehomeopatia.backend.infra.image.store.StoredImage;
 import br.com.livrementehomeopatia.backend.model.Product;
 import br.com.livrementehomeopatia.backend.services.ProductService;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controlador responsável pelo gerenciamento de produtos.
@@ -27,6 +48,18 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ImageStreamingService imageStreamingService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
     /**
      * Cria um novo produto com imagem.
      *
@@ -99,13 +132,50 @@ public class ProductController {
 
     /**
      * Lista todos os produtos.
+     * O JSON é serializado uma única vez por versão do catálogo e enviado em
+     * gzip quando o cliente aceita; responde 304 se o cliente já tiver a versão atual.
      *
-     * @return lista de produtos
+     * @param request requisição atual
+     * @return lista de produtos pré-serializada
      */
     @GetMapping
-    public ResponseEntity<List<Product>> findAll() {
-        List<Product> products = productService.findAll();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> findAll(WebRequest request) {
+        return catalogResponseCache.products().toResponse(request);
+    }
+
+    /**
+     * Lista o catálogo de forma paginada e sem fotos embutidas.
+     * Cada produto traz as URLs da imagem e o hash do conteúdo.
+     *
+     * @param type      filtro por tipo (opcional)
+     * @param category  filtro por categoria (opcional)
+     * @param available filtro por disponibilidade (opcional)
+     * @param pageable  paginação e ordenação
+     * @return página de produtos, no formato estável {@link PagedModel}
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<PagedModel<ProductSummaryDTO>> listCatalog(
+            @RequestParam(required = false) ProductType type,
+            @RequestParam(required = false) Categories category,
+            @RequestParam(required = false) Boolean available,
+            @PageableDefault(size = 24, sort = "name") Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(productService.listCatalog(type, category, available, pageable)));
+    }
+
+    /**
+     * Busca produtos por texto no nome e na descrição.
+     *
+     * @param query     texto da busca
+     * @param available filtro por disponibilidade (opcional)
+     * @param limit     número máximo de resultados (até 100)
+     * @return produtos encontrados, ordenados por relevância
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductSummaryDTO>> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(productService.search(query, available, Math.min(Math.max(limit, 1), 100)));
     }
 
     /**
@@ -146,45 +216,63 @@ public class ProductController {
 
     /**
      * Retorna a imagem de um produto pelo ID.
+     * <p>
+     * A imagem é transmitida diretamente do armazenamento, com suporte a HEAD
+     * e a requisições parciais ({@code Range}). O tipo MIME é o registrado no upload.
+     * A resposta leva o hash do conteúdo como ETag forte; se o cliente já
+     * tiver a mesma versão ({@code If-None-Match}), responde 304 sem ler a imagem.
+     * URLs versionadas ({@code ?v=}) são marcadas como imutáveis.
+     * </p>
+     * <p>
+     * O parâmetro {@code size} seleciona uma variante redimensionada
+     * ({@code thumbnail}, {@code card} ou {@code full}). Enquanto a variante não
+     * tiver sido gerada, a original é enviada sem cache de longa duração.
+     * </p>
      *
-     * @param id ID do produto
-     * @return imagem do produto em formato de bytes
+     * @param id       ID do produto
+     * @param version  versão da foto presente na URL (opcional)
+     * @param size     variante desejada (opcional)
+     * @param request  requisição HTTP
+     * @param response resposta HTTP
+     * @throws IOException se ocorrer erro ao ler a imagem do armazenamento
      */
-    @GetMapping("/{id}/image")
-    public ResponseEntity<byte[]> getImage(@PathVariable Integer id) {
-        Product product = productService.findById(id);
-        byte[] image = product.getPhoto();
+    @RequestMapping(value = "/{id}/image", method = { RequestMethod.GET, RequestMethod.HEAD })
+    public void getImage(@PathVariable Integer id,
+            @RequestParam(value = "v", required = false) String version,
+            @RequestParam(value = "size", required = false) String size,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<ProductImageDTO> image = productService.findImage(id);
 
-        if (image == null || image.length == 0) {
-            return ResponseEntity.notFound().build();
+        if (image.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
         }
 
-        String contentType = detectMimeType(image);
+        String sourceHash = image.get().hash();
+        StoredImage selected = new StoredImage(sourceHash, image.get().size(), image.get().mimeType());
+        boolean variantReady = true;
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(image);
-    }
-
-    /**
-     * Detecta o tipo MIME de uma imagem baseado nos seus bytes.
-     *
-     * @param image bytes da imagem
-     * @return tipo MIME da imagem
-     */
-    private String detectMimeType(byte[] image) {
-        if (image.length >= 12) {
-            if (image[0] == (byte) 0xFF && image[1] == (byte) 0xD8) {
-                return MimeTypeUtils.IMAGE_JPEG_VALUE;
-            }
-            if (image[0] == (byte) 0x89 && image[1] == (byte) 0x50 &&
-                    image[2] == (byte) 0x4E && image[3] == (byte) 0x47) {
-                return MimeTypeUtils.IMAGE_PNG_VALUE;
-            }
-            if (image[8] == 'W' && image[9] == 'E' && image[10] == 'B' && image[11] == 'P') {
-                return "image/webp";
+        Optional<ImageVariant> variant = ImageVariant.fromParam(size);
+        if (variant.isPresent()) {
+            Optional<StoredImage> derived = imageStore.findVariant(sourceHash, variant.get());
+            if (derived.isPresent()) {
+                selected = derived.get();
+            } else {
+                variantReady = false;
+                imageDerivativeService.schedule(sourceHash);
             }
         }
-        return MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE;
+
+        boolean versioned = variantReady && version != null && version.equals(ProductImageUrls.version(sourceHash));
+        CacheControl cacheControl = versioned
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache().cachePublic();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+
+        if (new ServletWebRequest(request, response).checkNotModified(ProductImageUrls.etag(selected.hash()))) {
+            return;
+        }
+
+        imageStreamingService.write(selected.hash(), selected.mimeType(), request, response);
     }
 }
@@ -0,0 +1,54 @@
+package br.com.livrementehomeopatia.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import br.com.livrementehomeopatia.backend.enums.OrderStatus;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.model.HomeophaticOrder;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Pedido na busca do administrador. Não contém fotos nem a receita médica,
+ * apenas as URLs para baixá-las.
+ */
+@Getter
+@Setter
+public class AdminOrderDTO {
+    private Integer id;
+    private Integer userId;
+    private String fullName;
+    private LocalDateTime orderDate;
+    private String status;
+    private ProductType orderType;
+    private Double totalValue;
+    private Double deliveryTax;
+    private Double totalWithDelivery;
+    private String neighborhoodName;
+    private List<OrderHistoryItemDTO> items = List.of();
+    private OrderQuoteDTO orderQuote;
+    private String prescriptionUrl;
+    private String checkoutProLink;
+
+    /**
+     * Construtor usado pela projeção da busca. Itens, orçamento e link de
+     * pagamento são preenchidos em consultas separadas, para todos os pedidos
+     * da página.
+     *
+     * @param type classe do pedido ({@link HomeophaticOrder} ou revenda)
+     */
+    public AdminOrderDTO(Integer id, Integer userId, String fullName, LocalDateTime createdAt, OrderStatus status,
+            Class<?> type, Double totalValue, Double deliveryTax, String neighborhoodName) {
+        this.id = id;
+        this.userId = userId;
+        this.fullName = fullName;
+        this.orderDate = createdAt;
+        this.status = status.name();
+        this.orderType = HomeophaticOrder.class.isAssignableFrom(type) ? ProductType.HOMEOPATICO : ProductType.REVENDA;
+        this.totalValue = totalValue - deliveryTax;
+        this.deliveryTax = deliveryTax;
+        this.totalWithDelivery = totalValue;
+        this.neighborhoodName = neighborhoodName;
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.livrementehomeopatia.backend.dto;
+
+import java.util.List;
+
+/**
+ * Página da busca de pedidos do administrador.
+ *
+ * @param orders     pedidos da página
+ * @param nextCursor cursor da próxima página, ou null se esta for a última
+ */
+public record AdminOrderPageDTO(List<AdminOrderDTO> orders, String nextCursor) {
+}
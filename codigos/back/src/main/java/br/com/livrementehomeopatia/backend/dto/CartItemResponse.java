@@ -1,8 +1,8 @@
 package br.com.livrementehomeopatia.backend.dto;
 
-import java.util.Base64;
-
 import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.image.ProductImageUrls;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageVariant;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -16,18 +16,15 @@ public class CartItemResponse {
     private int quantity;
     private Double productPrice;
     private ProductType productType;
-    private String productPhotoBase64;
+    private String productImageUrl;
 
-    public CartItemResponse(Integer cartItemId, Integer productId, String productName, int quantity, Double productPrice, ProductType productType,byte[] productPhoto) {
+    public CartItemResponse(Integer cartItemId, Integer productId, String productName, int quantity, Double productPrice, ProductType productType, String productPhotoHash) {
         this.cartItemId = cartItemId;
         this.productId = productId;
         this.productName = productName;
         this.quantity = quantity;
         this.productPrice = productPrice;
         this.productType = productType;
-
-        if (productPhoto != null) {
-            this.productPhotoBase64 = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(productPhoto);
-        }
+        this.productImageUrl = ProductImageUrls.of(productId, productPhotoHash, ImageVariant.THUMBNAIL);
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package br.com.livrementehomeopatia.backend.dto;
+
+/**
+ * Alteração de uma linha do carrinho em uma operação em lote.
+ *
+ * @param productId      ID do produto
+ * @param targetQuantity quantidade final desejada; zero remove o produto do carrinho
+ */
+public record CartLineUpdateDTO(Integer productId, int targetQuantity) {
+}
@@ -0,0 +1,32 @@
+package br.com.livrementehomeopatia.backend.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Representação compacta do carrinho, devolvida pelas operações que o alteram.
+ * A versão muda a cada alteração e permite ao cliente descartar respostas antigas.
+ */
+@Getter
+@Setter
+public class CartSummaryDTO {
+
+    private Integer cartId;
+    private long version;
+    private double totalValue;
+    private int itemCount;
+    private List<CartSummaryItemDTO> items = List.of();
+
+    public CartSummaryDTO(Integer cartId, long version, double totalValue) {
+        this.cartId = cartId;
+        this.version = version;
+        this.totalValue = totalValue;
+    }
+
+    public void setItems(List<CartSummaryItemDTO> items) {
+        this.items = items;
+        this.itemCount = items.stream().mapToInt(CartSummaryItemDTO::getQuantity).sum();
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.livrementehomeopatia.backend.dto;
+
+import br.com.livrementehomeopatia.backend.infra.image.ProductImageUrls;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageVariant;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Item do resumo do carrinho, sem nome nem bytes de imagem.
+ */
+@Getter
+@Setter
+public class CartSummaryItemDTO {
+
+    private Integer cartItemId;
+    private Integer productId;
+    private int quantity;
+    private Double productPrice;
+    private String imageHash;
+    private String imageUrl;
+
+    public CartSummaryItemDTO(Integer cartItemId, Integer productId, int quantity, Double productPrice,
+            String productPhotoHash) {
+        this.cartItemId = cartItemId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.productPrice = productPrice;
+        this.imageHash = productPhotoHash;
+        this.imageUrl = ProductImageUrls.of(productId, productPhotoHash, ImageVariant.THUMBNAIL);
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.livrementehomeopatia.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import br.com.livrementehomeopatia.backend.enums.OrderStatus;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Pedido no histórico paginado do cliente.
+ * Não contém fotos nem a receita médica, apenas as URLs para baixá-las.
+ */
+@Getter
+@Setter
+public class OrderHistoryDTO {
+    private Integer id;
+    private LocalDateTime orderDate;
+    private String status;
+    private ProductType orderType;
+    private Double totalValue;
+    private Double deliveryTax;
+    private Double totalWithDelivery;
+    private String neighborhoodName;
+    private List<OrderHistoryItemDTO> items = List.of();
+    private String prescriptionUrl;
+    private String checkoutProLink;
+
+    /**
+     * Construtor usado pela projeção JPQL do histórico. Itens, tipo e dados
+     * específicos de cada tipo de pedido são preenchidos em consultas
+     * separadas, para todos os pedidos da página.
+     */
+    public OrderHistoryDTO(Integer id, LocalDateTime createdAt, OrderStatus status, Double totalValue,
+            Double deliveryTax, String neighborhoodName) {
+        this.id = id;
+        this.orderDate = createdAt;
+        this.status = status.name();
+        this.totalValue = totalValue - deliveryTax;
+        this.deliveryTax = deliveryTax;
+        this.totalWithDelivery = totalValue;
+        this.neighborhoodName = neighborhoodName;
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.livrementehomeopatia.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import br.com.livrementehomeopatia.backend.infra.image.ProductImageUrls;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageVariant;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Item de um pedido no histórico, com a URL da miniatura do produto no lugar da foto.
+ */
+@Getter
+@Setter
+public class OrderHistoryItemDTO {
+    @JsonIgnore
+    private Integer orderId;
+    private Integer productId;
+    private String productName;
+    private int quantity;
+    private Double price;
+    private String productImageUrl;
+
+    public OrderHistoryItemDTO(Integer orderId, Integer productId, String productName, int quantity, Double price,
+            String photoHash) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.price = price;
+        this.productImageUrl = ProductImageUrls.of(productId, photoHash, ImageVariant.THUMBNAIL);
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.livrementehomeopatia.backend.dto;
+
+import java.util.List;
+
+/**
+ * Página do histórico de pedidos, do mais recente para o mais antigo.
+ *
+ * @param orders     pedidos da página
+ * @param nextCursor cursor da próxima página, ou null se esta for a última
+ */
+public record OrderHistoryPageDTO(List<OrderHistoryDTO> orders, String nextCursor) {
+}
@@ -13,7 +13,7 @@ public class OrderItemDTO {
     private String productName;
     private int quantity;
     private Double price;
-    private String productImageBase64;
+    private String productImageUrl;
 
     
 }
\ No newline at end of file
@@ -1,9 +1,10 @@
 package br.com.livrementehomeopatia.backend.dto;
 
-import java.util.Base64;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import br.com.livrementehomeopatia.backend.infra.image.ProductImageUrls;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageVariant;
 import br.com.livrementehomeopatia.backend.model.Product;
 import lombok.Getter;
 import lombok.Setter;
@@ -21,7 +22,8 @@ public class ProductDTO {
     private boolean available;
     private String type;
     private Set<String> categories;
-    private String photo; // imagem em base64
+    private String photo; // URL da imagem
+    private String cardPhoto; // URL da variante para os cards da listagem
 
     /**
      * Construtor que inicializa o DTO a partir de um objeto Product.
@@ -38,11 +40,7 @@ public class ProductDTO {
         this.categories = product.getCategories().stream()
             .map(Enum::name)
             .collect(Collectors.toSet());
-
-        if (product.getPhoto() != null) {
-            this.photo = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(product.getPhoto());
-        } else {
-            this.photo = null;
-        }
+        this.photo = ProductImageUrls.of(product.getId(), product.getPhotoHash());
+        this.cardPhoto = ProductImageUrls.of(product.getId(), product.getPhotoHash(), ImageVariant.CARD);
     }
 }
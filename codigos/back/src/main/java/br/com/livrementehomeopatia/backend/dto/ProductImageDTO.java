@@ -0,0 +1,12 @@
+package br.com.livrementehomeopatia.backend.dto;
+
+/**
+ * Referência à foto de um produto, sem os bytes da imagem.
+ *
+ * @param productId ID do produto
+ * @param hash      hash SHA-256 da foto no armazenamento de imagens
+ * @param size      tamanho da foto em bytes
+ * @param mimeType  tipo MIME registrado no upload
+ */
+public record ProductImageDTO(Integer productId, String hash, Long size, String mimeType) {
+}
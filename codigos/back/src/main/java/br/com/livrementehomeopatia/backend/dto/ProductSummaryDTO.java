@@ -0,0 +1,64 @@
+package br.com.livrementehomeopatia.backend.dto;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.image.ProductImageUrls;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageVariant;
+import br.com.livrementehomeopatia.backend.model.Product;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Resumo de um produto para a listagem do catálogo.
+ * Não contém os bytes da foto, apenas as URLs e o hash da imagem.
+ */
+@Getter
+@Setter
+public class ProductSummaryDTO {
+    private Integer id;
+    private String name;
+    private String description;
+    private Double price;
+    private boolean available;
+    private ProductType type;
+    private Set<String> categories;
+    private String imageHash;
+    private String imageUrl;
+    private String thumbnailUrl;
+
+    /**
+     * Construtor usado pela projeção JPQL do catálogo. As categorias são
+     * preenchidas em uma consulta separada, para todos os produtos da página.
+     */
+    public ProductSummaryDTO(Integer id, String name, String description, Double price, boolean available,
+            ProductType type, String photoHash) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.available = available;
+        this.type = type;
+        this.categories = Set.of();
+        this.imageHash = photoHash;
+        this.imageUrl = ProductImageUrls.of(id, photoHash, ImageVariant.CARD);
+        this.thumbnailUrl = ProductImageUrls.of(id, photoHash, ImageVariant.THUMBNAIL);
+    }
+
+    /**
+     * Construtor que inicializa o resumo a partir de um objeto Product.
+     * As categorias do produto precisam estar carregadas.
+     *
+     * @param product o produto a ser convertido
+     */
+    public ProductSummaryDTO(Product product) {
+        this(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.isAvailable(), product.getType(), product.getPhotoHash());
+        if (product.getCategories() != null) {
+            this.categories = product.getCategories().stream()
+                    .map(Enum::name)
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.livrementehomeopatia.backend.enums;
+
+/**
+ * Situação de uma tarefa registrada em uma tabela de saída (outbox), executada
+ * fora da transação que a criou.
+ */
+public enum OutboxStatus {
+
+    /** Aguardando execução ou uma nova tentativa. */
+    PENDING,
+
+    /** Executada com sucesso. */
+    DONE,
+
+    /** Desistência após esgotar as tentativas. */
+    FAILED
+}
@@ -1,5 +1,6 @@
 package br.com.livrementehomeopatia.backend.infra.admin.service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -10,15 +11,18 @@ import jakarta.persistence.criteria.Predicate;
 import br.com.livrementehomeopatia.backend.dto.UserDTO;
 import br.com.livrementehomeopatia.backend.model.User;
 import br.com.livrementehomeopatia.backend.enums.Role;
+import br.com.livrementehomeopatia.backend.infra.security.event.PrincipalChangedEvent;
 import br.com.livrementehomeopatia.backend.repository.UserRepository;
 import org.springframework.security.access.AccessDeniedException;
 
 @Service
 public class AdminService {
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AdminService(UserRepository userRepository) {
+    public AdminService(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // Lista usuários não-admins com filtro
@@ -60,6 +64,7 @@ public class AdminService {
         }
         user.setActive(active);
         userRepository.save(user);
+        eventPublisher.publishEvent(new PrincipalChangedEvent(user.getEmail()));
     }
 
     // Atualiza role do usuário
@@ -73,6 +78,7 @@ public class AdminService {
         }
         user.setRole(Role.valueOf(newRole));
         userRepository.save(user);
+        eventPublisher.publishEvent(new PrincipalChangedEvent(user.getEmail()));
     }
 
     // Conversão para DTO
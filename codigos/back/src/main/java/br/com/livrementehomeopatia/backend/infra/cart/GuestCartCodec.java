@@ -0,0 +1,140 @@
+package br.com.livrementehomeopatia.backend.infra.cart;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Codifica o carrinho de visitantes em um token compacto assinado com HMAC-SHA256.
+ * <p>
+ * O token tem o formato {@code <dados>.<assinatura>}, ambos em Base64 URL-safe.
+ * Os dados são {@code v1;<emitido-em>;<produto>:<quantidade>,...}. Tokens com
+ * assinatura inválida, formato desconhecido ou vencidos são tratados como
+ * carrinho vazio.
+ * </p>
+ */
+@Component
+public class GuestCartCodec {
+
+    /**
+     * Cabeçalho HTTP usado para enviar e receber o token do carrinho de visitante.
+     */
+    public static final String HEADER = "X-Guest-Cart";
+
+    public static final int MAX_LINES = 50;
+    public static final int MAX_QUANTITY = 99;
+
+    private static final String VERSION = "v1";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+
+    public GuestCartCodec(@Value("${app.cart.guest-secret:${API_SECURITY_TOKEN_SECRET}}") String secret,
+            @Value("${app.cart.guest-ttl:P30D}") Duration ttl) {
+        this.key = new SecretKeySpec(("guest-cart:" + secret).getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Gera o token para as linhas informadas.
+     *
+     * @param lines quantidade por ID de produto
+     * @return token assinado
+     */
+    public String encode(Map<Integer, Integer> lines) {
+        String items = lines.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + entry.getValue())
+                .collect(Collectors.joining(","));
+        String payload = VERSION + ";" + Instant.now().getEpochSecond() + ";" + items;
+        byte[] data = payload.getBytes(StandardCharsets.UTF_8);
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(data) + "." + encoder.encodeToString(sign(data));
+    }
+
+    /**
+     * Valida o token e devolve as linhas do carrinho.
+     *
+     * @param token token recebido (pode ser nulo)
+     * @return quantidade por ID de produto, na ordem de inclusão; vazio se o
+     *         token for inválido ou estiver vencido
+     */
+    public Map<Integer, Integer> decode(String token) {
+        return parse(token).orElseGet(LinkedHashMap::new);
+    }
+
+    private Optional<Map<Integer, Integer>> parse(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+
+        byte[] data;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            data = decoder.decode(token.substring(0, separator));
+            signature = decoder.decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        if (!MessageDigest.isEqual(sign(data), signature)) {
+            return Optional.empty();
+        }
+
+        String[] parts = new String(data, StandardCharsets.UTF_8).split(";", -1);
+        if (parts.length != 3 || !VERSION.equals(parts[0])) {
+            return Optional.empty();
+        }
+
+        try {
+            Instant issuedAt = Instant.ofEpochSecond(Long.parseLong(parts[1]));
+            if (issuedAt.plus(ttl).isBefore(Instant.now())) {
+                return Optional.empty();
+            }
+
+            Map<Integer, Integer> lines = new LinkedHashMap<>();
+            if (!parts[2].isEmpty()) {
+                for (String item : parts[2].split(",")) {
+                    String[] fields = item.split(":");
+                    int quantity = Integer.parseInt(fields[1]);
+                    if (quantity > 0 && lines.size() < MAX_LINES) {
+                        lines.put(Integer.valueOf(fields[0]), Math.min(quantity, MAX_QUANTITY));
+                    }
+                }
+            }
+            return Optional.of(lines);
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(byte[] data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Erro ao assinar o carrinho de visitante", e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.livrementehomeopatia.backend.infra.cart.controller;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.livrementehomeopatia.backend.infra.cart.GuestCartCodec;
+import br.com.livrementehomeopatia.backend.infra.cart.dto.GuestCartDTO;
+import br.com.livrementehomeopatia.backend.infra.cart.service.GuestCartService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Carrinho de visitantes não autenticados.
+ * O token do carrinho vai e volta no cabeçalho {@value GuestCartCodec#HEADER}
+ * e também no corpo da resposta.
+ */
+@RestController
+@RequestMapping("/api/guest-cart")
+@RequiredArgsConstructor
+public class GuestCartController {
+
+    private final GuestCartService guestCartService;
+
+    /**
+     * Retorna o carrinho do visitante.
+     */
+    @GetMapping
+    public ResponseEntity<?> getCart(@RequestHeader(value = GuestCartCodec.HEADER, required = false) String token) {
+        return respond(() -> guestCartService.view(token));
+    }
+
+    /**
+     * Adiciona um item ao carrinho do visitante.
+     */
+    @PostMapping("/add")
+    public ResponseEntity<?> addItem(@RequestHeader(value = GuestCartCodec.HEADER, required = false) String token,
+            @RequestParam Integer productId) {
+        return respond(() -> guestCartService.addItem(token, productId));
+    }
+
+    /**
+     * Decrementa a quantidade de um item no carrinho do visitante.
+     */
+    @PostMapping("/decrease")
+    public ResponseEntity<?> decreaseItem(
+            @RequestHeader(value = GuestCartCodec.HEADER, required = false) String token,
+            @RequestParam Integer productId) {
+        return respond(() -> guestCartService.decreaseItem(token, productId));
+    }
+
+    /**
+     * Remove um item do carrinho do visitante.
+     */
+    @DeleteMapping("/remove")
+    public ResponseEntity<?> removeItem(@RequestHeader(value = GuestCartCodec.HEADER, required = false) String token,
+            @RequestParam Integer productId) {
+        return respond(() -> guestCartService.removeItem(token, productId));
+    }
+
+    private ResponseEntity<?> respond(Supplier<GuestCartDTO> operation) {
+        try {
+            GuestCartDTO cart = operation.get();
+            return ResponseEntity.ok()
+                    .header(GuestCartCodec.HEADER, cart.token())
+                    .body(cart);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.livrementehomeopatia.backend.infra.cart.dto;
+
+import java.util.List;
+
+import br.com.livrementehomeopatia.backend.dto.CartItemResponse;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+
+/**
+ * Carrinho de visitante, montado a partir do token e do catálogo em memória.
+ * Os itens têm o mesmo formato do carrinho persistente, sem o ID do item.
+ *
+ * @param token       token assinado com o estado atual do carrinho
+ * @param items       itens do carrinho, com preços atuais do catálogo
+ * @param totalValue  valor total dos itens
+ * @param productType tipo dos produtos do carrinho, ou null quando vazio
+ */
+public record GuestCartDTO(String token, List<CartItemResponse> items, double totalValue, ProductType productType) {
+}
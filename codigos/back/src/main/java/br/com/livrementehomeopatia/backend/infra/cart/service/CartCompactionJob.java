@@ -0,0 +1,188 @@
+package br.com.livrementehomeopatia.backend.infra.cart.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Compacta periodicamente as tabelas de carrinho.
+ * <p>
+ * Duas limpezas são feitas, sempre em lotes limitados e cada lote em sua
+ * própria transação, para não segurar bloqueios nem disputar linhas com os
+ * usuários (linhas bloqueadas são puladas e ficam para a próxima execução):
+ * </p>
+ * <ul>
+ * <li>itens de produtos que ficaram indisponíveis são removidos, e o total e o
+ * tipo dos carrinhos afetados são recalculados;</li>
+ * <li>carrinhos sem alteração há mais tempo que {@code app.cart.idle-ttl} são
+ * descartados junto com os itens. O carrinho é recriado na próxima adição.</li>
+ * </ul>
+ * <p>
+ * As quantidades removidas são publicadas nas métricas
+ * {@code cart.compaction.lines}, {@code cart.compaction.carts} e
+ * {@code cart.compaction.duration}. Cada lote é contado só depois do commit:
+ * um lote refeito por conflito não é contado duas vezes.
+ * </p>
+ */
+@Component
+public class CartCompactionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CartCompactionJob.class);
+
+    /**
+     * Limite de lotes por execução de cada limpeza; o restante fica para a próxima.
+     */
+    private static final int MAX_BATCHES_PER_RUN = 100;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CartTransactionExecutor cartTransactions;
+    private final Duration idleTtl;
+    private final int batchSize;
+
+    private final Counter unavailableLines;
+    private final Counter idleLines;
+    private final Counter idleCarts;
+    private final Counter recalculatedCarts;
+    private final Timer duration;
+
+    public CartCompactionJob(NamedParameterJdbcTemplate jdbcTemplate, CartTransactionExecutor cartTransactions,
+            MeterRegistry meterRegistry,
+            @Value("${app.cart.idle-ttl:P90D}") Duration idleTtl,
+            @Value("${app.cart.compaction-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cartTransactions = cartTransactions;
+        this.idleTtl = idleTtl;
+        this.batchSize = Math.max(1, batchSize);
+
+        this.unavailableLines = Counter.builder("cart.compaction.lines")
+                .description("Itens removidos pela compactação de carrinhos")
+                .tag("reason", "unavailable")
+                .register(meterRegistry);
+        this.idleLines = Counter.builder("cart.compaction.lines")
+                .description("Itens removidos pela compactação de carrinhos")
+                .tag("reason", "idle")
+                .register(meterRegistry);
+        this.idleCarts = Counter.builder("cart.compaction.carts")
+                .description("Carrinhos alterados pela compactação")
+                .tag("action", "removed")
+                .register(meterRegistry);
+        this.recalculatedCarts = Counter.builder("cart.compaction.carts")
+                .description("Carrinhos alterados pela compactação")
+                .tag("action", "recalculated")
+                .register(meterRegistry);
+        this.duration = Timer.builder("cart.compaction.duration")
+                .description("Duração de cada execução da compactação de carrinhos")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.cart.compaction-interval:PT1H}",
+            fixedDelayString = "${app.cart.compaction-interval:PT1H}")
+    public void compact() {
+        duration.record(() -> {
+            int lines = removeUnavailableLines();
+            int carts = removeIdleCarts();
+            if (lines > 0 || carts > 0) {
+                log.info("Compactação de carrinhos: {} item(ns) indisponível(is) e {} carrinho(s) inativo(s) removidos.",
+                        lines, carts);
+            }
+        });
+    }
+
+    /**
+     * Remove, em lotes, os itens cujo produto está indisponível e recalcula os
+     * carrinhos afetados.
+     *
+     * @return quantidade de itens removidos
+     */
+    int removeUnavailableLines() {
+        int total = 0;
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            BatchResult removed = cartTransactions.execute(this::removeUnavailableBatch);
+            unavailableLines.increment(removed.lines());
+            recalculatedCarts.increment(removed.carts());
+            total += removed.lines();
+            if (removed.lines() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private BatchResult removeUnavailableBatch() {
+        List<Integer> cartIds = new ArrayList<>();
+        int[] removed = { 0 };
+        jdbcTemplate.query("WITH stale AS ("
+                + "SELECT ci.id FROM cart_item ci JOIN product p ON p.id = ci.product_id "
+                + "WHERE NOT p.available ORDER BY ci.id LIMIT :limit FOR UPDATE OF ci SKIP LOCKED), "
+                + "removed AS (DELETE FROM cart_item WHERE id IN (SELECT id FROM stale) RETURNING cart_id) "
+                + "SELECT cart_id, COUNT(*) AS lines FROM removed GROUP BY cart_id",
+                Map.of("limit", batchSize),
+                rs -> {
+                    cartIds.add(rs.getInt("cart_id"));
+                    removed[0] += rs.getInt("lines");
+                });
+
+        int recalculated = 0;
+        if (!cartIds.isEmpty()) {
+            recalculated = jdbcTemplate.update("UPDATE cart SET "
+                    + "total_value = (SELECT COALESCE(SUM(p.price * ci.quantity), 0) "
+                    + "FROM cart_item ci JOIN product p ON p.id = ci.product_id WHERE ci.cart_id = cart.id), "
+                    + "product_type = (SELECT MIN(p.type) "
+                    + "FROM cart_item ci JOIN product p ON p.id = ci.product_id WHERE ci.cart_id = cart.id), "
+                    + "version = version + 1 WHERE id IN (:cartIds)",
+                    Map.of("cartIds", cartIds));
+        }
+        return new BatchResult(removed[0], recalculated);
+    }
+
+    /**
+     * Remove, em lotes, os carrinhos sem alteração há mais tempo que o prazo
+     * configurado, junto com os seus itens.
+     *
+     * @return quantidade de carrinhos removidos
+     */
+    int removeIdleCarts() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(idleTtl));
+        int total = 0;
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            BatchResult removed = cartTransactions.execute(() -> removeIdleBatch(cutoff));
+            idleCarts.increment(removed.carts());
+            idleLines.increment(removed.lines());
+            total += removed.carts();
+            if (removed.carts() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private BatchResult removeIdleBatch(Timestamp cutoff) {
+        return jdbcTemplate.queryForObject("WITH idle AS ("
+                + "SELECT id FROM cart WHERE updated_at < :cutoff ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED), "
+                + "items AS (DELETE FROM cart_item WHERE cart_id IN (SELECT id FROM idle) RETURNING id), "
+                + "carts AS (DELETE FROM cart WHERE id IN (SELECT id FROM idle) RETURNING id) "
+                + "SELECT (SELECT COUNT(*) FROM carts) AS carts, (SELECT COUNT(*) FROM items) AS lines",
+                Map.of("cutoff", cutoff, "limit", batchSize),
+                (rs, rowNum) -> new BatchResult(rs.getInt("lines"), rs.getInt("carts")));
+    }
+
+    /**
+     * Itens e carrinhos afetados por um lote.
+     */
+    private record BatchResult(int lines, int carts) {
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.livrementehomeopatia.backend.infra.cart.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.livrementehomeopatia.backend.model.CartItem;
+
+/**
+ * Garante a restrição única (carrinho, produto) em {@code cart_item}, da qual
+ * depende o upsert do carrinho.
+ * <p>
+ * Executado na inicialização. Se a restrição ainda não existir, as linhas
+ * duplicadas de um mesmo produto no mesmo carrinho são somadas na linha mais
+ * antiga, as demais são removidas e a restrição é criada, tudo na mesma
+ * transação. O total dos carrinhos não muda, pois a quantidade é preservada.
+ * </p>
+ */
+@Component
+public class CartItemUniqueKeyMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CartItemUniqueKeyMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public CartItemUniqueKeyMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (constraintExists()) {
+            return;
+        }
+
+        int merged = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("LOCK TABLE cart_item IN SHARE ROW EXCLUSIVE MODE");
+
+            jdbcTemplate.update("UPDATE cart_item ci SET quantity = d.total_quantity "
+                    + "FROM (SELECT MIN(id) AS keep_id, SUM(quantity) AS total_quantity FROM cart_item "
+                    + "WHERE cart_id IS NOT NULL GROUP BY cart_id, product_id HAVING COUNT(*) > 1) d "
+                    + "WHERE ci.id = d.keep_id");
+
+            int removed = jdbcTemplate.update("DELETE FROM cart_item ci USING cart_item keep "
+                    + "WHERE ci.cart_id = keep.cart_id AND ci.product_id = keep.product_id AND ci.id > keep.id");
+
+            jdbcTemplate.execute("ALTER TABLE cart_item ADD CONSTRAINT " + CartItem.CART_PRODUCT_UNIQUE_KEY
+                    + " UNIQUE (cart_id, product_id)");
+            return removed;
+        });
+
+        log.info("Restrição {} criada; {} item(ns) duplicado(s) de carrinho mesclado(s).",
+                CartItem.CART_PRODUCT_UNIQUE_KEY, merged);
+    }
+
+    private boolean constraintExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class,
+                CartItem.CART_PRODUCT_UNIQUE_KEY);
+        return count != null && count > 0;
+    }
+}
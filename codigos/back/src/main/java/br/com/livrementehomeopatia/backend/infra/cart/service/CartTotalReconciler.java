@@ -0,0 +1,59 @@
+package br.com.livrementehomeopatia.backend.infra.cart.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Confere periodicamente o total e o tipo de cada carrinho com os seus itens.
+ * <p>
+ * Os totais são mantidos por delta a cada alteração; eles divergem quando o
+ * preço de um produto muda depois de entrar no carrinho ou por acúmulo de
+ * arredondamento. A correção é feita em um único comando, só nos carrinhos
+ * divergentes, e incrementa a versão deles. Carrinhos alterados durante a
+ * conferência (versão diferente da lida) ficam para a próxima execução.
+ * </p>
+ * <p>
+ * O tipo do carrinho também é conferido, o que preenche os carrinhos gravados
+ * antes de a coluna existir. A primeira execução acontece na inicialização.
+ * </p>
+ */
+@Component
+public class CartTotalReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(CartTotalReconciler.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CartTotalReconciler(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${app.cart.reconcile-interval:PT15M}",
+            fixedDelayString = "${app.cart.reconcile-interval:PT15M}")
+    public void reconcile() {
+        int corrected = jdbcTemplate.update("UPDATE cart SET total_value = expected.total, "
+                + "product_type = expected.product_type, version = cart.version + 1 "
+                + "FROM (SELECT c.id, c.version, COALESCE(SUM(p.price * ci.quantity), 0) AS total, "
+                + "MIN(p.type) AS product_type FROM cart c "
+                + "LEFT JOIN cart_item ci ON ci.cart_id = c.id "
+                + "LEFT JOIN product p ON p.id = ci.product_id "
+                + "GROUP BY c.id, c.version) expected "
+                + "WHERE cart.id = expected.id AND cart.version = expected.version "
+                + "AND (ABS(cart.total_value - expected.total) > 0.005 "
+                + "OR cart.product_type IS DISTINCT FROM expected.product_type)");
+
+        if (corrected > 0) {
+            log.info("Total ou tipo de {} carrinho(s) corrigido(s) a partir dos itens.", corrected);
+        }
+    }
+}
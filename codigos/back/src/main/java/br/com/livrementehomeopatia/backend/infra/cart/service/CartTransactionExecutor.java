@@ -0,0 +1,114 @@
+package br.com.livrementehomeopatia.backend.infra.cart.service;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Executa alterações de carrinho em transação, repetindo-as em caso de conflito.
+ * <p>
+ * Conflitos de versão (controle otimista), deadlocks e violações de unicidade
+ * causadas por duas requisições criando o mesmo carrinho ao mesmo tempo fazem
+ * a transação ser refeita do início, até {@code app.cart.max-attempts} vezes,
+ * com uma pequena espera aleatória entre as tentativas. Outras violações de
+ * integridade (chave estrangeira, campo obrigatório) não se resolvem repetindo
+ * e falham de imediato. Se já houver uma transação aberta, a ação participa
+ * dela e não é repetida aqui.
+ * </p>
+ */
+@Component
+public class CartTransactionExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(CartTransactionExecutor.class);
+
+    private static final long BACKOFF_MILLIS = 15;
+
+    /**
+     * SQLSTATE de violação de unicidade no PostgreSQL.
+     */
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    public CartTransactionExecutor(PlatformTransactionManager transactionManager,
+            @Value("${app.cart.max-attempts:3}") int maxAttempts) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * Executa a ação em uma transação, repetindo-a em caso de conflito. Dentro
+     * de uma transação já aberta, a ação participa dela e é executada uma única vez.
+     *
+     * @param action ação a executar
+     * @param <T>    tipo do resultado
+     * @return resultado da ação
+     */
+    public <T> T execute(Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // A transação externa já ficou marcada para rollback; repetir aqui
+            // só refaria o trabalho dentro dela. Quem a abriu decide se repete.
+            return transactionTemplate.execute(status -> action.get());
+        }
+
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (!isConflict(e) || attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Conflito ao alterar carrinho (tentativa {} de {}): {}", attempt, maxAttempts,
+                        e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Executa a ação em uma transação, repetindo-a em caso de conflito.
+     *
+     * @param action ação a executar
+     */
+    public void run(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Pelo JDBC a chave duplicada já chega como {@link DuplicateKeyException};
+     * pelo JPA chega como {@link DataIntegrityViolationException} genérica, e
+     * só o SQLSTATE da causa a distingue das demais violações.
+     */
+    private static boolean isConflict(RuntimeException e) {
+        if (e instanceof ConcurrencyFailureException || e instanceof DuplicateKeyException) {
+            return true;
+        }
+        return NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException cause
+                && UNIQUE_VIOLATION.equals(cause.getSQLState());
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(BACKOFF_MILLIS, BACKOFF_MILLIS * 2) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido ao repetir alteração de carrinho", e);
+        }
+    }
+}
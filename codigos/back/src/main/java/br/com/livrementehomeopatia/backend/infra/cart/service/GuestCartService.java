@@ -0,0 +1,170 @@
+package br.com.livrementehomeopatia.backend.infra.cart.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import br.com.livrementehomeopatia.backend.dto.CartItemResponse;
+import br.com.livrementehomeopatia.backend.dto.ProductSummaryDTO;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.cart.GuestCartCodec;
+import br.com.livrementehomeopatia.backend.infra.cart.dto.GuestCartDTO;
+import br.com.livrementehomeopatia.backend.infra.catalog.CatalogSnapshot;
+import br.com.livrementehomeopatia.backend.infra.catalog.service.CatalogSnapshotService;
+import br.com.livrementehomeopatia.backend.services.CartService;
+
+/**
+ * Carrinho de visitantes não autenticados.
+ * <p>
+ * O estado fica no token assinado pelo {@link GuestCartCodec}, guardado pelo
+ * navegador; as operações são validadas contra o catálogo em memória e não
+ * escrevem no banco. No login ou cadastro o carrinho é incorporado ao
+ * carrinho persistente do usuário.
+ * </p>
+ */
+@Service
+public class GuestCartService {
+
+    private static final Logger log = LoggerFactory.getLogger(GuestCartService.class);
+
+    private final GuestCartCodec codec;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CartService cartService;
+
+    public GuestCartService(GuestCartCodec codec, CatalogSnapshotService catalogSnapshotService,
+            CartService cartService) {
+        this.codec = codec;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.cartService = cartService;
+    }
+
+    /**
+     * Retorna o carrinho representado pelo token.
+     *
+     * @param token token atual (pode ser nulo)
+     * @return o carrinho, sem produtos que não existem mais
+     */
+    public GuestCartDTO view(String token) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        return toDto(validLines(token, snapshot), snapshot);
+    }
+
+    /**
+     * Adiciona uma unidade do produto ao carrinho.
+     *
+     * @param token     token atual (pode ser nulo)
+     * @param productId o id do produto a ser adicionado
+     * @return o carrinho atualizado, com o novo token
+     */
+    public GuestCartDTO addItem(String token, Integer productId) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        Map<Integer, Integer> lines = validLines(token, snapshot);
+
+        ProductSummaryDTO product = snapshot.findSummary(productId)
+                .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
+
+        ProductType cartType = cartType(lines, snapshot);
+        if (cartType != null && cartType != product.getType()) {
+            throw new RuntimeException(CartService.MIXED_TYPES_MESSAGE);
+        }
+        if (!lines.containsKey(productId) && lines.size() >= GuestCartCodec.MAX_LINES) {
+            throw new RuntimeException("O carrinho atingiu o limite de " + GuestCartCodec.MAX_LINES + " produtos");
+        }
+
+        lines.merge(productId, 1, (current, one) -> Math.min(current + one, GuestCartCodec.MAX_QUANTITY));
+        return toDto(lines, snapshot);
+    }
+
+    /**
+     * Decrementa a quantidade de um produto. Itens com uma única unidade
+     * permanecem no carrinho.
+     *
+     * @param token     token atual (pode ser nulo)
+     * @param productId o id do produto
+     * @return o carrinho atualizado, com o novo token
+     */
+    public GuestCartDTO decreaseItem(String token, Integer productId) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        Map<Integer, Integer> lines = validLines(token, snapshot);
+
+        Integer quantity = lines.get(productId);
+        if (quantity == null) {
+            throw new RuntimeException("Item não encontrado no carrinho");
+        }
+        if (quantity > 1) {
+            lines.put(productId, quantity - 1);
+        }
+        return toDto(lines, snapshot);
+    }
+
+    /**
+     * Remove um produto do carrinho.
+     *
+     * @param token     token atual (pode ser nulo)
+     * @param productId o id do produto
+     * @return o carrinho atualizado, com o novo token
+     */
+    public GuestCartDTO removeItem(String token, Integer productId) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        Map<Integer, Integer> lines = validLines(token, snapshot);
+
+        if (lines.remove(productId) == null) {
+            throw new RuntimeException("Item não encontrado no carrinho");
+        }
+        return toDto(lines, snapshot);
+    }
+
+    /**
+     * Incorpora o carrinho do token ao carrinho persistente do usuário.
+     * Falhas são registradas e não impedem o login ou o cadastro.
+     *
+     * @param userId ID do usuário autenticado
+     * @param token  token do carrinho de visitante (pode ser nulo)
+     */
+    public void mergeInto(Integer userId, String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        try {
+            cartService.mergeGuestCart(userId, codec.decode(token));
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível incorporar o carrinho de visitante ao usuário {}", userId, e);
+        }
+    }
+
+    /**
+     * Decodifica o token e descarta produtos que não estão mais no catálogo.
+     */
+    private Map<Integer, Integer> validLines(String token, CatalogSnapshot snapshot) {
+        Map<Integer, Integer> lines = new LinkedHashMap<>(codec.decode(token));
+        lines.keySet().removeIf(productId -> snapshot.findSummary(productId).isEmpty());
+        return lines;
+    }
+
+    private ProductType cartType(Map<Integer, Integer> lines, CatalogSnapshot snapshot) {
+        return lines.keySet().stream()
+                .map(snapshot::findSummary)
+                .flatMap(Optional::stream)
+                .map(ProductSummaryDTO::getType)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private GuestCartDTO toDto(Map<Integer, Integer> lines, CatalogSnapshot snapshot) {
+        List<CartItemResponse> items = new ArrayList<>();
+        double total = 0;
+        for (Map.Entry<Integer, Integer> line : lines.entrySet()) {
+            ProductSummaryDTO product = snapshot.findSummary(line.getKey()).orElseThrow();
+            items.add(new CartItemResponse(null, product.getId(), product.getName(), line.getValue(),
+                    product.getPrice(), product.getType(), product.getImageHash()));
+            total += product.getPrice() * line.getValue();
+        }
+        return new GuestCartDTO(codec.encode(lines), items, total, cartType(lines, snapshot));
+    }
+}
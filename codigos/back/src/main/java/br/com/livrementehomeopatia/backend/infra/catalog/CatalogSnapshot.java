@@ -0,0 +1,204 @@
+package br.com.livrementehomeopatia.backend.infra.catalog;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import br.com.livrementehomeopatia.backend.dto.ProductDTO;
+import br.com.livrementehomeopatia.backend.dto.ProductSummaryDTO;
+import br.com.livrementehomeopatia.backend.enums.Categories;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.model.Product;
+
+/**
+ * Visão imutável de todo o catálogo de produtos, indexada por ID, tipo,
+ * categoria e disponibilidade.
+ * <p>
+ * Uma instância nunca é alterada depois de criada: quando o catálogo muda, uma
+ * nova instância é montada e substitui a anterior. Os DTOs expostos são
+ * compartilhados entre requisições e não devem ser modificados.
+ * </p>
+ */
+public final class CatalogSnapshot {
+
+    private static final Comparator<String> NAME_ORDER = Collator.getInstance(Locale.forLanguageTag("pt-BR"))::compare;
+
+    private final List<ProductDTO> products;
+    private final Map<Integer, ProductDTO> productsById;
+    private final List<ProductSummaryDTO> summaries;
+    private final Map<Integer, ProductSummaryDTO> summariesById;
+    private final Map<ProductType, List<ProductSummaryDTO>> summariesByType;
+    private final Map<Categories, List<ProductSummaryDTO>> summariesByCategory;
+    private final List<ProductSummaryDTO> availableSummaries;
+    private final List<ProductSummaryDTO> unavailableSummaries;
+
+    private CatalogSnapshot(List<Product> source) {
+        List<Product> sorted = new ArrayList<>(source);
+        sorted.sort(Comparator.comparing(Product::getName, NAME_ORDER));
+
+        Map<Integer, ProductDTO> byId = new LinkedHashMap<>();
+        Map<Integer, ProductSummaryDTO> summaryById = new LinkedHashMap<>();
+        List<ProductSummaryDTO> allSummaries = new ArrayList<>();
+        Map<ProductType, List<ProductSummaryDTO>> byType = new EnumMap<>(ProductType.class);
+        Map<Categories, List<ProductSummaryDTO>> byCategory = new EnumMap<>(Categories.class);
+        List<ProductSummaryDTO> available = new ArrayList<>();
+        List<ProductSummaryDTO> unavailable = new ArrayList<>();
+
+        for (Product product : sorted) {
+            byId.put(product.getId(), new ProductDTO(product));
+
+            ProductSummaryDTO summary = new ProductSummaryDTO(product);
+            allSummaries.add(summary);
+            summaryById.put(product.getId(), summary);
+            byType.computeIfAbsent(product.getType(), type -> new ArrayList<>()).add(summary);
+            if (product.getCategories() != null) {
+                for (Categories category : product.getCategories()) {
+                    byCategory.computeIfAbsent(category, c -> new ArrayList<>()).add(summary);
+                }
+            }
+            (product.isAvailable() ? available : unavailable).add(summary);
+        }
+
+        this.products = List.copyOf(byId.values());
+        this.productsById = Map.copyOf(byId);
+        this.summaries = List.copyOf(allSummaries);
+        this.summariesById = Map.copyOf(summaryById);
+        this.summariesByType = freeze(byType);
+        this.summariesByCategory = freeze(byCategory);
+        this.availableSummaries = List.copyOf(available);
+        this.unavailableSummaries = List.copyOf(unavailable);
+    }
+
+    /**
+     * Monta um novo snapshot a partir das entidades carregadas do banco.
+     * As categorias dos produtos já devem estar inicializadas.
+     *
+     * @param products todos os produtos do catálogo
+     * @return snapshot imutável
+     */
+    public static CatalogSnapshot of(List<Product> products) {
+        return new CatalogSnapshot(products);
+    }
+
+    /**
+     * Retorna todos os produtos, ordenados pelo nome.
+     *
+     * @return lista imutável de produtos
+     */
+    public List<ProductDTO> products() {
+        return products;
+    }
+
+    /**
+     * Retorna os resumos de todos os produtos, ordenados pelo nome.
+     *
+     * @return lista imutável de resumos
+     */
+    public List<ProductSummaryDTO> summaries() {
+        return summaries;
+    }
+
+    /**
+     * Busca um produto pelo ID.
+     *
+     * @param id ID do produto
+     * @return o produto, ou vazio se não existir
+     */
+    public Optional<ProductDTO> findById(Integer id) {
+        return Optional.ofNullable(productsById.get(id));
+    }
+
+    /**
+     * Busca o resumo de um produto pelo ID.
+     *
+     * @param id ID do produto
+     * @return o resumo, ou vazio se o produto não existir
+     */
+    public Optional<ProductSummaryDTO> findSummary(Integer id) {
+        return Optional.ofNullable(summariesById.get(id));
+    }
+
+    /**
+     * Quantidade de produtos no snapshot.
+     *
+     * @return número de produtos
+     */
+    public int size() {
+        return summaries.size();
+    }
+
+    /**
+     * Indica se a paginação pedida pode ser atendida pelo snapshot, que só
+     * mantém os produtos ordenados pelo nome.
+     *
+     * @param pageable paginação solicitada
+     * @return true se a ordenação for vazia ou apenas pelo nome
+     */
+    public static boolean supports(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        return sort.isUnsorted() || (sort.stream().count() == 1 && sort.getOrderFor("name") != null);
+    }
+
+    /**
+     * Retorna uma página do catálogo com os filtros informados.
+     * Parte do menor índice aplicável e filtra os demais critérios sobre ele.
+     *
+     * @param type      filtro por tipo (opcional)
+     * @param category  filtro por categoria (opcional)
+     * @param available filtro por disponibilidade (opcional)
+     * @param pageable  paginação, sem ordenação ou ordenada pelo nome
+     * @return página de resumos de produtos
+     */
+    public Page<ProductSummaryDTO> page(ProductType type, Categories category, Boolean available, Pageable pageable) {
+        List<ProductSummaryDTO> candidates = summaries;
+        if (type != null) {
+            candidates = smallest(candidates, summariesByType.getOrDefault(type, List.of()));
+        }
+        if (category != null) {
+            candidates = smallest(candidates, summariesByCategory.getOrDefault(category, List.of()));
+        }
+        if (available != null) {
+            candidates = smallest(candidates, available ? availableSummaries : unavailableSummaries);
+        }
+
+        List<ProductSummaryDTO> matches = candidates.stream()
+                .filter(p -> type == null || p.getType() == type)
+                .filter(p -> category == null || p.getCategories().contains(category.name()))
+                .filter(p -> available == null || p.isAvailable() == available)
+                .toList();
+
+        Sort.Order order = pageable.getSort().getOrderFor("name");
+        if (order != null && order.isDescending()) {
+            matches = matches.reversed();
+        }
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches, pageable, matches.size());
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+
+    private static List<ProductSummaryDTO> smallest(List<ProductSummaryDTO> current, List<ProductSummaryDTO> index) {
+        return index.size() < current.size() ? index : current;
+    }
+
+    private static <K extends Enum<K>> Map<K, List<ProductSummaryDTO>> freeze(Map<K, List<ProductSummaryDTO>> index) {
+        Map<K, List<ProductSummaryDTO>> frozen = new LinkedHashMap<>();
+        index.forEach((key, values) -> frozen.put(key, List.copyOf(values)));
+        return Map.copyOf(frozen);
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.livrementehomeopatia.backend.infra.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Resposta JSON já serializada em UTF-8, com uma cópia comprimida em gzip.
+ * <p>
+ * A versão identifica o conteúdo e é usada como ETag; uma nova versão é gerada
+ * sempre que os dados de origem mudam. A variante gzip tem ETag própria (com o
+ * sufixo {@code -gzip}), pois seus bytes são outros. Os arrays de bytes nunca
+ * são alterados depois da criação.
+ * </p>
+ */
+public final class PreparedJsonResponse {
+
+    private final long version;
+    private final String etag;
+    private final String gzipEtag;
+    private final byte[] json;
+    private final byte[] gzip;
+
+    private PreparedJsonResponse(long version, byte[] json, byte[] gzip) {
+        this.version = version;
+        this.etag = "\"" + version + "\"";
+        this.gzipEtag = "\"" + version + "-gzip\"";
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Serializa o valor e prepara as variantes sem compressão e gzip.
+     *
+     * @param objectMapper mapper configurado da aplicação
+     * @param value        valor a ser serializado
+     * @param version      versão do conteúdo
+     * @return resposta pronta para envio
+     */
+    public static PreparedJsonResponse of(ObjectMapper objectMapper, Object value, long version) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new PreparedJsonResponse(version, json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar a resposta do catálogo", e);
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Monta a resposta HTTP: 304 se o cliente já tiver esta versão, senão o
+     * JSON em gzip ou sem compressão, conforme o {@code Accept-Encoding}.
+     *
+     * @param request requisição atual
+     * @return resposta com os bytes pré-serializados
+     */
+    public ResponseEntity<byte[]> toResponse(WebRequest request) {
+        CacheControl cacheControl = CacheControl.noCache().cachePublic();
+        boolean compressed = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String variantEtag = compressed ? gzipEtag : etag;
+
+        if (request.checkNotModified(variantEtag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(variantEtag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(variantEtag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (compressed) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        return builder.body(json);
+    }
+
+    /**
+     * Verifica se o cliente aceita gzip, respeitando {@code q=0}.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length < 2 || qualityOf(parts[1]) > 0;
+            }
+        }
+        return false;
+    }
+
+    private static double qualityOf(String parameter) {
+        String value = parameter.trim();
+        if (!value.startsWith("q=")) {
+            return 1;
+        }
+        try {
+            return Double.parseDouble(value.substring(2));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.livrementehomeopatia.backend.infra.catalog.event;
+
+/**
+ * Evento publicado sempre que um produto do catálogo é criado, alterado ou removido.
+ *
+ * @param productId ID do produto alterado, ou null quando a alteração abrange vários produtos
+ */
+public record CatalogChangedEvent(Integer productId) {
+}
@@ -0,0 +1,9 @@
+package br.com.livrementehomeopatia.backend.infra.catalog.event;
+
+/**
+ * Evento publicado sempre que um bairro é criado, alterado ou removido.
+ *
+ * @param neighborhoodId ID do bairro alterado
+ */
+public record NeighborhoodsChangedEvent(Integer neighborhoodId) {
+}
@@ -0,0 +1,85 @@
+package br.com.livrementehomeopatia.backend.infra.catalog.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza textos em português para indexação e busca.
+ * <p>
+ * Remove acentos, converte para minúsculas, separa as palavras, descarta
+ * palavras muito comuns e reduz plurais regulares ao singular
+ * (por exemplo, "Pomadas" vira "pomada" e "Loções" vira "locao").
+ * </p>
+ */
+public final class PortugueseTextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos", "em", "na", "no", "nas", "nos",
+            "um", "uma", "para", "por", "com", "sem", "ao", "aos");
+
+    private PortugueseTextAnalyzer() {
+    }
+
+    /**
+     * Quebra o texto em termos normalizados, na ordem em que aparecem.
+     *
+     * @param text texto livre (pode ser nulo)
+     * @return termos normalizados
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                terms.add(singular(token));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Remove acentos e converte para minúsculas.
+     *
+     * @param text texto original
+     * @return texto sem acentos e em minúsculas
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Reduz ao singular os plurais regulares do português, já sem acentos.
+     */
+    static String singular(String term) {
+        int length = term.length();
+        if (length <= 3 || !term.endsWith("s")) {
+            return term;
+        }
+        if (term.endsWith("oes") || term.endsWith("aes")) {
+            return term.substring(0, length - 3) + "ao";
+        }
+        if (term.endsWith("ais") || term.endsWith("eis") || term.endsWith("ois") || term.endsWith("uis")) {
+            return term.substring(0, length - 2) + "l";
+        }
+        if (term.endsWith("ns")) {
+            return term.substring(0, length - 2) + "m";
+        }
+        if (term.endsWith("res") || term.endsWith("zes")) {
+            return term.substring(0, length - 2);
+        }
+        if (term.endsWith("ss") || term.endsWith("us") || term.endsWith("is")) {
+            return term;
+        }
+        return term.substring(0, length - 1);
+    }
+}
@@ -0,0 +1,293 @@
+package br.com.livrementehomeopatia.backend.infra.catalog.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.livrementehomeopatia.backend.infra.catalog.event.CatalogChangedEvent;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+
+/**
+ * Índice invertido em memória sobre o nome e a descrição dos produtos.
+ * <p>
+ * Os textos passam pelo {@link PortugueseTextAnalyzer}, de modo que a busca
+ * ignora acentos, maiúsculas e plurais regulares. Cada termo da consulta casa
+ * com termos idênticos, com termos que começam por ele ou, para termos de
+ * quatro letras ou mais, com termos a uma edição de distância (duas a partir
+ * de oito letras). Todos os termos da consulta precisam casar; a pontuação
+ * favorece casamentos exatos e ocorrências no nome.
+ * </p>
+ * <p>
+ * O índice é montado a partir do repositório na inicialização e atualizado
+ * produto a produto após cada commit que altera o catálogo.
+ * </p>
+ */
+@Service
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.7;
+    private static final double FUZZY_MATCH = 0.5;
+
+    private static final int MAX_EXPANSIONS = 64;
+
+    private final ProductRepository productRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    private final NavigableSet<String> terms = new TreeSet<>();
+    private final Map<Integer, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<Integer, String> names = new HashMap<>();
+
+    private volatile boolean loaded;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Resultado da busca: ID do produto e pontuação.
+     */
+    public record Hit(Integer productId, double score) {
+    }
+
+    /**
+     * Reconstrói o índice inteiro a partir do repositório.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<Product> products = productRepository.findAll();
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            terms.clear();
+            documents.clear();
+            names.clear();
+            products.forEach(this::add);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Índice de busca reconstruído com {} produto(s) e {} termo(s).", products.size(), terms.size());
+    }
+
+    /**
+     * Atualiza o índice depois que uma alteração de produto foi confirmada.
+     *
+     * @param event evento de alteração do catálogo
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.productId() == null || !loaded) {
+            rebuild();
+            return;
+        }
+
+        Optional<Product> product = productRepository.findById(event.productId());
+
+        lock.writeLock().lock();
+        try {
+            remove(event.productId());
+            product.ifPresent(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca produtos pelo texto informado.
+     *
+     * @param query texto da busca
+     * @param limit número máximo de resultados
+     * @return resultados ordenados da maior para a menor pontuação
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> queryTerms = PortugueseTextAnalyzer.analyze(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (!loaded) {
+            rebuild();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+
+            for (String queryTerm : queryTerms) {
+                Map<Integer, Double> termScores = score(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Seleciona os {@code limit} melhores resultados com um heap limitado, sem
+     * ordenar todos os produtos que casaram: termos comuns casam com milhares.
+     */
+    private List<Hit> top(Map<Integer, Double> scores, int limit) {
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(hit -> names.getOrDefault(hit.productId(), ""));
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+
+        scores.forEach((productId, score) -> {
+            if (best.size() < limit) {
+                best.add(new Hit(productId, score));
+            } else if (score >= best.peek().score()) {
+                Hit hit = new Hit(productId, score);
+                if (ranking.compare(hit, best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+        });
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(ranking);
+        return hits;
+    }
+
+    /**
+     * Pontua os produtos que casam com um termo da consulta, ficando com o
+     * melhor casamento de cada produto.
+     */
+    private Map<Integer, Double> score(String queryTerm) {
+        Map<Integer, Double> scores = new HashMap<>();
+
+        accumulate(scores, queryTerm, EXACT_MATCH);
+
+        int expansions = 0;
+        for (String term : terms.tailSet(queryTerm, false)) {
+            if (!term.startsWith(queryTerm) || expansions++ >= MAX_EXPANSIONS) {
+                break;
+            }
+            accumulate(scores, term, PREFIX_MATCH);
+        }
+
+        int maxDistance = queryTerm.length() >= 8 ? 2 : queryTerm.length() >= 4 ? 1 : 0;
+        if (maxDistance > 0) {
+            String first = queryTerm.substring(0, 1);
+            String next = String.valueOf((char) (queryTerm.charAt(0) + 1));
+            for (String term : terms.subSet(first, true, next, false)) {
+                if (Math.abs(term.length() - queryTerm.length()) <= maxDistance
+                        && !term.startsWith(queryTerm)
+                        && editDistance(queryTerm, term, maxDistance) <= maxDistance) {
+                    accumulate(scores, term, FUZZY_MATCH);
+                }
+            }
+        }
+
+        return scores;
+    }
+
+    private void accumulate(Map<Integer, Double> scores, String term, double quality) {
+        Map<Integer, Integer> posting = postings.get(term);
+        if (posting == null) {
+            return;
+        }
+        posting.forEach((productId, weight) -> scores.merge(productId, quality * weight, Math::max));
+    }
+
+    private void add(Product product) {
+        Map<String, Integer> weights = new HashMap<>();
+        PortugueseTextAnalyzer.analyze(product.getName())
+                .forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        PortugueseTextAnalyzer.analyze(product.getDescription())
+                .forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+        weights.forEach((term, weight) -> {
+            postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.getId(), weight);
+            terms.add(term);
+        });
+        documents.put(product.getId(), weights);
+        names.put(product.getId(), product.getName() == null ? "" : product.getName());
+    }
+
+    private void remove(Integer productId) {
+        Map<String, Integer> weights = documents.remove(productId);
+        names.remove(productId);
+        if (weights == null) {
+            return;
+        }
+        for (String term : weights.keySet()) {
+            Map<Integer, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    terms.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Distância de edição (com transposição de letras vizinhas) limitada:
+     * retorna {@code max + 1} assim que a distância ultrapassa o limite.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+}
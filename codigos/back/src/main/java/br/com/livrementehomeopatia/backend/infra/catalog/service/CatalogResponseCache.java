@@ -0,0 +1,112 @@
+package br.com.livrementehomeopatia.backend.infra.catalog.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.livrementehomeopatia.backend.infra.catalog.CatalogSnapshot;
+import br.com.livrementehomeopatia.backend.infra.catalog.PreparedJsonResponse;
+import br.com.livrementehomeopatia.backend.infra.catalog.event.NeighborhoodsChangedEvent;
+import br.com.livrementehomeopatia.backend.repository.NeighborhoodRepository;
+
+/**
+ * Guarda as respostas pré-serializadas das listagens públicas de produtos e bairros.
+ * <p>
+ * A listagem de produtos é regenerada quando o {@link CatalogSnapshotService}
+ * publica um novo snapshot; a de bairros é descartada após cada commit que
+ * altera bairros e recarregada na próxima leitura. Cada regeneração recebe uma
+ * versão maior que a anterior. O contador parte do instante de inicialização,
+ * para que as versões não se repitam entre reinícios da aplicação.
+ * </p>
+ */
+@Service
+public class CatalogResponseCache {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final NeighborhoodRepository neighborhoodRepository;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong neighborhoodsGeneration = new AtomicLong();
+
+    private volatile PreparedProducts products;
+    private volatile PreparedJsonResponse neighborhoods;
+
+    public CatalogResponseCache(CatalogSnapshotService catalogSnapshotService,
+            NeighborhoodRepository neighborhoodRepository, ObjectMapper objectMapper) {
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.neighborhoodRepository = neighborhoodRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Retorna a listagem pública de produtos já serializada.
+     *
+     * @return resposta correspondente ao snapshot atual do catálogo
+     */
+    public PreparedJsonResponse products() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        PreparedProducts current = products;
+        if (current != null && current.source() == snapshot) {
+            return current.response();
+        }
+        return prepareProducts(snapshot);
+    }
+
+    /**
+     * Retorna a listagem pública de bairros já serializada.
+     *
+     * @return resposta com todos os bairros
+     */
+    public PreparedJsonResponse neighborhoods() {
+        PreparedJsonResponse current = neighborhoods;
+        return current != null ? current : prepareNeighborhoods();
+    }
+
+    /**
+     * Descarta a listagem de bairros depois que uma alteração foi confirmada.
+     *
+     * @param event evento de alteração de bairros
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNeighborhoodsChanged(NeighborhoodsChangedEvent event) {
+        neighborhoodsGeneration.incrementAndGet();
+        neighborhoods = null;
+    }
+
+    private synchronized PreparedJsonResponse prepareProducts(CatalogSnapshot snapshot) {
+        PreparedProducts current = products;
+        if (current != null && current.source() == snapshot) {
+            return current.response();
+        }
+        PreparedJsonResponse response = PreparedJsonResponse.of(objectMapper, snapshot.products(),
+                versions.incrementAndGet());
+        products = new PreparedProducts(snapshot, response);
+        return response;
+    }
+
+    /**
+     * Carrega e serializa os bairros. Se uma alteração for confirmada durante a
+     * carga, o resultado atende a leitura corrente mas não é guardado.
+     */
+    private synchronized PreparedJsonResponse prepareNeighborhoods() {
+        PreparedJsonResponse current = neighborhoods;
+        if (current != null) {
+            return current;
+        }
+        long generation = neighborhoodsGeneration.get();
+        PreparedJsonResponse response = PreparedJsonResponse.of(objectMapper, neighborhoodRepository.findAll(),
+                versions.incrementAndGet());
+        if (neighborhoodsGeneration.get() == generation) {
+            neighborhoods = response;
+        }
+        return response;
+    }
+
+    private record PreparedProducts(CatalogSnapshot source, PreparedJsonResponse response) {
+    }
+}
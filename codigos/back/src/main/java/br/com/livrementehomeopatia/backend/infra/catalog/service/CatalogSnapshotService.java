@@ -0,0 +1,83 @@
+package br.com.livrementehomeopatia.backend.infra.catalog.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.livrementehomeopatia.backend.infra.catalog.CatalogSnapshot;
+import br.com.livrementehomeopatia.backend.infra.catalog.event.CatalogChangedEvent;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+
+/**
+ * Mantém em memória o {@link CatalogSnapshot} usado nas leituras públicas do catálogo.
+ * <p>
+ * O snapshot é carregado na primeira leitura e substituído por inteiro
+ * (copy-on-write) depois de cada commit que altera produtos. As leituras
+ * apenas leem a referência volátil e nunca acessam o banco.
+ * </p>
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogSnapshotService(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Retorna o snapshot atual, carregando-o na primeira chamada.
+     *
+     * @return snapshot imutável do catálogo
+     */
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    /**
+     * Reconstrói o snapshot depois que uma alteração de produto foi confirmada.
+     * Se a reconstrução falhar, o snapshot é descartado e recarregado na próxima leitura.
+     *
+     * @param event evento de alteração do catálogo
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            snapshot = null;
+            log.error("Falha ao reconstruir o snapshot do catálogo após alteração do produto {}", event.productId(), e);
+        }
+    }
+
+    private synchronized CatalogSnapshot load() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * Carrega todos os produtos e publica um novo snapshot. As reconstruções são
+     * serializadas, de modo que a última a terminar reflete o último commit.
+     */
+    private synchronized CatalogSnapshot rebuild() {
+        CatalogSnapshot rebuilt = readOnlyTransaction.execute(
+                status -> CatalogSnapshot.of(productRepository.findAllWithCategories()));
+        snapshot = rebuilt;
+        log.debug("Snapshot do catálogo reconstruído com {} produto(s).", rebuilt.size());
+        return rebuilt;
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.livrementehomeopatia.backend.infra.image;
+
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageVariant;
+
+/**
+ * Monta as URLs públicas das imagens de produtos.
+ * <p>
+ * As URLs carregam a versão da foto (prefixo do hash do conteúdo) no parâmetro
+ * {@code v}. Como o conteúdo de uma URL versionada nunca muda, ela pode ser
+ * armazenada em cache indefinidamente pelo navegador e pelo proxy reverso.
+ * </p>
+ */
+public final class ProductImageUrls {
+
+    private static final int VERSION_LENGTH = 16;
+
+    private ProductImageUrls() {
+    }
+
+    /**
+     * Retorna a URL da imagem de um produto.
+     *
+     * @param productId ID do produto
+     * @param photoHash hash da foto no armazenamento (pode ser nulo)
+     * @return URL da imagem, ou null se o produto não tiver foto
+     */
+    public static String of(Integer productId, String photoHash) {
+        if (productId == null || photoHash == null) {
+            return null;
+        }
+        return "/api/product/" + productId + "/image?v=" + version(photoHash);
+    }
+
+    /**
+     * Retorna a URL de uma variante redimensionada da imagem de um produto.
+     *
+     * @param productId ID do produto
+     * @param photoHash hash da foto no armazenamento (pode ser nulo)
+     * @param variant   variante desejada
+     * @return URL da variante, ou null se o produto não tiver foto
+     */
+    public static String of(Integer productId, String photoHash, ImageVariant variant) {
+        String url = of(productId, photoHash);
+        return url == null ? null : url + "&size=" + variant.paramName();
+    }
+
+    /**
+     * Retorna a versão de uma foto, usada no parâmetro {@code v} da URL.
+     *
+     * @param photoHash hash da foto no armazenamento
+     * @return versão da foto
+     */
+    public static String version(String photoHash) {
+        return photoHash.substring(0, VERSION_LENGTH);
+    }
+
+    /**
+     * Retorna a ETag forte de uma foto, derivada do hash do conteúdo.
+     *
+     * @param photoHash hash da foto no armazenamento
+     * @return ETag entre aspas
+     */
+    public static String etag(String photoHash) {
+        return "\"" + photoHash + "\"";
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.livrementehomeopatia.backend.infra.image.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.livrementehomeopatia.backend.infra.image.store.FileSystemImageStore;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageStore;
+
+/**
+ * Configuração do armazenamento de imagens.
+ * <p>
+ * Por padrão utiliza o disco local ({@link FileSystemImageStore}). Outra
+ * implementação de {@link ImageStore} pode ser registrada como bean para
+ * substituí-la.
+ * </p>
+ */
+@Configuration
+public class ImageStoreConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(ImageStore.class)
+    public ImageStore imageStore(@Value("${app.images.dir}") String directory) throws IOException {
+        return new FileSystemImageStore(Path.of(directory));
+    }
+}
@@ -0,0 +1,237 @@
+package br.com.livrementehomeopatia.backend.infra.image.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageMimeTypes;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageStore;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageVariant;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Gera as variantes redimensionadas ({@link ImageVariant}) das fotos de produtos.
+ * <p>
+ * A geração roda em um pool de threads limitado, fora da requisição de upload.
+ * As imagens são decodificadas e recodificadas com os codecs do ImageIO; se um
+ * codec WebP estiver disponível no classpath ele é usado, senão as variantes
+ * são gravadas em JPEG (ou PNG, quando a imagem tem transparência).
+ * Imagens com mais pixels que {@code app.images.max-pixels} são recusadas
+ * pelas dimensões do cabeçalho, antes de decodificadas: um arquivo pequeno
+ * pode declarar dimensões que esgotariam a memória.
+ * Se a fila estiver cheia a geração é descartada e volta a ser agendada na
+ * próxima vez que a variante for solicitada.
+ * </p>
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final ImageStore imageStore;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public ImageDerivativeService(ImageStore imageStore,
+            @Value("${app.images.derivatives.threads:2}") int threads,
+            @Value("${app.images.derivatives.queue-capacity:100}") int queueCapacity,
+            @Value("${app.images.max-pixels:40000000}") long maxPixels) {
+        this.imageStore = imageStore;
+        this.maxPixels = maxPixels;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Agenda a geração de todas as variantes de uma imagem.
+     * Chamadas repetidas para o mesmo hash enquanto a geração está pendente são ignoradas.
+     *
+     * @param sourceHash hash da imagem original no armazenamento
+     */
+    public void schedule(String sourceHash) {
+        if (sourceHash == null || !pending.add(sourceHash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(sourceHash);
+                } finally {
+                    pending.remove(sourceHash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(sourceHash);
+            log.warn("Fila de geração de variantes cheia; imagem {} será processada sob demanda.", sourceHash);
+        }
+    }
+
+    /**
+     * Gera e grava todas as variantes de uma imagem.
+     *
+     * @param sourceHash hash da imagem original
+     */
+    private void generate(String sourceHash) {
+        try {
+            Optional<byte[]> original = imageStore.read(sourceHash);
+            if (original.isEmpty()) {
+                return;
+            }
+
+            BufferedImage source = decode(sourceHash, original.get());
+            if (source == null) {
+                return;
+            }
+
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (imageStore.findVariant(sourceHash, variant).isPresent()) {
+                    continue;
+                }
+                BufferedImage resized = resize(source, variant.getMaxDimension());
+                String mimeType = outputMimeType(resized);
+                imageStore.putVariant(sourceHash, variant, encode(resized, mimeType), mimeType);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Falha ao gerar variantes da imagem {}", sourceHash, e);
+        }
+    }
+
+    /**
+     * Decodifica a imagem se o formato for suportado e as dimensões declaradas
+     * no cabeçalho couberem no limite de pixels.
+     *
+     * @return a imagem, ou null se ela foi recusada
+     */
+    BufferedImage decode(String sourceHash, byte[] data) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                log.warn("Formato da imagem {} não suportado pelo ImageIO; variantes não geradas.", sourceHash);
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Imagem {} recusada: {}x{} passa do limite de {} pixels; variantes não geradas.",
+                            sourceHash, width, height, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Redimensiona a imagem para que o maior lado não ultrapasse o limite,
+     * reduzindo pela metade a cada passo para preservar a qualidade.
+     * Imagens menores que o limite não são ampliadas.
+     */
+    private BufferedImage resize(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            if (current != source && current.getWidth() == width && current.getHeight() == height) {
+                break;
+            }
+
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D graphics = step.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    private String outputMimeType(BufferedImage image) {
+        if (ImageIO.getImageWritersByMIMEType(ImageMimeTypes.IMAGE_WEBP_VALUE).hasNext()) {
+            return ImageMimeTypes.IMAGE_WEBP_VALUE;
+        }
+        return image.getColorModel().hasAlpha() ? MimeTypeUtils.IMAGE_PNG_VALUE : MimeTypeUtils.IMAGE_JPEG_VALUE;
+    }
+
+    private byte[] encode(BufferedImage image, String mimeType) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(mimeType);
+        if (!writers.hasNext()) {
+            throw new IOException("Nenhum codec disponível para " + mimeType);
+        }
+
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed() && !MimeTypeUtils.IMAGE_PNG_VALUE.equals(mimeType)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes().length > 0) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
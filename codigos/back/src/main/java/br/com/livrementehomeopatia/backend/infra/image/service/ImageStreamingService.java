@@ -0,0 +1,140 @@
+package br.com.livrementehomeopatia.backend.infra.image.service;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Envia imagens do {@link ImageStore} diretamente para a resposta HTTP.
+ * <p>
+ * Quando a imagem está em disco, o conteúdo é transmitido via sendfile do
+ * Tomcat (se disponível) ou por {@link FileChannel#transferTo}, sem carregar
+ * o arquivo inteiro no heap. Suporta requisições HEAD e um único intervalo
+ * no cabeçalho {@code Range}.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class ImageStreamingService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageStore imageStore;
+
+    /**
+     * Escreve a imagem na resposta, respeitando HEAD e Range.
+     *
+     * @param hash     hash da imagem no armazenamento
+     * @param mimeType tipo MIME registrado no upload
+     * @param request  requisição HTTP
+     * @param response resposta HTTP
+     * @throws IOException se ocorrer erro de leitura ou escrita
+     */
+    public void write(String hash, String mimeType, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        Optional<Path> file = imageStore.locate(hash);
+        byte[] inMemory = null;
+        long length;
+
+        if (file.isPresent()) {
+            length = Files.size(file.get());
+        } else {
+            Optional<byte[]> bytes = imageStore.read(hash);
+            if (bytes.isEmpty()) {
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+                return;
+            }
+            inMemory = bytes.get();
+            length = inMemory.length;
+        }
+
+        response.setContentType(mimeType);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+
+        if (rangeHeader != null && length > 0) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+
+            // Múltiplos intervalos são ignorados e a imagem é enviada inteira (RFC 9110).
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(length);
+                    end = range.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (inMemory != null) {
+            response.getOutputStream().write(inMemory, (int) start, (int) count);
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.get().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        transfer(file.get(), start, count, response);
+    }
+
+    private void transfer(Path file, long start, long count, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.livrementehomeopatia.backend.infra.image.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Blob;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.livrementehomeopatia.backend.infra.catalog.event.CatalogChangedEvent;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageMimeTypes;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageStore;
+import br.com.livrementehomeopatia.backend.infra.image.store.StoredImage;
+
+/**
+ * Migra as fotos legadas, gravadas na coluna {@code product.photo}, para o
+ * {@link ImageStore}.
+ * <p>
+ * Executado na inicialização. Processa os produtos em lotes, cada lote em sua
+ * própria transação, gravando a referência (hash, tamanho e tipo MIME) e
+ * limpando a coluna legada. A coluna não é removida automaticamente; depois
+ * que a migração terminar ela pode ser descartada manualmente.
+ * </p>
+ */
+@Component
+public class ProductPhotoMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductPhotoMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageStore imageStore;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.images.migration-batch-size:20}")
+    private int batchSize;
+
+    public ProductPhotoMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            ImageStore imageStore, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.imageStore = imageStore;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void run(String... args) {
+        List<String> columnType = jdbcTemplate.queryForList(
+                "SELECT data_type FROM information_schema.columns WHERE table_name = 'product' AND column_name = 'photo'",
+                String.class);
+
+        if (columnType.isEmpty()) {
+            return;
+        }
+
+        boolean largeObject = "oid".equalsIgnoreCase(columnType.get(0));
+        int total = 0;
+        int migrated;
+
+        do {
+            migrated = transactionTemplate.execute(status -> migrateBatch(largeObject));
+            total += migrated;
+        } while (migrated == batchSize);
+
+        if (total > 0) {
+            log.info("Migração de fotos concluída: {} produto(s) movido(s) para o armazenamento de imagens.", total);
+            eventPublisher.publishEvent(new CatalogChangedEvent(null));
+        }
+    }
+
+    /**
+     * Migra um lote de produtos que ainda possuem a foto na coluna legada.
+     *
+     * @param largeObject true se a coluna for do tipo {@code oid} (large object)
+     * @return quantidade de produtos migrados no lote
+     */
+    private int migrateBatch(boolean largeObject) {
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM product WHERE photo IS NOT NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                Integer.class, batchSize);
+
+        for (Integer id : ids) {
+            byte[] bytes = jdbcTemplate.queryForObject("SELECT photo FROM product WHERE id = ?",
+                    (rs, rowNum) -> {
+                        if (!largeObject) {
+                            return rs.getBytes(1);
+                        }
+                        Blob blob = rs.getBlob(1);
+                        return blob.getBytes(1, (int) blob.length());
+                    }, id);
+
+            StoredImage stored;
+            try {
+                stored = imageStore.put(bytes, ImageMimeTypes.detect(bytes, null));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao migrar a foto do produto " + id, e);
+            }
+
+            if (largeObject) {
+                jdbcTemplate.queryForList("SELECT lo_unlink(photo) FROM product WHERE id = ?", id);
+            }
+            jdbcTemplate.update(
+                    "UPDATE product SET photo = NULL, photo_hash = ?, photo_size = ?, photo_mime_type = ? WHERE id = ?",
+                    stored.hash(), stored.size(), stored.mimeType(), id);
+        }
+
+        return ids.size();
+    }
+}
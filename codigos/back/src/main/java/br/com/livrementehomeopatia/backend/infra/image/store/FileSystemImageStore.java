@@ -0,0 +1,153 @@
+package br.com.livrementehomeopatia.backend.infra.image.store;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementação de {@link ImageStore} em disco local.
+ * <p>
+ * Os arquivos são gravados em {@code <raiz>/ab/cd/<hash>}, onde {@code ab} e
+ * {@code cd} são os quatro primeiros caracteres do hash. A escrita é feita em
+ * um arquivo temporário e movida atomicamente para o destino, de forma que
+ * leitores nunca enxergam um arquivo parcialmente gravado.
+ * </p>
+ * <p>
+ * Variantes são gravadas como objetos comuns e vinculadas à original por um
+ * pequeno arquivo em {@code <raiz>/variants/ab/cd/<hash>/<variante>}, contendo
+ * o hash e o tipo MIME da variante.
+ * </p>
+ */
+public class FileSystemImageStore implements ImageStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSystemImageStore.class);
+
+    private final Path root;
+
+    public FileSystemImageStore(Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+        log.info("Armazenamento de imagens inicializado em {}", this.root);
+    }
+
+    @Override
+    public StoredImage put(byte[] data, String mimeType) throws IOException {
+        String hash = sha256(data);
+        Path target = resolve(hash);
+
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, data);
+                moveIntoPlace(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        return new StoredImage(hash, data.length, mimeType);
+    }
+
+    @Override
+    public Optional<byte[]> read(String hash) throws IOException {
+        Path file = resolve(hash);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(Files.readAllBytes(file));
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(resolve(hash));
+    }
+
+    @Override
+    public StoredImage putVariant(String sourceHash, ImageVariant variant, byte[] data, String mimeType)
+            throws IOException {
+        StoredImage stored = put(data, mimeType);
+        Path link = variantLink(sourceHash, variant);
+
+        Files.createDirectories(link.getParent());
+        Path temp = Files.createTempFile(link.getParent(), variant.paramName(), ".tmp");
+        try {
+            Files.writeString(temp, stored.hash() + " " + stored.mimeType(), StandardCharsets.UTF_8);
+            moveIntoPlace(temp, link);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        return stored;
+    }
+
+    @Override
+    public Optional<StoredImage> findVariant(String sourceHash, ImageVariant variant) throws IOException {
+        Path link = variantLink(sourceHash, variant);
+        if (!Files.exists(link)) {
+            return Optional.empty();
+        }
+
+        String[] parts = Files.readString(link, StandardCharsets.UTF_8).trim().split(" ", 2);
+        Path file = resolve(parts[0]);
+        if (parts.length < 2 || !Files.exists(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(new StoredImage(parts[0], Files.size(file), parts[1]));
+    }
+
+    @Override
+    public Optional<Path> locate(String hash) {
+        Path file = resolve(hash);
+        return Files.exists(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Resolve o caminho de um objeto a partir do seu hash.
+     *
+     * @param hash hash SHA-256 em hexadecimal
+     * @return caminho do arquivo
+     * @throws IllegalArgumentException se o hash não for um SHA-256 válido
+     */
+    protected Path resolve(String hash) {
+        if (hash == null || hash.length() != 64 || !hash.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("Hash de imagem inválido: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Path variantLink(String sourceHash, ImageVariant variant) {
+        Path source = resolve(sourceHash);
+        return root.resolve("variants")
+                .resolve(source.getParent().getParent().getFileName())
+                .resolve(source.getParent().getFileName())
+                .resolve(sourceHash)
+                .resolve(variant.paramName());
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível na JVM", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.livrementehomeopatia.backend.infra.image.store;
+
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Detecção do tipo MIME de imagens a partir da assinatura dos seus bytes.
+ * Executada uma única vez, no momento do upload.
+ */
+public final class ImageMimeTypes {
+
+    public static final String IMAGE_WEBP_VALUE = "image/webp";
+
+    private ImageMimeTypes() {
+    }
+
+    /**
+     * Detecta o tipo MIME de uma imagem baseado nos seus bytes.
+     *
+     * @param image       bytes da imagem
+     * @param declaredType tipo informado pelo cliente no upload (pode ser nulo)
+     * @return tipo MIME da imagem
+     */
+    public static String detect(byte[] image, String declaredType) {
+        if (image.length >= 12) {
+            if (image[0] == (byte) 0xFF && image[1] == (byte) 0xD8) {
+                return MimeTypeUtils.IMAGE_JPEG_VALUE;
+            }
+            if (image[0] == (byte) 0x89 && image[1] == (byte) 0x50 &&
+                    image[2] == (byte) 0x4E && image[3] == (byte) 0x47) {
+                return MimeTypeUtils.IMAGE_PNG_VALUE;
+            }
+            if (image[8] == 'W' && image[9] == 'E' && image[10] == 'B' && image[11] == 'P') {
+                return IMAGE_WEBP_VALUE;
+            }
+        }
+        if (declaredType != null && declaredType.startsWith("image/")) {
+            return declaredType;
+        }
+        return MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE;
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.livrementehomeopatia.backend.infra.image.store;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Armazenamento de imagens endereçado por conteúdo.
+ * <p>
+ * Cada imagem é identificada pelo hash SHA-256 dos seus bytes, de modo que
+ * uploads idênticos ocupam um único objeto no armazenamento. As entidades
+ * guardam apenas a referência ({@link StoredImage}) e nunca os bytes.
+ * </p>
+ */
+public interface ImageStore {
+
+    /**
+     * Grava uma imagem, reaproveitando o objeto existente caso o mesmo
+     * conteúdo já tenha sido armazenado.
+     *
+     * @param data     bytes da imagem
+     * @param mimeType tipo MIME da imagem
+     * @return referência para a imagem armazenada
+     * @throws IOException se ocorrer erro de escrita
+     */
+    StoredImage put(byte[] data, String mimeType) throws IOException;
+
+    /**
+     * Lê o conteúdo completo de uma imagem.
+     *
+     * @param hash hash SHA-256 da imagem
+     * @return bytes da imagem, ou vazio se não existir
+     * @throws IOException se ocorrer erro de leitura
+     */
+    Optional<byte[]> read(String hash) throws IOException;
+
+    /**
+     * Verifica se uma imagem está presente no armazenamento.
+     *
+     * @param hash hash SHA-256 da imagem
+     * @return true se a imagem existir
+     */
+    boolean exists(String hash);
+
+    /**
+     * Retorna o arquivo local que guarda a imagem, permitindo que ela seja
+     * transmitida diretamente do disco (sem cópia para o heap).
+     * Implementações que não usam o sistema de arquivos local retornam vazio,
+     * e o chamador deve recorrer a {@link #read(String)}.
+     *
+     * @param hash hash SHA-256 da imagem
+     * @return caminho do arquivo, ou vazio se não existir ou não for local
+     */
+    default Optional<Path> locate(String hash) {
+        return Optional.empty();
+    }
+
+    /**
+     * Grava uma variante derivada de uma imagem original. O conteúdo da
+     * variante também é endereçado por hash; o armazenamento guarda apenas o
+     * vínculo entre a original e a variante.
+     *
+     * @param sourceHash hash da imagem original
+     * @param variant    variante gerada
+     * @param data       bytes da variante
+     * @param mimeType   tipo MIME da variante
+     * @return referência para a variante armazenada
+     * @throws IOException se ocorrer erro de escrita
+     */
+    StoredImage putVariant(String sourceHash, ImageVariant variant, byte[] data, String mimeType) throws IOException;
+
+    /**
+     * Busca uma variante já gerada de uma imagem original.
+     *
+     * @param sourceHash hash da imagem original
+     * @param variant    variante desejada
+     * @return referência para a variante, ou vazio se ainda não foi gerada
+     * @throws IOException se ocorrer erro de leitura
+     */
+    Optional<StoredImage> findVariant(String sourceHash, ImageVariant variant) throws IOException;
+}
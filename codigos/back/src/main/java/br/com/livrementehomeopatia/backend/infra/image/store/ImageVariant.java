@@ -0,0 +1,52 @@
+package br.com.livrementehomeopatia.backend.infra.image.store;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Tamanhos derivados gerados a partir da foto original de um produto.
+ * Cada variante limita o maior lado da imagem ao valor de {@link #getMaxDimension()}.
+ */
+public enum ImageVariant {
+
+    THUMBNAIL(160),
+    CARD(480),
+    FULL(1200);
+
+    private final int maxDimension;
+
+    ImageVariant(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * Nome da variante usado no parâmetro {@code size} das URLs.
+     *
+     * @return nome em minúsculas
+     */
+    public String paramName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Converte o parâmetro {@code size} de uma requisição em variante.
+     *
+     * @param value valor do parâmetro (pode ser nulo)
+     * @return a variante correspondente, ou vazio para a imagem original
+     */
+    public static Optional<ImageVariant> fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        for (ImageVariant variant : values()) {
+            if (variant.paramName().equalsIgnoreCase(value.trim())) {
+                return Optional.of(variant);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.livrementehomeopatia.backend.infra.image.store;
+
+/**
+ * Referência a uma imagem gravada no {@link ImageStore}.
+ *
+ * @param hash     hash SHA-256 (hexadecimal) do conteúdo, usado como chave
+ * @param size     tamanho do conteúdo em bytes
+ * @param mimeType tipo MIME detectado no momento do upload
+ */
+public record StoredImage(String hash, long size, String mimeType) {
+}
@@ -0,0 +1,9 @@
+package br.com.livrementehomeopatia.backend.infra.mail.event;
+
+/**
+ * Evento publicado quando um e-mail é gravado na fila de saída.
+ *
+ * @param mailId ID do e-mail em {@code mail_outbox}
+ */
+public record MailQueuedEvent(Long mailId) {
+}
@@ -0,0 +1,328 @@
+package br.com.livrementehomeopatia.backend.infra.mail.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import br.com.livrementehomeopatia.backend.enums.OutboxStatus;
+import br.com.livrementehomeopatia.backend.infra.mail.event.MailQueuedEvent;
+import br.com.livrementehomeopatia.backend.infra.outbox.OutboxExecutors;
+import br.com.livrementehomeopatia.backend.infra.outbox.OutboxRetryPolicy;
+import br.com.livrementehomeopatia.backend.model.MailOutbox;
+import br.com.livrementehomeopatia.backend.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.activation.DataSource;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.ByteArrayDataSource;
+
+/**
+ * Envia os e-mails gravados em {@code mail_outbox}.
+ * <p>
+ * Os envios rodam em um pool limitado de threads virtuais, em lotes: cada
+ * execução reserva até {@code app.mail.batch-size} e-mails vencidos em uma
+ * transação curta (adiando-os pelo tempo da reserva), envia todos pela mesma
+ * conexão do {@link SmtpTransportPool}, sem transação aberta, e registra os
+ * resultados em outra transação curta. Execuções concorrentes pegam lotes
+ * distintos. Falhas são repetidas com espera exponencial até
+ * {@code app.mail.max-attempts}; depois disso o e-mail fica com status FAILED
+ * para análise. O corpo de cada e-mail enviado é esvaziado, e os registros
+ * finalizados são apagados após {@code app.mail.retention}. O logotipo
+ * embutido é lido uma única vez.
+ * </p>
+ * <p>
+ * O envio começa logo após o commit da operação que gravou o e-mail; uma
+ * varredura periódica retoma os pendentes, inclusive os interrompidos por uma
+ * reinicialização. Métricas: {@code mail.outbox.pending} (tamanho da fila),
+ * {@code mail.outbox.send} (latência por resultado) e
+ * {@code mail.outbox.dead_letter}.
+ * </p>
+ */
+@Component
+public class MailOutboxWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxWorker.class);
+
+    private static final String LOGO_PATH = "/static/images/logo.png";
+
+    private final MailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxRetryPolicy retryPolicy;
+    private final int batchSize;
+    private final int threads;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger activeDrains = new AtomicInteger();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final DataSource logo;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Timer sendSuccess;
+    private final Timer sendFailure;
+    private final Counter deadLetters;
+
+    public MailOutboxWorker(MailOutboxRepository outboxRepository, JavaMailSender mailSender,
+            SmtpTransportPool transportPool, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.mail.max-attempts:6}") int maxAttempts,
+            @Value("${app.mail.batch-size:20}") int batchSize,
+            @Value("${app.mail.threads:2}") int threads,
+            @Value("${app.mail.retention:P7D}") Duration retention) throws IOException {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transportPool = transportPool;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryPolicy = new OutboxRetryPolicy(Duration.ofMinutes(2), Duration.ofSeconds(30), Duration.ofHours(1),
+                maxAttempts);
+        this.batchSize = Math.max(1, batchSize);
+        this.threads = Math.max(1, threads);
+        this.retention = retention;
+        this.logo = loadLogo();
+
+        this.executor = OutboxExecutors.bounded(this.threads, this.threads,
+                Thread.ofVirtual().name("mail-outbox-", 1).factory());
+
+        Gauge.builder("mail.outbox.pending", pending, AtomicLong::get)
+                .description("E-mails pendentes na fila de saída, contados a cada varredura")
+                .register(meterRegistry);
+        this.sendSuccess = Timer.builder("mail.outbox.send")
+                .description("Duração dos envios por SMTP")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.sendFailure = Timer.builder("mail.outbox.send")
+                .description("Duração dos envios por SMTP")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        this.deadLetters = Counter.builder("mail.outbox.dead_letter")
+                .description("E-mails descartados após esgotar as tentativas")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMailQueued(MailQueuedEvent event) {
+        requestDrain();
+    }
+
+    @Scheduled(initialDelayString = "${app.mail.retry-interval:PT30S}",
+            fixedDelayString = "${app.mail.retry-interval:PT30S}")
+    public void sweep() {
+        pending.set(outboxRepository.countByStatus(OutboxStatus.PENDING));
+        if (outboxRepository.existsByStatusAndNextAttemptAtLessThanEqual(OutboxStatus.PENDING, Instant.now())) {
+            requestDrain();
+        }
+    }
+
+    /**
+     * Apaga os e-mails enviados ou descartados há mais de {@code app.mail.retention}.
+     */
+    @Scheduled(initialDelayString = "${app.mail.purge-interval:PT1H}",
+            fixedDelayString = "${app.mail.purge-interval:PT1H}")
+    public void purge() {
+        int purged = transactionTemplate.execute(status -> outboxRepository.deleteFinishedBefore(
+                List.of(OutboxStatus.DONE, OutboxStatus.FAILED), Instant.now().minus(retention)));
+        if (purged > 0) {
+            log.info("{} e-mail(s) antigo(s) removido(s) da fila de saída.", purged);
+        }
+    }
+
+    /**
+     * Inicia uma execução de envio, a menos que todas as threads já estejam
+     * enviando; nesse caso o pedido fica registrado e uma execução em
+     * andamento faz mais uma passada antes de terminar.
+     */
+    private void requestDrain() {
+        drainRequested.set(true);
+        int active = activeDrains.get();
+        if (active >= threads || !activeDrains.compareAndSet(active, active + 1)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            activeDrains.decrementAndGet();
+            log.warn("Fila de envio de e-mails cheia; envio retomado na próxima varredura.");
+        }
+    }
+
+    /**
+     * Envia lotes até esvaziar a fila. Um pedido que chegue depois da última
+     * reserva faz o laço rodar de novo; se chegar depois da última verificação,
+     * é atendido pelo novo {@link #requestDrain()} feito ao sair, de modo que
+     * nenhum e-mail espera pela varredura periódica.
+     */
+    private void drain() {
+        try {
+            do {
+                drainRequested.set(false);
+                while (sendBatch() == batchSize) {
+                    // lote cheio: provavelmente há mais e-mails vencidos
+                }
+            } while (drainRequested.get());
+        } catch (RuntimeException e) {
+            log.error("Erro inesperado no envio de e-mails", e);
+        } finally {
+            activeDrains.decrementAndGet();
+        }
+        if (drainRequested.get()) {
+            requestDrain();
+        }
+    }
+
+    /**
+     * Reserva, envia e registra um lote de e-mails.
+     *
+     * @return quantidade de e-mails reservados no lote
+     */
+    int sendBatch() {
+        List<MailOutbox> batch = transactionTemplate.execute(status -> reserve());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Exception> failures = new HashMap<>();
+        Transport transport = null;
+        boolean healthy = true;
+        try {
+            transport = transportPool.borrow();
+            for (MailOutbox mail : batch) {
+                long start = System.nanoTime();
+                try {
+                    transport = send(transport, mail);
+                    sendSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                } catch (MessagingException | RuntimeException e) {
+                    sendFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    failures.put(mail.getId(), e);
+                }
+            }
+        } catch (MessagingException e) {
+            healthy = false;
+            batch.forEach(mail -> failures.put(mail.getId(), e));
+        } finally {
+            if (transport != null) {
+                transportPool.release(transport, healthy && transport.isConnected());
+            }
+        }
+
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> outboxRepository
+                .findAllById(batch.stream().map(MailOutbox::getId).toList())
+                .forEach(mail -> {
+                    Exception error = failures.get(mail.getId());
+                    if (error == null) {
+                        mail.setStatus(OutboxStatus.DONE);
+                        mail.setLastError(null);
+                        mail.setSentAt(now);
+                        mail.setHtmlBody("");
+                    } else {
+                        registerFailure(mail, error);
+                    }
+                }));
+        return batch.size();
+    }
+
+    private List<MailOutbox> reserve() {
+        Instant now = Instant.now();
+        List<MailOutbox> batch = outboxRepository.lockDue(now, PageRequest.of(0, batchSize));
+        for (MailOutbox mail : batch) {
+            mail.setAttempts(mail.getAttempts() + 1);
+            mail.setNextAttemptAt(retryPolicy.leaseUntil(now));
+        }
+        return batch;
+    }
+
+    /**
+     * Envia o e-mail pela conexão. Se a conexão tiver caído, abre outra e
+     * tenta mais uma vez.
+     *
+     * @return a conexão usada no envio, que pode ser uma nova
+     */
+    private Transport send(Transport transport, MailOutbox mail) throws MessagingException {
+        MimeMessage message = toMimeMessage(mail);
+        try {
+            transport.sendMessage(message, message.getAllRecipients());
+            return transport;
+        } catch (MessagingException e) {
+            if (transport.isConnected()) {
+                throw e;
+            }
+            Transport reconnected = transportPool.reconnect(transport);
+            reconnected.sendMessage(message, message.getAllRecipients());
+            return reconnected;
+        }
+    }
+
+    private MimeMessage toMimeMessage(MailOutbox mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setTo(mail.getTo());
+        helper.setSubject(mail.getSubject());
+        helper.setSentDate(new Date());
+        helper.setText(mail.getHtmlBody(), true);
+        helper.addInline("logoImage", logo);
+
+        message.saveChanges();
+        return message;
+    }
+
+    private void registerFailure(MailOutbox mail, Exception error) {
+        mail.setLastError(error.getMessage());
+        if (retryPolicy.isExhausted(mail.getAttempts())) {
+            mail.setStatus(OutboxStatus.FAILED);
+            deadLetters.increment();
+            log.error("Desistindo do e-mail {} para {} após {} tentativa(s).", mail.getId(), mail.getTo(),
+                    mail.getAttempts(), error);
+        } else {
+            Duration delay = retryPolicy.retryDelay(mail.getAttempts());
+            mail.setNextAttemptAt(Instant.now().plus(delay));
+            log.warn("Falha ao enviar e-mail {} (tentativa {} de {}); nova tentativa em {}s.",
+                    mail.getId(), mail.getAttempts(), retryPolicy.maxAttempts(), delay.toSeconds(), error);
+        }
+    }
+
+    private static DataSource loadLogo() throws IOException {
+        try (InputStream in = new ClassPathResource(LOGO_PATH).getInputStream()) {
+            ByteArrayDataSource dataSource = new ByteArrayDataSource(in.readAllBytes(), MimeTypeUtils.IMAGE_PNG_VALUE);
+            dataSource.setName("logo.png");
+            return dataSource;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.livrementehomeopatia.backend.infra.mail.service;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+
+/**
+ * Pool pequeno de conexões SMTP autenticadas, reaproveitadas entre envios.
+ * <p>
+ * Abrir uma sessão SMTP custa o handshake TCP, o STARTTLS e a autenticação;
+ * com o pool isso acontece uma vez por conexão, e não uma vez por e-mail. As
+ * conexões usam a mesma configuração do {@link JavaMailSenderImpl} criado pelo
+ * Spring Boot ({@code spring.mail.*}). Uma conexão devolvida é verificada ao
+ * ser emprestada de novo (o {@code isConnected} do SMTP envia um NOOP) e
+ * reaberta se o servidor a tiver encerrado.
+ * </p>
+ */
+@Component
+public class SmtpTransportPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    private final BlockingQueue<Transport> idle = new LinkedBlockingQueue<>();
+
+    public SmtpTransportPool(JavaMailSender mailSender, @Value("${app.mail.pool-size:2}") int size) {
+        if (!(mailSender instanceof JavaMailSenderImpl impl)) {
+            throw new IllegalStateException("O pool de conexões SMTP requer um JavaMailSenderImpl");
+        }
+        this.mailSender = impl;
+        this.permits = new Semaphore(Math.max(1, size));
+    }
+
+    /**
+     * Empresta uma conexão aberta, aguardando se todas estiverem em uso.
+     * Deve ser devolvida com {@link #release(Transport, boolean)}.
+     *
+     * @return conexão SMTP conectada e autenticada
+     * @throws MessagingException se não for possível conectar ao servidor
+     */
+    public Transport borrow() throws MessagingException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrompido aguardando conexão SMTP", e);
+        }
+
+        try {
+            Transport transport;
+            while ((transport = idle.poll()) != null) {
+                if (transport.isConnected()) {
+                    return transport;
+                }
+                close(transport);
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Devolve uma conexão ao pool. Conexões com erro são fechadas.
+     *
+     * @param transport conexão emprestada
+     * @param healthy   false se houve erro de comunicação com o servidor
+     */
+    public void release(Transport transport, boolean healthy) {
+        try {
+            if (healthy) {
+                idle.offer(transport);
+            } else {
+                close(transport);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Abre uma nova conexão, fora do pool, para substituir uma que falhou
+     * durante um envio. A conexão quebrada é fechada.
+     *
+     * @param broken conexão que falhou
+     * @return conexão SMTP conectada e autenticada
+     * @throws MessagingException se não for possível conectar ao servidor
+     */
+    public Transport reconnect(Transport broken) throws MessagingException {
+        close(broken);
+        return connect();
+    }
+
+    private Transport connect() throws MessagingException {
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+        Transport transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+                mailSender.getPassword());
+        return transport;
+    }
+
+    private void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Erro ao fechar conexão SMTP: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            close(transport);
+        }
+    }
+}
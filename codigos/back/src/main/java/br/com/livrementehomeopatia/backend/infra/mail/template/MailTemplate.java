@@ -0,0 +1,200 @@
+package br.com.livrementehomeopatia.backend.infra.mail.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Template de e-mail compilado uma única vez em uma lista de segmentos.
+ * <p>
+ * O texto do template alterna trechos literais e marcadores {@code {{nome}}}.
+ * Na renderização os literais são copiados e, para cada marcador, o
+ * {@link Slots} informado escreve o valor diretamente no {@link StringBuilder}
+ * de saída, sem strings intermediárias. Templates menores, como a linha de uma
+ * tabela, podem ser renderizados dentro de um marcador com
+ * {@link #renderTo(StringBuilder, Slots)}.
+ * </p>
+ * <p>
+ * {@link #render(Slots)} usa um buffer reaproveitado por thread; buffers que
+ * crescem demais são descartados para não reter memória.
+ * </p>
+ */
+public final class MailTemplate {
+
+    /**
+     * Escreve o valor de cada marcador do template.
+     */
+    @FunctionalInterface
+    public interface Slots {
+
+        /**
+         * @param slot nome do marcador, sem as chaves
+         * @param out  saída onde o valor deve ser escrito
+         */
+        void write(String slot, StringBuilder out);
+    }
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+
+    private static final char DECIMAL_SEPARATOR =
+            DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getDecimalSeparator();
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+
+    private final String name;
+    private final String[] literals;
+    private final String[] slots;
+
+    private MailTemplate(String name, String[] literals, String[] slots) {
+        this.name = name;
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * Lê e compila um template do classpath.
+     *
+     * @param path caminho do template no classpath
+     * @return o template compilado
+     * @throws UncheckedIOException se o template não puder ser lido
+     */
+    public static MailTemplate fromClasspath(String path) {
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            return parse(path, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler o template de e-mail " + path, e);
+        }
+    }
+
+    /**
+     * Compila o texto de um template.
+     *
+     * @param name nome do template, usado nas mensagens de erro
+     * @param text texto com marcadores {@code {{nome}}}
+     * @return o template compilado
+     * @throws IllegalArgumentException se houver marcador sem fechamento
+     */
+    public static MailTemplate parse(String name, String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+
+        int position = 0;
+        int open;
+        while ((open = text.indexOf(OPEN, position)) >= 0) {
+            int close = text.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Marcador sem fechamento no template " + name);
+            }
+            literals.add(text.substring(position, open));
+            slots.add(text.substring(open + OPEN.length(), close).trim().intern());
+            position = close + CLOSE.length();
+        }
+        literals.add(text.substring(position));
+
+        return new MailTemplate(name, literals.toArray(String[]::new), slots.toArray(String[]::new));
+    }
+
+    /**
+     * Renderiza o template.
+     *
+     * @param values escreve o valor de cada marcador
+     * @return o texto renderizado
+     */
+    public String render(Slots values) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        try {
+            renderTo(out, values);
+            return out.toString();
+        } finally {
+            if (out.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFER.remove();
+            } else {
+                out.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Renderiza o template no final de uma saída existente.
+     *
+     * @param out    saída
+     * @param values escreve o valor de cada marcador
+     */
+    public void renderTo(StringBuilder out, Slots values) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            values.write(slots[i], out);
+        }
+        out.append(literals[slots.length]);
+    }
+
+    /**
+     * Exceção para marcadores que o {@link Slots} não conhece.
+     *
+     * @param slot nome do marcador
+     * @return exceção a ser lançada
+     */
+    public IllegalArgumentException unknownSlot(String slot) {
+        return new IllegalArgumentException("Marcador desconhecido '" + slot + "' no template " + name);
+    }
+
+    /**
+     * Escreve um texto escapando os caracteres especiais de HTML.
+     *
+     * @param out   saída
+     * @param value texto (nulo é escrito como vazio)
+     */
+    public static void appendEscaped(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    /**
+     * Escreve um valor monetário com duas casas decimais, sem criar strings
+     * intermediárias. O resultado é o mesmo de {@code String.format("%.2f", value)}:
+     * separador decimal do locale padrão de formatação e arredondamento
+     * HALF_UP sobre a representação decimal do {@code double}.
+     *
+     * @param out   saída
+     * @param value valor
+     */
+    public static void appendMoney(StringBuilder out, double value) {
+        long cents = BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        if (cents < 0 || (cents == 0 && (value < 0 || 1 / value < 0))) {
+            out.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        out.append(cents / 100).append(DECIMAL_SEPARATOR);
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.livrementehomeopatia.backend.infra.mercadopago.dto;
+
+import br.com.livrementehomeopatia.backend.enums.OutboxStatus;
+
+/**
+ * Situação do link de pagamento de um pedido de revenda, consultada pelo
+ * cliente enquanto o link ainda está sendo gerado.
+ *
+ * @param orderId    ID do pedido de revenda
+ * @param status     PENDING enquanto o link é gerado, DONE quando pronto, FAILED se não foi possível gerá-lo
+ * @param paymentUrl URL do Checkout Pro, quando pronta
+ */
+public record PaymentLinkStatusDTO(Integer orderId, OutboxStatus status, String paymentUrl) {
+}
@@ -0,0 +1,11 @@
+package br.com.livrementehomeopatia.backend.infra.mercadopago.event;
+
+/**
+ * Evento publicado quando um pedido de revenda precisa de link de pagamento.
+ * O executor só o recebe após o commit do pedido, quando a tarefa já está
+ * visível; por isso o checkout pode aguardar o link logo em seguida.
+ *
+ * @param orderId ID do pedido de revenda
+ */
+public record PaymentLinkRequestedEvent(Integer orderId) {
+}
@@ -16,7 +16,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.stream.Collectors;
 
@@ -43,12 +42,13 @@ public class MercadoPagoService {
     
     /**
      * Cria uma preferência de pagamento no Mercado Pago para um pedido específico.
+     * Não abre transação nem grava no banco: é uma chamada remota, feita pelo
+     * {@link PaymentLinkWorker}, que grava o resultado no pedido.
      * @param requestDTO DTO contendo os itens do pedido e o ID do pedido de revenda.
      * @return DTO com o ID da preferência criada e a URL para pagamento.
      * @throws MPException Quando ocorre um erro geral no SDK do Mercado Pago.
      * @throws MPApiException Quando a API do Mercado Pago retorna um erro de negócio.
      */
-    @Transactional
     public PreferenceResponseDTO createPaymentPreference(PreferenceRequestDTO requestDTO) throws MPException, MPApiException {
         try {
             logger.info("Iniciando criação de preferência para o ResaleOrder ID: {}", requestDTO.resaleOrderId());
@@ -83,9 +83,7 @@ public class MercadoPagoService {
             
             Preference preference = preferenceClient.create(preferenceRequest);
 
-            updateResaleOrderWithPaymentData(requestDTO.resaleOrderId(), preference);
-
-            logger.info("Preferência de pagamento criada com sucesso. ID: {}. Associada ao ResaleOrder ID: {}", preference.getId(), requestDTO.resaleOrderId());
+            logger.info("Preferência de pagamento criada com sucesso. ID: {}. Para o ResaleOrder ID: {}", preference.getId(), requestDTO.resaleOrderId());
             return new PreferenceResponseDTO(preference.getId(), preference.getInitPoint());
         
         } catch (MPApiException e) {
@@ -103,9 +101,10 @@ public class MercadoPagoService {
     /**
      * Processa uma notificação de webhook recebida do Mercado Pago,
      * atualizando o status do pedido conforme o status do pagamento.
+     * A consulta ao Mercado Pago é feita sem transação aberta; só a gravação
+     * do status usa o banco.
      * @param paymentId ID do pagamento recebido na notificação.
      */
-    @Transactional
     public void processWebhookNotification(String paymentId) {
         try {
             logger.info("Processando notificação para o pagamento de ID: {}", paymentId);
@@ -139,20 +138,4 @@ public class MercadoPagoService {
             logger.error("Erro inesperado (RuntimeException) ao processar a notificação para o pagamento ID {}.", paymentId, e);
         }
     }
-
-    /**
-     * Atualiza um pedido de revenda com os dados retornados pelo Mercado Pago.
-     * @param resaleOrderId ID do pedido de revenda a ser atualizado.
-     * @param preference Objeto de preferência retornado pelo Mercado Pago.
-     * @throws RuntimeException Quando o pedido não é encontrado no banco de dados.
-     */
-    private void updateResaleOrderWithPaymentData(String resaleOrderId, Preference preference) {
-        ResaleOrder order = resaleOrderRepository.findById(Integer.parseInt(resaleOrderId))
-                .orElseThrow(() -> new RuntimeException("Pedido de revenda " + resaleOrderId + " não encontrado ao tentar salvar a preferência."));
-        
-        order.setMercadoPagoPreferenceId(preference.getId());
-        order.setCheckoutProLink(preference.getInitPoint());
-
-        resaleOrderRepository.save(order);
-    }
 }
\ No newline at end of file
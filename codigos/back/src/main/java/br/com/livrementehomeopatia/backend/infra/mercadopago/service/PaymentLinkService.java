@@ -0,0 +1,120 @@
+package br.com.livrementehomeopatia.backend.infra.mercadopago.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import br.com.livrementehomeopatia.backend.enums.OutboxStatus;
+import br.com.livrementehomeopatia.backend.infra.mercadopago.dto.PaymentLinkStatusDTO;
+import br.com.livrementehomeopatia.backend.infra.mercadopago.event.PaymentLinkRequestedEvent;
+import br.com.livrementehomeopatia.backend.model.PaymentLinkOutbox;
+import br.com.livrementehomeopatia.backend.model.ResaleOrder;
+import br.com.livrementehomeopatia.backend.repository.PaymentLinkOutboxRepository;
+import br.com.livrementehomeopatia.backend.repository.ResaleOrderRepository;
+
+/**
+ * Registra e acompanha a geração dos links de pagamento dos pedidos de revenda.
+ * <p>
+ * O checkout apenas grava a tarefa ({@link #enqueue(Integer)}) junto com o
+ * pedido; o {@link PaymentLinkWorker} chama o Mercado Pago depois do commit.
+ * A requisição de checkout espera o link por um prazo curto
+ * ({@code app.payments.link-wait}); se ele não ficar pronto a tempo, o cliente
+ * consulta a situação em {@code /api/orders/{id}/payment-link}.
+ * </p>
+ */
+@Service
+public class PaymentLinkService {
+
+    private final PaymentLinkOutboxRepository outboxRepository;
+    private final ResaleOrderRepository resaleOrderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration linkWait;
+
+    private final Map<Integer, CompletableFuture<String>> waiters = new ConcurrentHashMap<>();
+
+    public PaymentLinkService(PaymentLinkOutboxRepository outboxRepository,
+            ResaleOrderRepository resaleOrderRepository, ApplicationEventPublisher eventPublisher,
+            @Value("${app.payments.link-wait:PT5S}") Duration linkWait) {
+        this.outboxRepository = outboxRepository;
+        this.resaleOrderRepository = resaleOrderRepository;
+        this.eventPublisher = eventPublisher;
+        this.linkWait = linkWait;
+    }
+
+    /**
+     * Registra a geração do link de pagamento do pedido. Deve ser chamado na
+     * transação que cria o pedido; a geração começa depois do commit.
+     *
+     * @param orderId ID do pedido de revenda
+     */
+    public void enqueue(Integer orderId) {
+        outboxRepository.save(new PaymentLinkOutbox(orderId, Instant.now()));
+        eventPublisher.publishEvent(new PaymentLinkRequestedEvent(orderId));
+    }
+
+    /**
+     * Aguarda o link de pagamento do pedido até o prazo configurado.
+     *
+     * @param orderId ID do pedido de revenda
+     * @return a URL do Checkout Pro, ou null se ela não ficou pronta a tempo
+     */
+    public String awaitLink(Integer orderId) {
+        CompletableFuture<String> waiter = waiters.computeIfAbsent(orderId, id -> new CompletableFuture<>());
+        try {
+            String stored = storedLink(orderId);
+            if (stored != null) {
+                return stored;
+            }
+            return waiter.get(linkWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            waiters.remove(orderId, waiter);
+        }
+    }
+
+    /**
+     * Retorna a situação do link de pagamento do pedido.
+     *
+     * @param order pedido de revenda
+     * @return situação e, quando pronta, a URL
+     */
+    public PaymentLinkStatusDTO getStatus(ResaleOrder order) {
+        if (order.hasCheckoutProLink()) {
+            return new PaymentLinkStatusDTO(order.getId(), OutboxStatus.DONE, order.getCheckoutProLink());
+        }
+        OutboxStatus status = outboxRepository.findByOrderId(order.getId())
+                .map(PaymentLinkOutbox::getStatus)
+                .orElse(OutboxStatus.FAILED);
+        return new PaymentLinkStatusDTO(order.getId(), status, null);
+    }
+
+    /**
+     * Entrega o link às requisições que o aguardam. Chamado pelo executor após gravá-lo.
+     */
+    void linkReady(Integer orderId, String paymentUrl) {
+        CompletableFuture<String> waiter = waiters.get(orderId);
+        if (waiter != null) {
+            waiter.complete(paymentUrl);
+        }
+    }
+
+    private String storedLink(Integer orderId) {
+        return resaleOrderRepository.findById(orderId)
+                .filter(ResaleOrder::hasCheckoutProLink)
+                .map(ResaleOrder::getCheckoutProLink)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,207 @@
+package br.com.livrementehomeopatia.backend.infra.mercadopago.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.livrementehomeopatia.backend.enums.OutboxStatus;
+import br.com.livrementehomeopatia.backend.infra.mercadopago.dto.PaymentItemDTO;
+import br.com.livrementehomeopatia.backend.infra.mercadopago.dto.PreferenceRequestDTO;
+import br.com.livrementehomeopatia.backend.infra.mercadopago.dto.PreferenceResponseDTO;
+import br.com.livrementehomeopatia.backend.infra.mercadopago.event.PaymentLinkRequestedEvent;
+import br.com.livrementehomeopatia.backend.infra.outbox.OutboxExecutors;
+import br.com.livrementehomeopatia.backend.infra.outbox.OutboxRetryPolicy;
+import br.com.livrementehomeopatia.backend.model.OrderItem;
+import br.com.livrementehomeopatia.backend.model.PaymentLinkOutbox;
+import br.com.livrementehomeopatia.backend.model.ResaleOrder;
+import br.com.livrementehomeopatia.backend.repository.PaymentLinkOutboxRepository;
+import br.com.livrementehomeopatia.backend.repository.ResaleOrderRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Gera os links de pagamento registrados em {@code payment_link_outbox}.
+ * <p>
+ * Cada execução tem três passos: uma transação curta reserva a tarefa
+ * (adiando-a pelo tempo da reserva) e monta a preferência a partir do pedido;
+ * a chamada ao Mercado Pago acontece sem transação nem conexão aberta; outra
+ * transação curta grava o link no pedido e encerra a tarefa. Falhas são
+ * repetidas com espera exponencial até {@code app.payments.link-max-attempts}.
+ * </p>
+ * <p>
+ * A geração começa logo após o commit do pedido; uma varredura periódica
+ * retoma as tarefas vencidas, inclusive as interrompidas por uma reinicialização.
+ * </p>
+ */
+@Component
+public class PaymentLinkWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentLinkWorker.class);
+
+    private static final int SWEEP_BATCH_SIZE = 20;
+
+    private final PaymentLinkOutboxRepository outboxRepository;
+    private final ResaleOrderRepository resaleOrderRepository;
+    private final MercadoPagoService mercadoPagoService;
+    private final PaymentLinkService paymentLinkService;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxRetryPolicy retryPolicy;
+    private final ThreadPoolExecutor executor;
+
+    public PaymentLinkWorker(PaymentLinkOutboxRepository outboxRepository,
+            ResaleOrderRepository resaleOrderRepository, MercadoPagoService mercadoPagoService,
+            PaymentLinkService paymentLinkService, PlatformTransactionManager transactionManager,
+            @Value("${app.payments.link-max-attempts:8}") int maxAttempts,
+            @Value("${app.payments.link-threads:4}") int threads) {
+        this.outboxRepository = outboxRepository;
+        this.resaleOrderRepository = resaleOrderRepository;
+        this.mercadoPagoService = mercadoPagoService;
+        this.paymentLinkService = paymentLinkService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryPolicy = new OutboxRetryPolicy(Duration.ofMinutes(2), Duration.ofSeconds(30),
+                Duration.ofMinutes(30), maxAttempts);
+        this.executor = OutboxExecutors.bounded(threads, 100,
+                Thread.ofPlatform().daemon().name("payment-links-", 1).factory());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPaymentLinkRequested(PaymentLinkRequestedEvent event) {
+        submit(event.orderId());
+    }
+
+    @Scheduled(initialDelayString = "${app.payments.link-retry-interval:PT30S}",
+            fixedDelayString = "${app.payments.link-retry-interval:PT30S}")
+    public void sweep() {
+        outboxRepository.findDueOrderIds(OutboxStatus.PENDING, Instant.now(), PageRequest.of(0, SWEEP_BATCH_SIZE))
+                .forEach(this::submit);
+    }
+
+    private void submit(Integer orderId) {
+        try {
+            executor.execute(() -> process(orderId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Fila de links de pagamento cheia; pedido {} será processado na próxima varredura.", orderId);
+        }
+    }
+
+    /**
+     * Gera o link de pagamento do pedido, se a tarefa estiver pendente e
+     * vencida e não estiver reservada por outro executor.
+     */
+    void process(Integer orderId) {
+        PreferenceRequestDTO request = transactionTemplate.execute(status -> reserve(orderId));
+        if (request == null) {
+            return;
+        }
+
+        PreferenceResponseDTO preference;
+        try {
+            preference = mercadoPagoService.createPaymentPreference(request);
+        } catch (Exception e) {
+            transactionTemplate.executeWithoutResult(status -> registerFailure(orderId, e));
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> complete(orderId, preference));
+            paymentLinkService.linkReady(orderId, preference.initPoint());
+        } catch (RuntimeException e) {
+            // A preferência já existe no Mercado Pago. A tarefa continua reservada e,
+            // vencida a reserva, outra será criada; o ID fica no log para conciliação.
+            log.error("Preferência {} criada para o pedido {}, mas não foi possível concluir a tarefa.",
+                    preference.preferenceId(), orderId, e);
+        }
+    }
+
+    private PreferenceRequestDTO reserve(Integer orderId) {
+        Instant now = Instant.now();
+        PaymentLinkOutbox task = outboxRepository.lockDueByOrderId(orderId, now).orElse(null);
+        if (task == null) {
+            return null;
+        }
+
+        ResaleOrder order = resaleOrderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            task.setStatus(OutboxStatus.FAILED);
+            task.setLastError("Pedido de revenda não encontrado");
+            return null;
+        }
+
+        task.setAttempts(task.getAttempts() + 1);
+        task.setNextAttemptAt(retryPolicy.leaseUntil(now));
+        return preferenceRequest(order);
+    }
+
+    private void complete(Integer orderId, PreferenceResponseDTO preference) {
+        ResaleOrder order = resaleOrderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Pedido de revenda " + orderId + " não encontrado ao tentar salvar a preferência."));
+        order.setMercadoPagoPreferenceId(preference.preferenceId());
+        order.setCheckoutProLink(preference.initPoint());
+
+        outboxRepository.findByOrderId(orderId).ifPresent(task -> {
+            task.setStatus(OutboxStatus.DONE);
+            task.setLastError(null);
+            task.setCompletedAt(Instant.now());
+        });
+        log.info("Link de pagamento do pedido de revenda {} gerado.", orderId);
+    }
+
+    private void registerFailure(Integer orderId, Exception error) {
+        outboxRepository.findByOrderId(orderId).ifPresent(task -> {
+            task.setLastError(error.getMessage());
+            if (retryPolicy.isExhausted(task.getAttempts())) {
+                task.setStatus(OutboxStatus.FAILED);
+                log.error("Desistindo do link de pagamento do pedido {} após {} tentativa(s).", orderId,
+                        task.getAttempts(), error);
+            } else {
+                Duration delay = retryPolicy.retryDelay(task.getAttempts());
+                task.setNextAttemptAt(Instant.now().plus(delay));
+                log.warn("Falha ao gerar link de pagamento do pedido {} (tentativa {} de {}); nova tentativa em {}s.",
+                        orderId, task.getAttempts(), retryPolicy.maxAttempts(), delay.toSeconds(), error);
+            }
+        });
+    }
+
+    /**
+     * Monta a preferência com os itens do pedido e o frete como um item separado.
+     */
+    private PreferenceRequestDTO preferenceRequest(ResaleOrder order) {
+        List<PaymentItemDTO> paymentItems = new ArrayList<>();
+        for (OrderItem item : order.getItems()) {
+            paymentItems.add(new PaymentItemDTO(
+                    item.getProduct().getName(),
+                    item.getProduct().getDescription(),
+                    item.getQuantity(),
+                    BigDecimal.valueOf(item.getPrice())));
+        }
+
+        if (order.getDeliveryTax() > 0) {
+            paymentItems.add(new PaymentItemDTO(
+                    "Frete - " + order.getNeighborhood().getName(),
+                    "Taxa de entrega para " + order.getNeighborhood().getName(),
+                    1,
+                    BigDecimal.valueOf(order.getDeliveryTax())));
+        }
+
+        return new PreferenceRequestDTO(paymentItems, order.getId().toString());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
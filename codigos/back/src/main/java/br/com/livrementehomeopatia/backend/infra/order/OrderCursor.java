@@ -0,0 +1,52 @@
+package br.com.livrementehomeopatia.backend.infra.order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição na paginação por chave (keyset) de pedidos, ordenados por data de
+ * criação e ID decrescentes. A próxima página começa no primeiro pedido
+ * estritamente anterior a esta posição, o que mantém o custo de cada página
+ * constante e não pula nem repete pedidos criados durante a navegação.
+ * <p>
+ * O cursor é enviado ao cliente como texto opaco (Base64 URL-safe).
+ * </p>
+ *
+ * @param createdAt data de criação do último pedido da página
+ * @param id        ID do último pedido da página
+ */
+public record OrderCursor(LocalDateTime createdAt, Integer id) {
+
+    private static final char SEPARATOR = '_';
+
+    /**
+     * @return o cursor codificado para o cliente
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor recebido do cliente.
+     *
+     * @param value cursor codificado (pode ser nulo ou vazio para a primeira página)
+     * @return o cursor, ou null para a primeira página
+     * @throws RuntimeException se o cursor for inválido
+     */
+    public static OrderCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new RuntimeException("Cursor de paginação inválido");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.livrementehomeopatia.backend.infra.order;
+
+import java.time.LocalDate;
+
+import br.com.livrementehomeopatia.backend.enums.OrderStatus;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+
+/**
+ * Filtros da busca de pedidos do administrador. Filtros nulos (ou vazios, no
+ * caso do nome) são ignorados.
+ *
+ * @param status         situação do pedido
+ * @param type           tipo do pedido (homeopático ou revenda)
+ * @param from           primeiro dia do período, inclusive
+ * @param to             último dia do período, inclusive
+ * @param neighborhoodId bairro de entrega
+ * @param customer       parte do nome do cliente, sem diferenciar maiúsculas
+ * @param oldestFirst    true para ordenar do mais antigo para o mais recente
+ */
+public record OrderSearchFilter(OrderStatus status, ProductType type, LocalDate from, LocalDate to,
+        Integer neighborhoodId, String customer, boolean oldestFirst) {
+}
@@ -0,0 +1,28 @@
+package br.com.livrementehomeopatia.backend.infra.outbox;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executores dos processadores das filas de saída.
+ */
+public final class OutboxExecutors {
+
+    private OutboxExecutors() {
+    }
+
+    /**
+     * Pool com número fixo de threads e fila limitada. Quando a fila está cheia
+     * a tarefa é recusada com {@link java.util.concurrent.RejectedExecutionException}:
+     * ela continua gravada no banco e é retomada pela varredura periódica, em
+     * vez de acumular na memória. Threads ociosas são encerradas após um minuto.
+     */
+    public static ThreadPoolExecutor bounded(int threads, int queueCapacity, ThreadFactory threadFactory) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
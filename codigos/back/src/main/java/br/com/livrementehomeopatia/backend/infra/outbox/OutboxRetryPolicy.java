@@ -0,0 +1,49 @@
+package br.com.livrementehomeopatia.backend.infra.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Reserva e novas tentativas das filas de saída ({@code mail_outbox} e
+ * {@code payment_link_outbox}).
+ * <p>
+ * Uma tarefa reservada é adiada pelo tempo da reserva, para que nenhum outro
+ * executor a pegue enquanto ela está em andamento; se o processo cair no meio,
+ * ela volta a vencer sozinha. Após uma falha, a espera começa em
+ * {@code firstRetry} e dobra a cada tentativa, até {@code maxRetry}.
+ * </p>
+ *
+ * @param lease       tempo da reserva
+ * @param firstRetry  espera após a primeira falha
+ * @param maxRetry    espera máxima entre tentativas
+ * @param maxAttempts tentativas antes de a tarefa ser descartada (FAILED)
+ */
+public record OutboxRetryPolicy(Duration lease, Duration firstRetry, Duration maxRetry, int maxAttempts) {
+
+    public OutboxRetryPolicy {
+        maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * @return o novo vencimento de uma tarefa reservada agora
+     */
+    public Instant leaseUntil(Instant now) {
+        return now.plus(lease);
+    }
+
+    /**
+     * @return true se a tarefa já usou todas as tentativas
+     */
+    public boolean isExhausted(int attempts) {
+        return attempts >= maxAttempts;
+    }
+
+    /**
+     * @param attempts tentativas já feitas, contando a que falhou
+     * @return espera até a próxima tentativa
+     */
+    public Duration retryDelay(int attempts) {
+        Duration delay = firstRetry.multipliedBy(1L << Math.min(Math.max(attempts, 1) - 1, 10));
+        return delay.compareTo(maxRetry) > 0 ? maxRetry : delay;
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.livrementehomeopatia.backend.infra.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.livrementehomeopatia.backend.infra.security.event.PrincipalChangedEvent;
+import br.com.livrementehomeopatia.backend.model.User;
+import br.com.livrementehomeopatia.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache dos usuários autenticados, por e-mail (o subject do token JWT).
+ * <p>
+ * Evita que o {@link SecurityFilter} consulte o banco a cada requisição. Cada
+ * entrada vale por {@code app.security.principal-cache-ttl} e o cache guarda no
+ * máximo {@code app.security.principal-cache-size} usuários. Alterações de
+ * e-mail, perfil ou situação da conta removem a entrada assim que a transação
+ * é confirmada ({@link PrincipalChangedEvent}); uma consulta ao banco que
+ * começou antes de uma remoção não é guardada, para não trazer de volta o dado
+ * antigo.
+ * </p>
+ * <p>
+ * Métricas: {@code security.principal.cache} (consultas, por resultado
+ * {@code hit}/{@code miss}) e {@code security.principal.cache.size}.
+ * </p>
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entry(LoggedUser user, boolean active, long expiresAt) {
+    }
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${app.security.principal-cache-ttl:PT1M}") Duration ttl,
+            @Value("${app.security.principal-cache-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = Math.max(1, maxSize);
+
+        this.hits = Counter.builder("security.principal.cache")
+                .description("Consultas ao cache de usuários autenticados")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("security.principal.cache")
+                .description("Consultas ao cache de usuários autenticados")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("security.principal.cache.size", entries, Map::size)
+                .description("Usuários no cache de autenticação")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retorna o usuário autenticado pelo e-mail, consultando o banco só se ele
+     * não estiver no cache ou se a entrada tiver expirado.
+     *
+     * @param email e-mail do usuário (subject do token)
+     * @return o usuário, ou vazio se ele não existir ou estiver desativado
+     */
+    public Optional<LoggedUser> get(String email) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(email);
+        if (entry != null && now - entry.expiresAt() < 0) {
+            hits.increment();
+            return entry.active() ? Optional.of(entry.user()) : Optional.empty();
+        }
+
+        misses.increment();
+        long generation = invalidations.get();
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            entries.remove(email);
+            return Optional.empty();
+        }
+
+        entry = new Entry(new LoggedUser(user.getId(), user.getEmail(), "ROLE_" + user.getRole().name()),
+                user.isActive(), now + ttlNanos);
+        if (invalidations.get() == generation) {
+            put(email, entry);
+        }
+        return entry.active() ? Optional.of(entry.user()) : Optional.empty();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPrincipalChanged(PrincipalChangedEvent event) {
+        invalidations.incrementAndGet();
+        entries.remove(event.email());
+    }
+
+    private void put(String email, Entry entry) {
+        if (entries.size() >= maxSize && !entries.containsKey(email)) {
+            evict(System.nanoTime());
+        }
+        entries.put(email, entry);
+    }
+
+    /**
+     * Remove as entradas expiradas e, se o cache continuar cheio, entradas
+     * quaisquer até abrir espaço.
+     */
+    private void evict(long now) {
+        entries.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -16,6 +16,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import br.com.livrementehomeopatia.backend.infra.cart.GuestCartCodec;
+
 import java.util.Arrays;
 import java.util.List;
 
@@ -46,7 +48,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/auth/register/**").permitAll()
 
                         .requestMatchers(HttpMethod.GET, "/api/product/**").permitAll()
+                        .requestMatchers(HttpMethod.HEAD, "/api/product/*/image").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/neighborhoods/**").permitAll()
+                        .requestMatchers("/api/guest-cart/**").permitAll() // Carrinho de visitante, sem escrita no banco.
 
                         // --- [CORREÇÃO] REGRAS DE PAGAMENTO (MERCADO PAGO) ---
                         // O webhook do Mercado Pago continua público.
@@ -74,7 +78,9 @@ public class SecurityConfig {
 
                         // Rotas de pedidos
                         .requestMatchers(HttpMethod.GET, "/api/orders/myOrders").hasAnyRole("CLIENTE", "MEDICO")
+                        .requestMatchers(HttpMethod.GET, "/api/orders/myOrders/page").hasAnyRole("CLIENTE", "MEDICO")
                         .requestMatchers(HttpMethod.GET, "/api/orders/allOrders").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/orders/admin/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/orders/*/status").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/orders/*").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/orders/**").hasAnyRole("CLIENTE", "MEDICO")
@@ -90,6 +96,10 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT,"/api/inputs/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET,"/api/inputs/**").hasAnyRole("ADMIN", "MEDICO")
 
+                        // Saúde da aplicação é pública; métricas só para o administrador.
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // Regra final: Qualquer outra requisição exige autenticação.
                         .anyRequest().authenticated()
                 )
@@ -103,7 +113,8 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("https://farmacialivremente.azurewebsites.net", "http://localhost:5173"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD", "PATCH"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", GuestCartCodec.HEADER));
+        configuration.setExposedHeaders(List.of(GuestCartCodec.HEADER));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
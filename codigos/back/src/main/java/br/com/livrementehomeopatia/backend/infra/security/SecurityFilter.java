@@ -9,8 +9,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import br.com.livrementehomeopatia.backend.model.User;
-import br.com.livrementehomeopatia.backend.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,9 +29,9 @@ public class SecurityFilter extends OncePerRequestFilter {
     private final TokenService tokenService;
 
     /**
-     * Repositório para operações de banco de dados relacionadas a usuários
+     * Cache dos usuários autenticados, que evita uma consulta ao banco por requisição
      */
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     /**
      * Método principal que filtra cada requisição para autenticação via JWT.
@@ -52,21 +50,16 @@ public class SecurityFilter extends OncePerRequestFilter {
 
         if (token != null) {
             var login = tokenService.validateToken(token);
-            
-            User user = userRepository.findByEmail(login)
-                    .orElseThrow(() -> new RuntimeException("User Not Found in token"));
+            var loggedUser = login != null ? principalCache.get(login).orElse(null) : null;
 
-            var loggedUser = new LoggedUser(
-                    user.getId(),
-                    user.getEmail(),
-                    "ROLE_" + user.getRole().name()
-            );
+            // Tokens inválidos e contas removidas ou desativadas seguem sem autenticação.
+            if (loggedUser != null) {
+                var authorities = Collections.singletonList(new SimpleGrantedAuthority(loggedUser.getRole()));
 
-            var authorities = Collections.singletonList(new SimpleGrantedAuthority(loggedUser.getRole()));
+                var authentication = new UsernamePasswordAuthenticationToken(loggedUser, null, authorities);
 
-            var authentication = new UsernamePasswordAuthenticationToken(loggedUser, null, authorities);
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
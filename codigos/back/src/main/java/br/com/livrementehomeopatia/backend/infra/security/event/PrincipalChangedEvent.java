@@ -0,0 +1,11 @@
+package br.com.livrementehomeopatia.backend.infra.security.event;
+
+/**
+ * Evento publicado quando muda algum dado de um usuário usado na autenticação
+ * (e-mail, perfil ou situação da conta). Os ouvintes são notificados somente
+ * após o commit da transação.
+ *
+ * @param email e-mail com que o usuário se autenticava antes da alteração
+ */
+public record PrincipalChangedEvent(String email) {
+}
@@ -1,13 +1,19 @@
 package br.com.livrementehomeopatia.backend.model;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import br.com.livrementehomeopatia.backend.enums.ProductType;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -15,6 +21,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -37,6 +44,38 @@ public class Cart {
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> items = new ArrayList<>();
 
+    /**
+     * Mantido de forma incremental: cada alteração soma {@code preço * delta}.
+     * Divergências são corrigidas periodicamente a partir dos itens.
+     */
     @Column(name = "total_value", nullable = false)
     private double totalValue = 0.0;
-}
\ No newline at end of file
+
+    /**
+     * Tipo dos produtos do carrinho, ou null quando ele está vazio. Mantido
+     * junto com as alterações de itens, para que a regra de não misturar
+     * produtos homeopáticos e de revenda seja uma comparação de coluna.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "product_type")
+    private ProductType productType;
+
+    /**
+     * Versão para controle otimista. Os comandos nativos que alteram o total
+     * também a incrementam.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Momento da última alteração do carrinho. Os comandos nativos que alteram
+     * itens também o atualizam; carrinhos parados há mais tempo que o prazo
+     * configurado são descartados pela compactação.
+     */
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -1,5 +1,7 @@
 package br.com.livrementehomeopatia.backend.model;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -9,19 +11,28 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "cart_item")
+@Table(name = "cart_item", uniqueConstraints = @UniqueConstraint(name = CartItem.CART_PRODUCT_UNIQUE_KEY, columnNames = {
+        "cart_id", "product_id" }))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class CartItem {
 
+    /**
+     * Nome da restrição que impede o mesmo produto em duas linhas do mesmo
+     * carrinho. Usada pelo upsert de {@code CartItemRepository}.
+     */
+    public static final String CART_PRODUCT_UNIQUE_KEY = "uk_cart_item_cart_product";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
@@ -38,4 +49,13 @@ public class CartItem {
     @ManyToOne
     @JoinColumn(name = "cart_id")
     private Cart cart;
+
+    /**
+     * Versão para controle otimista. Os comandos nativos que alteram a
+     * quantidade também a incrementam.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
 }
\ No newline at end of file
@@ -1,22 +1,23 @@
 package br.com.livrementehomeopatia.backend.model;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
 import java.time.LocalDateTime;
 import br.com.livrementehomeopatia.backend.enums.OrderStatus;
-import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "homeopathic_orders")
+@DiscriminatorValue("HOMEOPATICO")
 @Getter
 @Setter
 public class HomeophaticOrder extends Order {
     
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "order_quote_id", referencedColumnName = "id")
     private OrderQuote orderQuote;
 
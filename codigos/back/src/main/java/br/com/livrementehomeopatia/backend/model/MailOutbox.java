@@ -0,0 +1,83 @@
+package br.com.livrementehomeopatia.backend.model;
+
+import java.time.Instant;
+
+import br.com.livrementehomeopatia.backend.enums.OutboxStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * E-mail já renderizado, aguardando envio.
+ * <p>
+ * É gravado na transação da operação que o originou; o envio por SMTP
+ * acontece depois do commit, fora da requisição, e é repetido em caso de
+ * falha. E-mails que esgotam as tentativas ficam com status FAILED. Os
+ * registros enviados ou descartados são apagados após o prazo de retenção.
+ * </p>
+ */
+@Entity
+@Table(name = "mail_outbox", indexes = @Index(name = "idx_mail_outbox_due", columnList = "status, next_attempt_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class MailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient", nullable = false)
+    private String to;
+
+    @Column(nullable = false)
+    private String subject;
+
+    /**
+     * Corpo renderizado. É esvaziado assim que o e-mail é enviado, pois pode
+     * conter links de uso único, como os de redefinição de senha.
+     */
+    @Column(name = "html_body", nullable = false, columnDefinition = "TEXT")
+    private String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * Momento a partir do qual o envio pode ser tentado. Ao ser reservado por
+     * um executor, é adiado pelo tempo da reserva, para que não seja enviado
+     * duas vezes.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    public MailOutbox(String to, String subject, String htmlBody, Instant now) {
+        this.to = to;
+        this.subject = subject;
+        this.htmlBody = htmlBody;
+        this.createdAt = now;
+        this.nextAttemptAt = now;
+    }
+}
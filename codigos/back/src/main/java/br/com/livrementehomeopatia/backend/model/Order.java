@@ -10,24 +10,35 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import br.com.livrementehomeopatia.backend.enums.OrderStatus;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorColumn;
+import jakarta.persistence.DiscriminatorType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * Pedido base. Os pedidos homeopáticos e de revenda ficam na mesma tabela
+ * {@code orders}, distinguidos pela coluna {@code order_type}, de modo que
+ * buscas por ID ou por usuário consultam uma única tabela e um único índice.
+ */
 @Entity
-@Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Table(name = "orders", indexes = @Index(name = "idx_orders_user_created", columnList = "user_id, created_at"))
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "order_type", discriminatorType = DiscriminatorType.STRING, length = 20)
 @Getter
 @Setter
 @NoArgsConstructor
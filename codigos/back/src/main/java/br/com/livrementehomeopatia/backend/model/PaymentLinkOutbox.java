@@ -0,0 +1,72 @@
+package br.com.livrementehomeopatia.backend.model;
+
+import java.time.Instant;
+
+import br.com.livrementehomeopatia.backend.enums.OutboxStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Pedido de geração do link de pagamento de um pedido de revenda.
+ * <p>
+ * É gravado na mesma transação que cria o pedido; a chamada ao Mercado Pago
+ * acontece depois do commit, fora da transação, e é repetida em caso de falha.
+ * </p>
+ */
+@Entity
+@Table(name = "payment_link_outbox", indexes = @Index(name = "idx_payment_link_outbox_due", columnList = "status, next_attempt_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class PaymentLinkOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /**
+     * ID do pedido de revenda. Há no máximo uma tarefa por pedido.
+     */
+    @Column(name = "order_id", nullable = false, unique = true)
+    private Integer orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * Momento a partir do qual a tarefa pode ser executada. Ao ser reservada por
+     * um executor, é adiada pelo tempo da reserva, para que não seja executada
+     * duas vezes.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    public PaymentLinkOutbox(Integer orderId, Instant now) {
+        this.orderId = orderId;
+        this.createdAt = now;
+        this.nextAttemptAt = now;
+    }
+}
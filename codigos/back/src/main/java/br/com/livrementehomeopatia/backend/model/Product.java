@@ -5,6 +5,7 @@ import java.util.Set;
 
 import br.com.livrementehomeopatia.backend.enums.Categories;
 import br.com.livrementehomeopatia.backend.enums.ProductType;
+import org.hibernate.annotations.BatchSize;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -33,10 +34,17 @@ public class Product {
     @Column(nullable = false)
     private Double price;
 
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
-    @Column(name = "photo")
-    private byte[] photo;
+    /**
+     * Hash SHA-256 da foto no armazenamento de imagens.
+     */
+    @Column(name = "photo_hash", length = 64)
+    private String photoHash;
+
+    @Column(name = "photo_size")
+    private Long photoSize;
+
+    @Column(name = "photo_mime_type", length = 50)
+    private String photoMimeType;
 
     @Column(nullable = false)
     private boolean available;
@@ -45,7 +53,12 @@ public class Product {
     @Column(nullable = false)
     private ProductType type;
 
+    /**
+     * Carregadas sob demanda, em lotes: ao percorrer uma lista de produtos,
+     * as categorias de vários produtos são buscadas em uma única consulta.
+     */
     @ElementCollection(targetClass = Categories.class)
+    @BatchSize(size = 100)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "product_categories", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "category")
@@ -58,17 +71,15 @@ public class Product {
      * @param name nome do produto
      * @param description descrição do produto
      * @param price preço do produto
-     * @param photo foto do produto
      * @param available disponibilidade do produto
      * @param type tipo do produto
      * @param categories categorias do produto
      */
-    public Product(Integer id, String name, String description, Double price, byte[] photo, boolean available, ProductType type, Set<Categories> categories) {
+    public Product(Integer id, String name, String description, Double price, boolean available, ProductType type, Set<Categories> categories) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.price = price;
-        this.photo = photo;
         this.available = available;
         this.type = type;
         this.categories = categories;
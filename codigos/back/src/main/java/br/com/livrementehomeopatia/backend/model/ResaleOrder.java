@@ -2,7 +2,7 @@ package br.com.livrementehomeopatia.backend.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.Table;
+import jakarta.persistence.DiscriminatorValue;
 import java.time.LocalDateTime;
 import br.com.livrementehomeopatia.backend.enums.OrderStatus;
 
@@ -19,7 +19,7 @@ import br.com.livrementehomeopatia.backend.enums.OrderStatus;
  * @see OrderStatus
  */
 @Entity
-@Table(name = "resale_orders")
+@DiscriminatorValue("REVENDA")
 public class ResaleOrder extends Order {
 
     /**
@@ -22,9 +22,12 @@ import lombok.Setter;
  * Classe abstrata base para todos os usuários do sistema, como {@link Client} e
  * {@link Doctor}.
  * Define os atributos comuns e suporte à serialização polimórfica via Jackson.
+ * Os atributos comuns ficam na tabela {@code users}; cada subclasse guarda
+ * apenas os seus na própria tabela, ligada a {@code users} pelo ID.
  */
 @Entity
-@Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Table(name = "users")
+@Inheritance(strategy = InheritanceType.JOINED)
 @Getter
 @Setter
 @AllArgsConstructor
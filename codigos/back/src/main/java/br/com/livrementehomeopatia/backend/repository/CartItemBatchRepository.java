@@ -0,0 +1,52 @@
+package br.com.livrementehomeopatia.backend.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Escritas em lote nos itens de carrinho, via JDBC.
+ * Deve ser usado dentro de uma transação já aberta pelo serviço.
+ */
+@Repository
+public class CartItemBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CartItemBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Define as quantidades dos produtos no carrinho em dois lotes de comandos:
+     * um de remoções (quantidade zero) e um de upserts.
+     *
+     * @param cartId     ID do carrinho
+     * @param userId     ID do dono do carrinho
+     * @param quantities quantidade final por ID de produto
+     */
+    public void setQuantities(Integer cartId, Integer userId, Map<Integer, Integer> quantities) {
+        List<Object[]> removals = quantities.entrySet().stream()
+                .filter(entry -> entry.getValue() == 0)
+                .map(entry -> new Object[] { cartId, entry.getKey() })
+                .toList();
+
+        List<Object[]> upserts = quantities.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> new Object[] { cartId, entry.getKey(), userId, entry.getValue() })
+                .toList();
+
+        if (!removals.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM cart_item WHERE cart_id = ? AND product_id = ?", removals);
+        }
+
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO cart_item (cart_id, product_id, user_id, quantity) "
+                    + "VALUES (?, ?, ?, ?) "
+                    + "ON CONFLICT (cart_id, product_id) DO UPDATE SET quantity = EXCLUDED.quantity, "
+                    + "version = cart_item.version + 1", upserts);
+        }
+    }
+}
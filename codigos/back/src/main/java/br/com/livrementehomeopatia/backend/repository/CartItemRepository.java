@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import br.com.livrementehomeopatia.backend.dto.CartItemResponse;
+import br.com.livrementehomeopatia.backend.dto.CartSummaryItemDTO;
 import br.com.livrementehomeopatia.backend.dto.CartItemWithoutProductPhoto;
 import br.com.livrementehomeopatia.backend.model.CartItem;
 
@@ -21,10 +22,15 @@ public interface CartItemRepository extends JpaRepository<CartItem, Integer> {
                         @Param("productId") Integer productId);
 
         @Query("SELECT new br.com.livrementehomeopatia.backend.dto.CartItemResponse(" +
-                        "ci.id, ci.product.id, ci.product.name, ci.quantity, ci.product.price, ci.product.type, ci.product.photo) " +
+                        "ci.id, ci.product.id, ci.product.name, ci.quantity, ci.product.price, ci.product.type, ci.product.photoHash) " +
                         "FROM CartItem ci WHERE ci.user.id = :userId")
         List<CartItemResponse> findAllItemsByUserId(@Param("userId") Integer userId);
 
+        @Query("SELECT new br.com.livrementehomeopatia.backend.dto.CartSummaryItemDTO(" +
+                        "ci.id, ci.product.id, ci.quantity, ci.product.price, ci.product.photoHash) " +
+                        "FROM CartItem ci WHERE ci.cart.id = :cartId ORDER BY ci.id")
+        List<CartSummaryItemDTO> findSummaryItemsByCartId(@Param("cartId") Integer cartId);
+
         @Modifying
         @Transactional
         @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
@@ -33,4 +39,74 @@ public interface CartItemRepository extends JpaRepository<CartItem, Integer> {
         @Query("SELECT ci FROM CartItem ci WHERE ci.cart.id = :cartId")
         List<CartItem> findAllByCartId(@Param("cartId") Integer cartId);
 
+        @Query("SELECT ci.product.id, ci.product.type, ci.quantity FROM CartItem ci WHERE ci.cart.id = :cartId")
+        List<Object[]> findLinesByCartId(@Param("cartId") Integer cartId);
+
+        /**
+         * Adiciona uma unidade do produto ao carrinho do usuário em um único
+         * comando. A linha do carrinho é atualizada primeiro, e só se o carrinho
+         * estiver vazio ou já for do mesmo tipo do produto: grava o tipo, soma o
+         * preço ao total e incrementa a versão. Em seguida o item é inserido ou
+         * tem a quantidade incrementada (ON CONFLICT). Como a atualização do
+         * carrinho bloqueia a linha, adições concorrentes de tipos diferentes não
+         * conseguem passar as duas pela verificação.
+         *
+         * @return 1 se o item foi adicionado; 0 se o usuário não tiver carrinho,
+         *         se o produto não existir ou se o carrinho for de outro tipo
+         */
+        @Modifying(flushAutomatically = true)
+        @Query(value = "WITH target AS ("
+                        + "UPDATE cart c SET product_type = p.type, total_value = c.total_value + p.price, "
+                        + "version = c.version + 1, updated_at = now() "
+                        + "FROM product p "
+                        + "WHERE c.user_id = :userId AND p.id = :productId "
+                        + "AND (c.product_type IS NULL OR c.product_type = p.type) "
+                        + "RETURNING c.id AS cart_id, p.id AS product_id, c.user_id) "
+                        + "INSERT INTO cart_item (cart_id, product_id, user_id, quantity) "
+                        + "SELECT cart_id, product_id, user_id, 1 FROM target "
+                        + "ON CONFLICT (cart_id, product_id) DO UPDATE SET quantity = cart_item.quantity + 1, "
+                        + "version = cart_item.version + 1",
+                        nativeQuery = true)
+        int addOneToCart(@Param("userId") Integer userId, @Param("productId") Integer productId);
+
+        /**
+         * Retira uma unidade do produto do carrinho do usuário e subtrai o preço
+         * do total, em um único comando. Itens com uma única unidade não são
+         * alterados.
+         *
+         * @return 1 se a quantidade foi decrementada, 0 caso contrário
+         */
+        @Modifying(flushAutomatically = true)
+        @Query(value = "WITH decreased AS ("
+                        + "UPDATE cart_item ci SET quantity = ci.quantity - 1, version = ci.version + 1 FROM cart c "
+                        + "WHERE ci.cart_id = c.id AND c.user_id = :userId AND ci.product_id = :productId "
+                        + "AND ci.quantity > 1 "
+                        + "RETURNING ci.cart_id, ci.product_id) "
+                        + "UPDATE cart SET total_value = cart.total_value - p.price, version = cart.version + 1, "
+                        + "updated_at = now() "
+                        + "FROM decreased JOIN product p ON p.id = decreased.product_id "
+                        + "WHERE cart.id = decreased.cart_id", nativeQuery = true)
+        int removeOneFromCart(@Param("userId") Integer userId, @Param("productId") Integer productId);
+
+        /**
+         * Remove o produto do carrinho do usuário e subtrai do total o valor de
+         * todas as unidades, em um único comando. Se era o último item, o tipo
+         * do carrinho volta a ser nulo.
+         *
+         * @return 1 se o item foi removido, 0 se não estava no carrinho
+         */
+        @Modifying(flushAutomatically = true)
+        @Query(value = "WITH removed AS ("
+                        + "DELETE FROM cart_item ci USING cart c "
+                        + "WHERE ci.cart_id = c.id AND c.user_id = :userId AND ci.product_id = :productId "
+                        + "RETURNING ci.cart_id, ci.product_id, ci.quantity) "
+                        + "UPDATE cart SET total_value = cart.total_value - p.price * removed.quantity, "
+                        + "product_type = CASE WHEN EXISTS (SELECT 1 FROM cart_item remaining "
+                        + "WHERE remaining.cart_id = cart.id AND remaining.product_id <> removed.product_id) "
+                        + "THEN cart.product_type END, "
+                        + "version = cart.version + 1, updated_at = now() "
+                        + "FROM removed JOIN product p ON p.id = removed.product_id "
+                        + "WHERE cart.id = removed.cart_id", nativeQuery = true)
+        int removeFromCart(@Param("userId") Integer userId, @Param("productId") Integer productId);
+
 }
\ No newline at end of file
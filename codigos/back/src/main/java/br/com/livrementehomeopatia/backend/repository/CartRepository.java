@@ -3,9 +3,35 @@ package br.com.livrementehomeopatia.backend.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.livrementehomeopatia.backend.dto.CartSummaryDTO;
 
 import br.com.livrementehomeopatia.backend.model.Cart;
+import jakarta.persistence.LockModeType;
 
 public interface CartRepository extends JpaRepository<Cart, Integer> {
     Optional<Cart> findByUserId(Integer userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cart c WHERE c.user.id = :userId")
+    Optional<Cart> findForUpdateByUserId(@Param("userId") Integer userId);
+
+    @Query("SELECT new br.com.livrementehomeopatia.backend.dto.CartSummaryDTO(c.id, c.version, c.totalValue) "
+            + "FROM Cart c WHERE c.user.id = :userId")
+    Optional<CartSummaryDTO> findSummaryByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Recalcula o total e o tipo do carrinho a partir dos itens, em um único comando.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE cart SET total_value = (SELECT COALESCE(SUM(p.price * ci.quantity), 0) "
+            + "FROM cart_item ci JOIN product p ON p.id = ci.product_id WHERE ci.cart_id = cart.id), "
+            + "product_type = (SELECT MIN(p.type) "
+            + "FROM cart_item ci JOIN product p ON p.id = ci.product_id WHERE ci.cart_id = cart.id), "
+            + "version = version + 1, updated_at = now() WHERE id = :cartId", nativeQuery = true)
+    int recalculateFromItems(@Param("cartId") Integer cartId);
 }
\ No newline at end of file
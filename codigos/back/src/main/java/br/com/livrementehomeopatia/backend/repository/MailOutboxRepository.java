@@ -0,0 +1,46 @@
+package br.com.livrementehomeopatia.backend.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import br.com.livrementehomeopatia.backend.enums.OutboxStatus;
+import br.com.livrementehomeopatia.backend.model.MailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    /**
+     * Bloqueia um lote de e-mails pendentes e vencidos, em ordem de vencimento.
+     * E-mails já bloqueados por outro executor são pulados (SKIP LOCKED), para
+     * que executores concorrentes peguem lotes distintos.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM MailOutbox m "
+            + "WHERE m.status = br.com.livrementehomeopatia.backend.enums.OutboxStatus.PENDING "
+            + "AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<MailOutbox> lockDue(@Param("now") Instant now, Pageable pageable);
+
+    boolean existsByStatusAndNextAttemptAtLessThanEqual(OutboxStatus status, Instant now);
+
+    long countByStatus(OutboxStatus status);
+
+    /**
+     * Apaga os e-mails já enviados ou descartados criados antes do instante informado.
+     *
+     * @return quantidade de registros apagados
+     */
+    @Modifying
+    @Query("DELETE FROM MailOutbox m WHERE m.status IN :statuses AND m.createdAt < :before")
+    int deleteFinishedBefore(@Param("statuses") Collection<OutboxStatus> statuses, @Param("before") Instant before);
+}
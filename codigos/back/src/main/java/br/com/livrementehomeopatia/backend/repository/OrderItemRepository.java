@@ -0,0 +1,19 @@
+package br.com.livrementehomeopatia.backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.livrementehomeopatia.backend.dto.OrderHistoryItemDTO;
+import br.com.livrementehomeopatia.backend.model.OrderItem;
+
+public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
+
+    @Query("SELECT new br.com.livrementehomeopatia.backend.dto.OrderHistoryItemDTO("
+            + "i.order.id, p.id, p.name, i.quantity, i.price, p.photoHash) "
+            + "FROM OrderItem i JOIN i.product p WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderHistoryItemDTO> findHistoryItemsByOrderIds(@Param("orderIds") Collection<Integer> orderIds);
+}
@@ -1,9 +1,16 @@
 package br.com.livrementehomeopatia.backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import br.com.livrementehomeopatia.backend.dto.OrderHistoryDTO;
 import br.com.livrementehomeopatia.backend.model.Order;
 import br.com.livrementehomeopatia.backend.model.HomeophaticOrder;
 
@@ -11,4 +18,54 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
     List<Order> findByUserId(Integer userId);
     List<HomeophaticOrder> findHomeophaticOrdersByUserId(Integer userId);
 
-}
\ No newline at end of file
+    /**
+     * Primeira página do histórico de pedidos do usuário, do mais recente
+     * para o mais antigo. Usa o índice (user_id, created_at).
+     */
+    @Query("SELECT new br.com.livrementehomeopatia.backend.dto.OrderHistoryDTO("
+            + "o.id, o.createdAt, o.status, o.totalValue, o.deliveryTax, n.name) "
+            + "FROM Order o LEFT JOIN o.neighborhood n WHERE o.user.id = :userId "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderHistoryDTO> findHistoryByUserId(@Param("userId") Integer userId, Limit limit);
+
+    /**
+     * Página seguinte do histórico: pedidos estritamente anteriores à posição
+     * (createdAt, id) do último pedido da página anterior.
+     */
+    @Query("SELECT new br.com.livrementehomeopatia.backend.dto.OrderHistoryDTO("
+            + "o.id, o.createdAt, o.status, o.totalValue, o.deliveryTax, n.name) "
+            + "FROM Order o LEFT JOIN o.neighborhood n WHERE o.user.id = :userId "
+            + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderHistoryDTO> findHistoryByUserIdBefore(@Param("userId") Integer userId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Integer id, Limit limit);
+
+    /**
+     * Para cada pedido homeopático entre os IDs, indica se há receita médica
+     * anexada, sem carregar o arquivo.
+     *
+     * @return linhas {@code [id do pedido, possui receita]}
+     */
+    @Query("SELECT h.id, CASE WHEN q.medicalPrescription IS NOT NULL THEN true ELSE false END "
+            + "FROM HomeophaticOrder h LEFT JOIN h.orderQuote q WHERE h.id IN :ids")
+    List<Object[]> findPrescriptionFlagsByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Dados do orçamento de cada pedido homeopático entre os IDs, sem o
+     * arquivo da receita médica.
+     *
+     * @return linhas {@code [id do pedido, id do orçamento, nome, telefone, e-mail,
+     *         observação, cep, rua, número, complemento, possui receita]}
+     */
+    @Query("SELECT h.id, q.id, q.fullName, q.phone, q.email, q.observation, "
+            + "q.address.cep, q.address.rua, q.address.numero, q.address.complemento, "
+            + "CASE WHEN q.medicalPrescription IS NOT NULL THEN true ELSE false END "
+            + "FROM HomeophaticOrder h LEFT JOIN h.orderQuote q WHERE h.id IN :ids")
+    List<Object[]> findQuoteSummariesByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT o.user.id FROM Order o WHERE o.id = :id")
+    Optional<Integer> findUserIdById(@Param("id") Integer id);
+
+    @Query("SELECT q.medicalPrescription FROM HomeophaticOrder h JOIN h.orderQuote q WHERE h.id = :id")
+    Optional<byte[]> findPrescriptionById(@Param("id") Integer id);
+}
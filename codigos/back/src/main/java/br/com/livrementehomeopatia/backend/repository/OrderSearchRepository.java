@@ -0,0 +1,109 @@
+package br.com.livrementehomeopatia.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+import br.com.livrementehomeopatia.backend.dto.AdminOrderDTO;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.order.OrderCursor;
+import br.com.livrementehomeopatia.backend.infra.order.OrderSearchFilter;
+import br.com.livrementehomeopatia.backend.model.HomeophaticOrder;
+import br.com.livrementehomeopatia.backend.model.Neighborhood;
+import br.com.livrementehomeopatia.backend.model.Order;
+import br.com.livrementehomeopatia.backend.model.ResaleOrder;
+import br.com.livrementehomeopatia.backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Busca dinâmica de pedidos do administrador, via Criteria API.
+ * <p>
+ * Seleciona apenas as colunas exibidas no painel. Carregar a entidade
+ * {@link User} traria junto o carrinho de cada cliente (relação um-para-um
+ * inversa, sempre carregada), uma consulta a mais por cliente da página.
+ * </p>
+ */
+@Repository
+public class OrderSearchRepository {
+
+    private final EntityManager entityManager;
+
+    public OrderSearchRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Pedidos que atendem aos filtros, ordenados por data de criação e, no
+     * empate, por ID. A posição é dada pelo cursor: o resultado começa no
+     * primeiro pedido depois dele na ordenação pedida.
+     *
+     * @param filter filtros da busca
+     * @param after  último pedido da página anterior, ou null para a primeira
+     * @param limit  quantidade máxima de pedidos, ou null para todos
+     * @return pedidos sem itens, orçamento nem link de pagamento
+     */
+    public List<AdminOrderDTO> search(OrderSearchFilter filter, OrderCursor after, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AdminOrderDTO> query = cb.createQuery(AdminOrderDTO.class);
+        Root<Order> root = query.from(Order.class);
+        Join<Order, User> user = root.join("user");
+        Join<Order, Neighborhood> neighborhood = root.join("neighborhood", JoinType.LEFT);
+        Path<LocalDateTime> createdAt = root.get("createdAt");
+        Path<Integer> id = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.status() != null) {
+            predicates.add(cb.equal(root.get("status"), filter.status()));
+        }
+        if (filter.type() != null) {
+            predicates.add(cb.equal(root.type(), filter.type() == ProductType.HOMEOPATICO
+                    ? HomeophaticOrder.class : ResaleOrder.class));
+        }
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, filter.from().atStartOfDay()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThan(createdAt, filter.to().plusDays(1).atStartOfDay()));
+        }
+        if (filter.neighborhoodId() != null) {
+            predicates.add(cb.equal(neighborhood.get("id"), filter.neighborhoodId()));
+        }
+        if (filter.customer() != null && !filter.customer().isBlank()) {
+            String term = "%" + filter.customer().trim().toLowerCase() + "%";
+            predicates.add(cb.like(cb.lower(user.get("fullName")), term));
+        }
+        if (after != null) {
+            predicates.add(filter.oldestFirst()
+                    ? cb.or(cb.greaterThan(createdAt, after.createdAt()),
+                            cb.and(cb.equal(createdAt, after.createdAt()), cb.greaterThan(id, after.id())))
+                    : cb.or(cb.lessThan(createdAt, after.createdAt()),
+                            cb.and(cb.equal(createdAt, after.createdAt()), cb.lessThan(id, after.id()))));
+        }
+
+        query.select(cb.construct(AdminOrderDTO.class, id, user.get("id"), user.get("fullName"), createdAt,
+                        root.get("status"), root.type(), root.get("totalValue"), root.get("deliveryTax"),
+                        neighborhood.get("name")))
+                .where(predicates.toArray(Predicate[]::new));
+        if (filter.oldestFirst()) {
+            query.orderBy(cb.asc(createdAt), cb.asc(id));
+        } else {
+            query.orderBy(cb.desc(createdAt), cb.desc(id));
+        }
+
+        TypedQuery<AdminOrderDTO> typedQuery = entityManager.createQuery(query);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.livrementehomeopatia.backend.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import br.com.livrementehomeopatia.backend.enums.OutboxStatus;
+import br.com.livrementehomeopatia.backend.model.PaymentLinkOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface PaymentLinkOutboxRepository extends JpaRepository<PaymentLinkOutbox, Integer> {
+
+    Optional<PaymentLinkOutbox> findByOrderId(Integer orderId);
+
+    /**
+     * Bloqueia a tarefa do pedido se ela estiver pendente e vencida. Uma tarefa
+     * já bloqueada por outro executor é pulada (SKIP LOCKED) em vez de aguardada.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM PaymentLinkOutbox t WHERE t.orderId = :orderId "
+            + "AND t.status = br.com.livrementehomeopatia.backend.enums.OutboxStatus.PENDING "
+            + "AND t.nextAttemptAt <= :now")
+    Optional<PaymentLinkOutbox> lockDueByOrderId(@Param("orderId") Integer orderId, @Param("now") Instant now);
+
+    @Query("SELECT t.orderId FROM PaymentLinkOutbox t WHERE t.status = :status AND t.nextAttemptAt <= :now "
+            + "ORDER BY t.nextAttemptAt")
+    List<Integer> findDueOrderIds(@Param("status") OutboxStatus status, @Param("now") Instant now, Pageable pageable);
+}
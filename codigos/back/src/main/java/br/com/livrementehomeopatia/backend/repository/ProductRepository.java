@@ -1,12 +1,52 @@
 package br.com.livrementehomeopatia.backend.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import br.com.livrementehomeopatia.backend.dto.ProductImageDTO;
+import br.com.livrementehomeopatia.backend.dto.ProductSummaryDTO;
+import br.com.livrementehomeopatia.backend.enums.Categories;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
 import br.com.livrementehomeopatia.backend.model.Product;
 
 public interface ProductRepository extends JpaRepository<Product, Integer> {
     Optional<Product> findByName(String fullName);
     Optional<Product> findById(Integer id);
+
+    @Query("SELECT new br.com.livrementehomeopatia.backend.dto.ProductImageDTO(p.id, p.photoHash, p.photoSize, p.photoMimeType) "
+            + "FROM Product p WHERE p.id = :id AND p.photoHash IS NOT NULL")
+    Optional<ProductImageDTO> findImageById(@Param("id") Integer id);
+
+    @Query(value = "SELECT new br.com.livrementehomeopatia.backend.dto.ProductSummaryDTO("
+            + "p.id, p.name, p.description, p.price, p.available, p.type, p.photoHash) "
+            + "FROM Product p "
+            + "WHERE (:type IS NULL OR p.type = :type) "
+            + "AND (:available IS NULL OR p.available = :available) "
+            + "AND (:category IS NULL OR :category MEMBER OF p.categories)",
+            countQuery = "SELECT COUNT(p) FROM Product p "
+            + "WHERE (:type IS NULL OR p.type = :type) "
+            + "AND (:available IS NULL OR p.available = :available) "
+            + "AND (:category IS NULL OR :category MEMBER OF p.categories)")
+    Page<ProductSummaryDTO> findCatalog(@Param("type") ProductType type,
+            @Param("category") Categories category,
+            @Param("available") Boolean available,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = "categories")
+    @Query("SELECT p FROM Product p")
+    List<Product> findAllWithCategories();
+
+    @EntityGraph(attributePaths = "categories")
+    Optional<Product> findWithCategoriesById(Integer id);
+
+    @Query("SELECT p.id, c FROM Product p JOIN p.categories c WHERE p.id IN :ids")
+    List<Object[]> findCategoriesByProductIds(@Param("ids") Collection<Integer> ids);
 }
@@ -3,6 +3,7 @@ package br.com.livrementehomeopatia.backend.repository;
 import br.com.livrementehomeopatia.backend.model.ResaleOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -66,4 +67,13 @@ public interface ResaleOrderRepository extends JpaRepository<ResaleOrder, Intege
      */
     @Query("SELECT r FROM ResaleOrder r WHERE r.status = 'AGUARDANDO_PAGAMENTO' AND r.checkoutProLink IS NOT NULL")
     java.util.List<ResaleOrder> findPendingPaymentOrders();
-}
\ No newline at end of file
+
+    /**
+     * Retorna o link do Checkout Pro de cada pedido de revenda entre os IDs.
+     *
+     * @param ids IDs dos pedidos
+     * @return linhas {@code [id do pedido, link]}
+     */
+    @Query("SELECT r.id, r.checkoutProLink FROM ResaleOrder r WHERE r.id IN :ids")
+    java.util.List<Object[]> findCheckoutLinksByIds(@Param("ids") java.util.Collection<Integer> ids);
+}
@@ -1,7 +1,12 @@
 package br.com.livrementehomeopatia.backend.services;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -9,13 +14,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import br.com.livrementehomeopatia.backend.dto.CartItemResponse;
-import br.com.livrementehomeopatia.backend.dto.CartItemWithoutProductPhoto;
+import br.com.livrementehomeopatia.backend.dto.CartLineUpdateDTO;
+import br.com.livrementehomeopatia.backend.dto.CartSummaryDTO;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.cart.service.CartTransactionExecutor;
 import br.com.livrementehomeopatia.backend.infra.security.LoggedUser;
 import br.com.livrementehomeopatia.backend.model.Cart;
-import br.com.livrementehomeopatia.backend.model.CartItem;
 
 import br.com.livrementehomeopatia.backend.model.Product;
 import br.com.livrementehomeopatia.backend.model.User;
+import br.com.livrementehomeopatia.backend.repository.CartItemBatchRepository;
 import br.com.livrementehomeopatia.backend.repository.CartItemRepository;
 import br.com.livrementehomeopatia.backend.repository.CartRepository;
 
@@ -28,113 +36,204 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CartService {
 
+    private static final int MAX_BATCH_LINES = 100;
+
+    public static final String MIXED_TYPES_MESSAGE = "Não é possível misturar produtos homeopáticos com medicamentos de revenda no mesmo carrinho. Finalize a compra atual ou esvazie o carrinho para adicionar produtos de outro tipo.";
+
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
+    private final CartItemBatchRepository cartItemBatchRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final CartTransactionExecutor cartTransactions;
 
     /**
      * Adiciona um item ao carrinho do usuário autenticado.
+     * <p>
+     * No caminho comum a verificação de tipo, o incremento da quantidade e o
+     * ajuste do total são feitos por um único comando no banco. Só quando ele
+     * não altera nada (carrinho ainda inexistente, produto inválido ou tipos
+     * misturados) o carrinho é carregado com bloqueio para criar o que falta ou
+     * explicar a recusa. Conflitos com outras alterações simultâneas (por exemplo, a
+     * criação do mesmo carrinho por duas requisições) fazem a operação ser
+     * repetida pelo {@link CartTransactionExecutor}.
+     * </p>
      *
      * @param productId o id do produto a ser adicionado
      */
-    @Transactional
     public void addItemToCart(Integer productId) {
         LoggedUser loggedUser = getLoggedUser();
         Integer userId = loggedUser.getId();
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        cartTransactions.run(() -> addItemToCart(userId, productId));
+    }
+
+    private void addItemToCart(Integer userId, Integer productId) {
+        if (cartItemRepository.addOneToCart(userId, productId) > 0) {
+            return;
+        }
 
-        Cart cart = getOrCreateCart(user);
+        // Com a linha bloqueada, o tipo lido não muda até o commit: a recusa por
+        // tipos misturados é decidida aqui e o comando abaixo não pode falhar por ela.
+        Cart cart = lockOrCreateCart(userId);
 
         Product productToAdd = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
 
         verificarCompatibilidadeDeTipoNoCarrinho(cart, productToAdd);
 
-        Optional<CartItemWithoutProductPhoto> optionalItem = cartItemRepository.findCartItemWithoutPhoto(userId,
-                productId);
-
-        if (optionalItem.isPresent()) {
-            CartItemWithoutProductPhoto dto = optionalItem.get();
-            CartItem existingItem = cartItemRepository.findById(dto.getCartItemId())
-                    .orElseThrow(() -> new RuntimeException("Item do carrinho não encontrado"));
-            existingItem.setQuantity(existingItem.getQuantity() + 1);
-            cartItemRepository.save(existingItem);
-        } else {
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setUser(user);
-            newItem.setProduct(productToAdd);
-            newItem.setQuantity(1);
-            cartItemRepository.save(newItem);
+        if (cartItemRepository.addOneToCart(userId, productId) == 0) {
+            throw new RuntimeException("Não foi possível adicionar o produto ao carrinho");
         }
-
-        updateCartTotal(cart);
     }
 
     /**
      * Remove um item do carrinho do usuário autenticado, completamente.
+     * O total do carrinho é reduzido pelo valor das unidades removidas.
      *
      * @param productId o id do produto a ser removido
      */
-    @Transactional
     public void removeItemCompletelyFromCart(Integer productId) {
         LoggedUser loggedUser = getLoggedUser();
         Integer userId = loggedUser.getId();
 
-        Optional<CartItemWithoutProductPhoto> optionalItem = cartItemRepository.findCartItemWithoutPhoto(userId,
-                productId);
-
-        if (optionalItem.isEmpty()) {
-            throw new RuntimeException("Item não encontrado no carrinho");
-        }
-
-        CartItemWithoutProductPhoto dto = optionalItem.get();
-        CartItem item = cartItemRepository.findById(dto.getCartItemId())
-                .orElseThrow(() -> new RuntimeException("Item não encontrado"));
-
-        Cart cart = item.getCart();
-
-        cartItemRepository.delete(item);
-
-        updateCartTotal(cart);
+        cartTransactions.run(() -> {
+            if (cartItemRepository.removeFromCart(userId, productId) == 0) {
+                throw new RuntimeException("Item não encontrado no carrinho");
+            }
+        });
     }
 
     /**
      * Decrementa a quantidade de um item no carrinho do usuario autenticado.
+     * Itens com uma única unidade permanecem no carrinho.
      *
      * @param productId o id do produto a ter a quantidade decrementada
      */
-    @Transactional
     public void decreaseItemQuantityFromCart(Integer productId) {
         LoggedUser loggedUser = getLoggedUser();
         Integer userId = loggedUser.getId();
 
-        Optional<CartItemWithoutProductPhoto> optionalItem = cartItemRepository.findCartItemWithoutPhoto(userId,
-                productId);
+        cartTransactions.run(() -> {
+            if (cartItemRepository.removeOneFromCart(userId, productId) == 0
+                    && cartItemRepository.findCartItemWithoutPhoto(userId, productId).isEmpty()) {
+                throw new RuntimeException("Item não encontrado no carrinho");
+            }
+        });
+    }
+
+    /**
+     * Aplica várias alterações de quantidade ao carrinho do usuário autenticado
+     * em uma única transação, com os comandos enviados em lote. Em caso de
+     * conflito com outra alteração a transação inteira é refeita.
+     * <p>
+     * Cada linha define a quantidade final de um produto; zero o remove. Se o
+     * mesmo produto aparecer mais de uma vez, vale a última linha. A mesma regra
+     * de tipos de {@link #addItemToCart(Integer)} é aplicada ao carrinho
+     * resultante, com a linha do carrinho bloqueada durante a operação; o total
+     * e o tipo são recalculados no banco a partir dos itens.
+     * </p>
+     *
+     * @param lines alterações a aplicar
+     * @return o resumo do carrinho atualizado
+     */
+    public CartSummaryDTO updateCartLines(List<CartLineUpdateDTO> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new RuntimeException("Nenhuma alteração informada");
+        }
+        if (lines.size() > MAX_BATCH_LINES) {
+            throw new RuntimeException("Máximo de " + MAX_BATCH_LINES + " alterações por requisição");
+        }
 
-        if (optionalItem.isEmpty()) {
-            throw new RuntimeException("Item não encontrado no carrinho");
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (CartLineUpdateDTO line : lines) {
+            if (line.productId() == null || line.targetQuantity() < 0) {
+                throw new RuntimeException("Alteração de carrinho inválida");
+            }
+            quantities.put(line.productId(), line.targetQuantity());
         }
 
-        CartItemWithoutProductPhoto dto = optionalItem.get();
-        CartItem item = cartItemRepository.findById(dto.getCartItemId())
-                .orElseThrow(() -> new RuntimeException("Item não encontrado"));
+        Integer userId = getLoggedUser().getId();
+        return cartTransactions.execute(() -> applyCartLines(userId, quantities));
+    }
 
-        Cart cart = item.getCart();
+    private CartSummaryDTO applyCartLines(Integer userId, Map<Integer, Integer> quantities) {
+        Cart cart = lockOrCreateCart(userId);
 
-        if (item.getQuantity() > 1) {
-            item.setQuantity(item.getQuantity() - 1);
-            cartItemRepository.save(item);
-        } else {
+        Map<Integer, ProductType> typesInCart = new HashMap<>();
+        for (Object[] row : cartItemRepository.findLinesByCartId(cart.getId())) {
+            typesInCart.put((Integer) row[0], (ProductType) row[1]);
+        }
 
-            item.setQuantity(1);
-            cartItemRepository.save(item);
+        Set<Integer> productsToKeep = quantities.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+
+        List<Product> products = productRepository.findAllById(productsToKeep);
+        if (products.size() != productsToKeep.size()) {
+            throw new RuntimeException("Produto não encontrado");
         }
 
-        updateCartTotal(cart);
+        products.forEach(product -> typesInCart.put(product.getId(), product.getType()));
+        quantities.forEach((productId, quantity) -> {
+            if (quantity == 0) {
+                typesInCart.remove(productId);
+            }
+        });
+
+        if (typesInCart.values().stream().distinct().count() > 1) {
+            throw new RuntimeException(MIXED_TYPES_MESSAGE);
+        }
+
+        cartItemBatchRepository.setQuantities(cart.getId(), userId, quantities);
+        cartRepository.recalculateFromItems(cart.getId());
+
+        return getCartSummary(userId);
+    }
+
+    /**
+     * Incorpora o carrinho de um visitante ao carrinho persistente do usuário,
+     * somando as quantidades, em uma única transação com comandos em lote.
+     * <p>
+     * Usado no login e no cadastro. Produtos que não existem mais são
+     * ignorados, assim como produtos de tipo diferente do carrinho atual: o
+     * carrinho que o usuário já tinha prevalece.
+     * </p>
+     *
+     * @param userId     ID do usuário que acabou de se autenticar
+     * @param guestLines quantidade por ID de produto do carrinho de visitante
+     */
+    public void mergeGuestCart(Integer userId, Map<Integer, Integer> guestLines) {
+        if (guestLines.isEmpty()) {
+            return;
+        }
+
+        cartTransactions.run(() -> {
+            Cart cart = lockOrCreateCart(userId);
+
+            Map<Integer, Integer> quantitiesInCart = new HashMap<>();
+            for (Object[] row : cartItemRepository.findLinesByCartId(cart.getId())) {
+                quantitiesInCart.put((Integer) row[0], (Integer) row[2]);
+            }
+
+            ProductType cartType = cart.getProductType();
+            Map<Integer, Integer> targets = new LinkedHashMap<>();
+            for (Product product : productRepository.findAllById(guestLines.keySet())) {
+                if (cartType == null) {
+                    cartType = product.getType();
+                }
+                if (product.getType() == cartType) {
+                    targets.put(product.getId(),
+                            quantitiesInCart.getOrDefault(product.getId(), 0) + guestLines.get(product.getId()));
+                }
+            }
+
+            if (!targets.isEmpty()) {
+                cartItemBatchRepository.setQuantities(cart.getId(), userId, targets);
+                cartRepository.recalculateFromItems(cart.getId());
+            }
+        });
     }
 
     /**
@@ -149,35 +248,40 @@ public class CartService {
     }
 
     /**
-     * Retorna o valor total do carrinho do usuario autenticado.
-     * 
-     * @return o valor total do carrinho
+     * Retorna o resumo do carrinho do usuario autenticado: ids, quantidades,
+     * preços, URLs das miniaturas, versão e total.
+     *
+     * @return o resumo do carrinho
      */
     @Transactional(readOnly = true)
-    public Double getCartTotalValueForLoggedUser() {
-        LoggedUser loggedUser = getLoggedUser();
-        Integer userId = loggedUser.getId();
-
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Carrinho não encontrado"));
+    public CartSummaryDTO getCartSummaryForLoggedUser() {
+        return getCartSummary(getLoggedUser().getId());
+    }
 
-        return cart.getTotalValue();
+    private CartSummaryDTO getCartSummary(Integer userId) {
+        Optional<CartSummaryDTO> found = cartRepository.findSummaryByUserId(userId);
+        if (found.isEmpty()) {
+            return new CartSummaryDTO(null, 0, 0.0);
+        }
+        CartSummaryDTO summary = found.get();
+        summary.setItems(cartItemRepository.findSummaryItemsByCartId(summary.getCartId()));
+        return summary;
     }
 
     /**
-     * Atualiza o valor total do carrinho passado como parâmetro.
+     * Retorna o valor total do carrinho do usuario autenticado.
+     * Usuários sem carrinho (nunca criado ou descartado por inatividade) têm total zero.
      * 
-     * @param cart o carrinho a ter o valor total atualizado
+     * @return o valor total do carrinho
      */
-    private void updateCartTotal(Cart cart) {
-        List<CartItem> items = cartItemRepository.findAllByCartId(cart.getId());
-
-        double total = items.stream()
-                .mapToDouble(item -> item.getProduct().getPrice() * item.getQuantity())
-                .sum();
+    @Transactional(readOnly = true)
+    public Double getCartTotalValueForLoggedUser() {
+        LoggedUser loggedUser = getLoggedUser();
+        Integer userId = loggedUser.getId();
 
-        cart.setTotalValue(total);
-        cartRepository.save(cart);
+        return cartRepository.findByUserId(userId)
+                .map(Cart::getTotalValue)
+                .orElse(0.0);
     }
 
     /**
@@ -194,6 +298,11 @@ public class CartService {
         return (LoggedUser) auth.getPrincipal();
     }
 
+    private Cart lockOrCreateCart(Integer userId) {
+        return cartRepository.findForUpdateByUserId(userId).orElseGet(() -> getOrCreateCart(
+                userRepository.findById(userId).orElseThrow(() -> new RuntimeException("Usuário não encontrado"))));
+    }
+
     private Cart getOrCreateCart(User user) {
         return cartRepository.findByUserId(user.getId()).orElseGet(() -> {
             Cart newCart = new Cart();
@@ -205,25 +314,17 @@ public class CartService {
 /**
 * Verifica a compatibilidade do tipo de produto que está sendo adicionado ao carrinho.
 * 
-* Este método verifica se o tipo do produto a ser adicionado entra em conflito com
-* os tipos de produtos já presentes no carrinho. Ele garante que produtos
-* de tipos diferentes (por exemplo, homeopático e revenda) não sejam misturados no mesmo carrinho.
+* O carrinho guarda o tipo dos seus produtos (nulo quando vazio), então a
+* verificação é uma comparação direta. Ela garante que produtos de tipos
+* diferentes (por exemplo, homeopático e revenda) não sejam misturados no mesmo carrinho.
 * 
 * @param cart o carrinho ao qual o produto está sendo adicionado
 * @param productToAdd o produto cujo tipo está sendo verificado para compatibilidade
 * @throws RuntimeException se houver tentativa de misturar produtos de tipos diferentes
 */
     private void verificarCompatibilidadeDeTipoNoCarrinho(Cart cart, Product productToAdd) {
-        String tipoNovoProduto = productToAdd.getType().toString();
-
-        List<CartItem> itensExistentes = cartItemRepository.findAllByCartId(cart.getId());
-
-        boolean existeTipoDiferente = itensExistentes.stream()
-                .map(item -> item.getProduct().getType().toString())
-                .anyMatch(tipoExistente -> !tipoExistente.equals(tipoNovoProduto));
-
-        if (existeTipoDiferente) {
-            throw new RuntimeException("Não é possível misturar produtos homeopáticos com medicamentos de revenda no mesmo carrinho. Finalize a compra atual ou esvazie o carrinho para adicionar produtos de outro tipo.");
+        if (cart.getProductType() != null && cart.getProductType() != productToAdd.getType()) {
+            throw new RuntimeException(MIXED_TYPES_MESSAGE);
         }
     }
-}
\ No newline at end of file
+}
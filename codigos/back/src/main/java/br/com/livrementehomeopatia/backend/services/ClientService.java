@@ -6,6 +6,7 @@ import java.util.Optional;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.livrementehomeopatia.backend.dto.ClientUpdateDTO;
 import br.com.livrementehomeopatia.backend.dto.ClientDTO;
@@ -70,6 +71,7 @@ public class ClientService {
      * @param id  ID do cliente a ser atualizado
      * @param dto dados a serem atualizados
      */
+    @Transactional
     public void updateClient(Integer id, ClientUpdateDTO dto) {
         validator.validatePartial(dto);
 
@@ -6,6 +6,7 @@ import java.util.Optional;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.livrementehomeopatia.backend.dto.DoctorUpdateDTO;
 import br.com.livrementehomeopatia.backend.dto.DoctorDTO;
@@ -81,6 +82,7 @@ public class DoctorService {
      * @param dto objeto {@link DoctorUpdateDTO} contendo os novos dados do médico
      * @throws RuntimeException se o médico com o ID fornecido não for encontrado
      */
+    @Transactional
     public void updateDoctor(Integer id, DoctorUpdateDTO dto) {
         validator.validatePartial(dto);
         Doctor doctor = doctorRepository.findById(id)
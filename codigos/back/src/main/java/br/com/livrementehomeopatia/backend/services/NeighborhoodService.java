@@ -4,8 +4,10 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import br.com.livrementehomeopatia.backend.infra.catalog.event.NeighborhoodsChangedEvent;
 import br.com.livrementehomeopatia.backend.infra.exception.NeighborhoodNotFoundException;
 
 import br.com.livrementehomeopatia.backend.model.Neighborhood;
@@ -18,6 +20,9 @@ public class NeighborhoodService {
     @Autowired
     private NeighborhoodRepository neighborhoodRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Salva um novo bairro.
      *
@@ -37,7 +42,9 @@ public class NeighborhoodService {
         novoBairro.setName(name);
         novoBairro.setTax(tax);
 
-        return neighborhoodRepository.save(novoBairro);
+        Neighborhood saved = neighborhoodRepository.save(novoBairro);
+        eventPublisher.publishEvent(new NeighborhoodsChangedEvent(saved.getId()));
+        return saved;
     }
 
     /**
@@ -86,7 +93,9 @@ public class NeighborhoodService {
         existing.setName(name);
         existing.setTax(tax);
 
-        return neighborhoodRepository.save(existing);
+        Neighborhood saved = neighborhoodRepository.save(existing);
+        eventPublisher.publishEvent(new NeighborhoodsChangedEvent(id));
+        return saved;
     }
 
     /**
@@ -102,5 +111,6 @@ public class NeighborhoodService {
             throw new NeighborhoodNotFoundException("Bairro com ID " + id + " não encontrado.");
         }
         neighborhoodRepository.deleteById(id);
+        eventPublisher.publishEvent(new NeighborhoodsChangedEvent(id));
     }
 }
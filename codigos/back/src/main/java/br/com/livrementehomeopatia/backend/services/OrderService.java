@@ -1,15 +1,17 @@
 package br.com.livrementehomeopatia.backend.services;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import br.com.livrementehomeopatia.backend.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -18,11 +20,14 @@ import org.springframework.transaction.annotation.Transactional;
 import br.com.livrementehomeopatia.backend.dto.*;
 import br.com.livrementehomeopatia.backend.enums.OrderStatus;
 import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.image.ProductImageUrls;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageVariant;
+import br.com.livrementehomeopatia.backend.infra.order.OrderCursor;
+import br.com.livrementehomeopatia.backend.infra.order.OrderSearchFilter;
 import br.com.livrementehomeopatia.backend.infra.security.LoggedUser;
-import br.com.livrementehomeopatia.backend.infra.mercadopago.dto.PaymentItemDTO;
-import br.com.livrementehomeopatia.backend.infra.mercadopago.dto.PreferenceRequestDTO;
-import br.com.livrementehomeopatia.backend.infra.mercadopago.dto.PreferenceResponseDTO;
+import br.com.livrementehomeopatia.backend.infra.mercadopago.dto.PaymentLinkStatusDTO;
 import br.com.livrementehomeopatia.backend.infra.mercadopago.service.MercadoPagoService;
+import br.com.livrementehomeopatia.backend.infra.mercadopago.service.PaymentLinkService;
 import br.com.livrementehomeopatia.backend.model.*;
 
 import lombok.RequiredArgsConstructor;
@@ -43,23 +48,39 @@ public class OrderService {
 
     private static final Logger log = LoggerFactory.getLogger(OrderService.class);
 
+    /**
+     * Maior quantidade de pedidos por página do histórico.
+     */
+    public static final int MAX_HISTORY_PAGE_SIZE = 50;
+
+    /**
+     * Maior quantidade de pedidos por página da busca do administrador.
+     */
+    public static final int MAX_ADMIN_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final NeighborhoodRepository neighborhoodRepository;
     private final ResaleOrderRepository resaleOrderRepository;
-    private final MercadoPagoService mercadoPagoService;
+    private final PaymentLinkService paymentLinkService;
+    private final MailService mailService;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderSearchRepository orderSearchRepository;
 
     /**
-     * DTO de Resposta para a criação de um pedido de revenda, contendo os detalhes do pedido e a URL de pagamento.
+     * DTO de Resposta para a criação de um pedido de revenda, contendo os detalhes do pedido e a URL de pagamento
+     * (nula enquanto o link ainda estiver sendo gerado).
      */
     public record ResaleOrderCreationResponse(OrderDTO orderDetails, String paymentUrl) {}
 
     /**
-     * Cria um novo pedido a partir do carrinho do usuário.
-     * Se for um pedido de revenda, ele delega a criação do pagamento ao MercadoPagoService
-     * e retorna um ResaleOrderCreationResponse. Caso contrário, retorna um OrderDTO padrão.
+     * Cria um novo pedido a partir do carrinho do usuário e registra o e-mail
+     * de notificação para a farmácia, enviado após o commit.
+     * Se for um pedido de revenda, registra a geração do link de pagamento, que
+     * acontece após o commit, fora desta transação, e retorna um
+     * ResaleOrderCreationResponse ainda sem a URL. Caso contrário, retorna um OrderDTO padrão.
      *
      * @param neighborhoodName O nome do bairro para entrega.
      * @return Um objeto contendo os dados do pedido (o tipo varia conforme a lógica).
@@ -82,37 +103,12 @@ public class OrderService {
 
         order = orderRepository.save(order);
         clearUserCart(cart);
+        mailService.sendOrderNotificationToPharmacy(order);
 
         if (order instanceof ResaleOrder) {
-            log.info("Pedido de revenda ID: {} criado. Gerando link de pagamento...", order.getId());
-            
-            var paymentItems = order.getItems().stream()
-                .map(item -> new PaymentItemDTO(
-                    item.getProduct().getName(), 
-                    item.getProduct().getDescription(), 
-                    item.getQuantity(), 
-                    BigDecimal.valueOf(item.getPrice())))
-                .collect(Collectors.toList());
-
-            // Adicionar o frete como um item separado
-            if (order.getDeliveryTax() > 0) {
-                paymentItems.add(new PaymentItemDTO(
-                    "Frete - " + order.getNeighborhood().getName(),
-                    "Taxa de entrega para " + order.getNeighborhood().getName(),
-                    1,
-                    BigDecimal.valueOf(order.getDeliveryTax())
-                ));
-            }
-
-            var preferenceRequest = new PreferenceRequestDTO(paymentItems, order.getId().toString());
-
-            try {
-                PreferenceResponseDTO paymentResponse = mercadoPagoService.createPaymentPreference(preferenceRequest);
-                return new ResaleOrderCreationResponse(convertToDTO(order), paymentResponse.initPoint());
-            } catch (Exception e) {
-                log.error("Falha crítica ao criar preferência de pagamento para o pedido {}. Revertendo transação.", order.getId(), e);
-                throw new RuntimeException("Não foi possível gerar o link de pagamento. Tente novamente.", e);
-            }
+            log.info("Pedido de revenda ID: {} criado. Link de pagamento será gerado após o commit.", order.getId());
+            paymentLinkService.enqueue(order.getId());
+            return new ResaleOrderCreationResponse(convertToDTO(order), null);
         }
 
         log.info("Pedido homeopático criado com sucesso. ID: {}", order.getId());
@@ -136,19 +132,140 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Pedido de revenda não encontrado"));
     }
 
+    /**
+     * Retorna a situação do link de pagamento de um pedido de revenda do usuário
+     * autenticado, para o cliente consultar enquanto o link é gerado.
+     *
+     * @param orderId ID do pedido de revenda
+     * @return situação e, quando pronta, a URL de pagamento
+     */
     @Transactional(readOnly = true)
-    public List<OrderDTO> getOrderHistoryForUser() {
+    public PaymentLinkStatusDTO getPaymentLinkStatus(Integer orderId) {
         User user = getAuthenticatedUser();
-        return orderRepository.findByUserId(user.getId()).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        ResaleOrder order = getResaleOrderById(orderId);
+        if (!order.getUser().getId().equals(user.getId())) {
+            throw new RuntimeException("Você não tem permissão para acessar este pedido");
+        }
+        return paymentLinkService.getStatus(order);
     }
 
+    /**
+     * Retorna o histórico completo do usuário autenticado, no mesmo formato
+     * do histórico paginado: sem fotos nem receitas embutidas, apenas URLs.
+     *
+     * @return todos os pedidos do usuário, do mais recente para o mais antigo
+     * @deprecated use {@link #getOrderHistoryPageForUser(String, int)}
+     */
+    @Deprecated
     @Transactional(readOnly = true)
-    public List<OrderDTO> getAllOrdersForAdmin() {
-        return orderRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<OrderHistoryDTO> getOrderHistoryForUser() {
+        List<OrderHistoryDTO> orders = orderRepository.findHistoryByUserId(getLoggedUserId(), Limit.unlimited());
+        fillHistoryDetails(orders);
+        return orders;
+    }
+
+    /**
+     * Retorna uma página do histórico de pedidos do usuário autenticado, do
+     * mais recente para o mais antigo, sem fotos nem receitas embutidas.
+     * <p>
+     * A paginação é por chave (data de criação, ID): o custo de cada página não
+     * depende de quantas já foram lidas. Os itens e os dados de cada tipo de
+     * pedido são buscados em uma consulta por página, não por pedido.
+     * </p>
+     *
+     * @param cursor cursor devolvido pela página anterior, ou null para a primeira
+     * @param size   quantidade de pedidos por página (1 a {@value #MAX_HISTORY_PAGE_SIZE})
+     * @return a página e o cursor da próxima
+     */
+    @Transactional(readOnly = true)
+    public OrderHistoryPageDTO getOrderHistoryPageForUser(String cursor, int size) {
+        Integer userId = getLoggedUserId();
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        OrderCursor after = OrderCursor.decode(cursor);
+
+        // Um pedido a mais indica se existe próxima página.
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderHistoryDTO> orders = after == null
+                ? orderRepository.findHistoryByUserId(userId, limit)
+                : orderRepository.findHistoryByUserIdBefore(userId, after.createdAt(), after.id(), limit);
+
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = new ArrayList<>(orders.subList(0, pageSize));
+            OrderHistoryDTO last = orders.get(pageSize - 1);
+            nextCursor = new OrderCursor(last.getOrderDate(), last.getId()).encode();
+        }
+
+        fillHistoryDetails(orders);
+        return new OrderHistoryPageDTO(orders, nextCursor);
+    }
+
+    /**
+     * Retorna a receita médica anexada a um pedido homeopático. Disponível
+     * para o dono do pedido e para administradores.
+     *
+     * @param orderId ID do pedido homeopático
+     * @return bytes do arquivo da receita
+     */
+    @Transactional(readOnly = true)
+    public byte[] getPrescription(Integer orderId) {
+        Integer ownerId = orderRepository.findUserIdById(orderId)
+                .orElseThrow(() -> new RuntimeException("Pedido não encontrado"));
+        if (!ownerId.equals(getLoggedUserId()) && !isLoggedUserAdmin()) {
+            throw new RuntimeException("Você não tem permissão para acessar este pedido");
+        }
+        return orderRepository.findPrescriptionById(orderId)
+                .orElseThrow(() -> new RuntimeException("Receita médica não encontrada"));
+    }
+
+    /**
+     * Busca pedidos para o administrador, com filtros e paginação por chave.
+     * <p>
+     * Cada página custa um número fixo de consultas, independente do seu
+     * tamanho nem da quantidade de clientes: pedidos com o nome do cliente e o
+     * bairro, itens com produtos, orçamentos dos
+     * pedidos homeopáticos (sem o arquivo da receita) e links de pagamento dos
+     * pedidos de revenda.
+     * </p>
+     *
+     * @param filter filtros e ordenação
+     * @param cursor cursor devolvido pela página anterior, ou null para a primeira
+     * @param size   quantidade de pedidos por página (1 a {@value #MAX_ADMIN_PAGE_SIZE})
+     * @return a página e o cursor da próxima
+     */
+    @Transactional(readOnly = true)
+    public AdminOrderPageDTO searchOrdersForAdmin(OrderSearchFilter filter, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_ADMIN_PAGE_SIZE));
+        OrderCursor after = OrderCursor.decode(cursor);
+
+        // Um pedido a mais indica se existe próxima página.
+        List<AdminOrderDTO> orders = orderSearchRepository.search(filter, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            AdminOrderDTO last = orders.get(pageSize - 1);
+            nextCursor = new OrderCursor(last.getOrderDate(), last.getId()).encode();
+        }
+
+        fillAdminDetails(orders);
+        return new AdminOrderPageDTO(orders, nextCursor);
+    }
+
+    /**
+     * Retorna todos os pedidos, do mais recente para o mais antigo, no mesmo
+     * formato da busca do administrador: sem fotos nem receitas embutidas.
+     *
+     * @return todos os pedidos do sistema
+     * @deprecated use {@link #searchOrdersForAdmin(OrderSearchFilter, String, int)}
+     */
+    @Deprecated
+    @Transactional(readOnly = true)
+    public List<AdminOrderDTO> getAllOrdersForAdmin() {
+        List<AdminOrderDTO> orders = orderSearchRepository.search(
+                new OrderSearchFilter(null, null, null, null, null, null, false), null, null);
+        fillAdminDetails(orders);
+        return orders;
     }
     
     @Transactional
@@ -192,6 +309,114 @@ public class OrderService {
 
     // --- MÉTODOS AUXILIARES PRIVADOS ---
 
+    private Integer getLoggedUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof LoggedUser loggedUser)) {
+            throw new RuntimeException("Usuário não autenticado");
+        }
+        return loggedUser.getId();
+    }
+
+    private boolean isLoggedUserAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    /**
+     * Preenche itens, orçamento, URL da receita e link de pagamento dos
+     * pedidos de uma página da busca, com uma consulta para cada informação.
+     */
+    private void fillAdminDetails(List<AdminOrderDTO> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = orders.stream().map(AdminOrderDTO::getId).toList();
+
+        Map<Integer, List<OrderHistoryItemDTO>> itemsByOrder = orderItemRepository.findHistoryItemsByOrderIds(ids)
+                .stream()
+                .collect(Collectors.groupingBy(OrderHistoryItemDTO::getOrderId));
+        Map<Integer, Object[]> quotes = new HashMap<>();
+        for (Object[] row : orderRepository.findQuoteSummariesByIds(ids)) {
+            quotes.put((Integer) row[0], row);
+        }
+        Map<Integer, String> checkoutLinks = new HashMap<>();
+        for (Object[] row : resaleOrderRepository.findCheckoutLinksByIds(ids)) {
+            checkoutLinks.put((Integer) row[0], (String) row[1]);
+        }
+
+        for (AdminOrderDTO order : orders) {
+            order.setItems(itemsByOrder.getOrDefault(order.getId(), List.of()));
+
+            Object[] quote = quotes.get(order.getId());
+            if (quote != null && quote[1] != null) {
+                order.setOrderQuote(quoteSummaryToDTO(quote));
+                if ((Boolean) quote[10]) {
+                    order.setPrescriptionUrl("/api/orders/" + order.getId() + "/prescription");
+                }
+            }
+            order.setCheckoutProLink(checkoutLinks.get(order.getId()));
+        }
+    }
+
+    /**
+     * Converte uma linha de {@link OrderRepository#findQuoteSummariesByIds} no DTO do orçamento.
+     */
+    private OrderQuoteDTO quoteSummaryToDTO(Object[] row) {
+        OrderQuoteDTO quoteDTO = new OrderQuoteDTO();
+        quoteDTO.setId((Integer) row[1]);
+        quoteDTO.setFullName((String) row[2]);
+        quoteDTO.setPhone((String) row[3]);
+        quoteDTO.setEmail((String) row[4]);
+        quoteDTO.setObservation((String) row[5]);
+        if (row[6] != null || row[7] != null) {
+            AddressDTO addressDTO = new AddressDTO();
+            addressDTO.setCep((String) row[6]);
+            addressDTO.setRua((String) row[7]);
+            addressDTO.setNumero((Integer) row[8]);
+            addressDTO.setComplemento((String) row[9]);
+            quoteDTO.setAddress(addressDTO);
+        }
+        return quoteDTO;
+    }
+
+    /**
+     * Preenche itens, tipo, URL da receita e link de pagamento dos pedidos de
+     * uma página, com uma consulta para cada informação.
+     */
+    private void fillHistoryDetails(List<OrderHistoryDTO> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = orders.stream().map(OrderHistoryDTO::getId).toList();
+
+        Map<Integer, List<OrderHistoryItemDTO>> itemsByOrder = orderItemRepository.findHistoryItemsByOrderIds(ids)
+                .stream()
+                .collect(Collectors.groupingBy(OrderHistoryItemDTO::getOrderId));
+        Map<Integer, Boolean> prescriptionFlags = new HashMap<>();
+        for (Object[] row : orderRepository.findPrescriptionFlagsByIds(ids)) {
+            prescriptionFlags.put((Integer) row[0], (Boolean) row[1]);
+        }
+        Map<Integer, String> checkoutLinks = new HashMap<>();
+        for (Object[] row : resaleOrderRepository.findCheckoutLinksByIds(ids)) {
+            checkoutLinks.put((Integer) row[0], (String) row[1]);
+        }
+
+        for (OrderHistoryDTO order : orders) {
+            order.setItems(itemsByOrder.getOrDefault(order.getId(), List.of()));
+            Boolean hasPrescription = prescriptionFlags.get(order.getId());
+            if (hasPrescription != null) {
+                order.setOrderType(ProductType.HOMEOPATICO);
+                if (hasPrescription) {
+                    order.setPrescriptionUrl("/api/orders/" + order.getId() + "/prescription");
+                }
+            } else {
+                order.setOrderType(ProductType.REVENDA);
+                order.setCheckoutProLink(checkoutLinks.get(order.getId()));
+            }
+        }
+    }
+
     private User getAuthenticatedUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !(auth.getPrincipal() instanceof LoggedUser)) {
@@ -216,7 +441,15 @@ public class OrderService {
         return cart;
     }
 
+    /**
+     * O tipo é mantido no próprio carrinho a cada alteração de itens, e a
+     * inclusão de um tipo diferente é recusada. Só carrinhos gravados antes
+     * dessa coluna, ainda sem tipo, são conferidos pelos itens.
+     */
     private void validateCartContents(Cart cart) {
+        if (cart.getProductType() != null) {
+            return;
+        }
         long distinctProductTypes = cart.getItems().stream()
                 .map(item -> item.getProduct().getType())
                 .distinct()
@@ -224,10 +457,11 @@ public class OrderService {
         if (distinctProductTypes > 1) {
             throw new RuntimeException("O carrinho não pode conter produtos homeopáticos e de revenda ao mesmo tempo");
         }
+        cart.setProductType(cart.getItems().get(0).getProduct().getType());
     }
 
     private ProductType determineCartProductType(Cart cart) {
-        return cart.getItems().get(0).getProduct().getType();
+        return cart.getProductType();
     }
 
     private Order createOrderBasedOnType(ProductType type) {
@@ -267,6 +501,7 @@ public class OrderService {
         cartItemRepository.deleteAll(cart.getItems());
         cart.getItems().clear();
         cart.setTotalValue(0.0);
+        cart.setProductType(null);
         cartRepository.save(cart);
     }
     
@@ -359,10 +594,8 @@ public class OrderService {
         dto.setProductName(item.getProduct().getName());
         dto.setQuantity(item.getQuantity());
         dto.setPrice(item.getPrice());
-        byte[] photoBytes = item.getProduct().getPhoto();
-        if (photoBytes != null && photoBytes.length > 0) {
-            dto.setProductImageBase64(Base64.getEncoder().encodeToString(photoBytes));
-        }
+        dto.setProductImageUrl(ProductImageUrls.of(item.getProduct().getId(), item.getProduct().getPhotoHash(),
+                ImageVariant.THUMBNAIL));
         return dto;
     }
     
@@ -5,6 +5,7 @@ import java.util.UUID;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.livrementehomeopatia.backend.model.PasswordResetToken;
 import br.com.livrementehomeopatia.backend.model.User;
@@ -28,10 +29,12 @@ public class PasswordResetService {
     /**
      * Inicia o processo de recuperação de senha.
      * Gera ou atualiza um token de redefinição de senha e envia um link por e-mail ao usuário.
+     * O e-mail é gravado na fila de saída na mesma transação do token e enviado após o commit.
      *
      * @param email o e-mail do usuário que deseja recuperar a senha
      * @throws IllegalArgumentException se o e-mail não estiver cadastrado (mensagem genérica)
      */
+    @Transactional
     public void requestPasswordRecovery(String email) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> 
@@ -55,7 +58,7 @@ public class PasswordResetService {
     
         // Envia o e-mail com o link de recuperação
         String link = "https://farmacialivremente.azurewebsites.net/redefinir-senha?token=" + token.getToken();
-mailService.sendPasswordResetEmail(user.getEmail(), "Recuperação de Senha", link);
+        mailService.sendPasswordResetEmail(user.getEmail(), "Recuperação de Senha", link);
     }
 
     /**
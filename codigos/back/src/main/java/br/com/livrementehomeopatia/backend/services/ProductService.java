@@ -2,14 +2,27 @@ package br.com.livrementehomeopatia.backend.services;
 
 import br.com.livrementehomeopatia.backend.enums.ProductType;
 import br.com.livrementehomeopatia.backend.dto.ProductDTO;
+import br.com.livrementehomeopatia.backend.dto.ProductImageDTO;
+import br.com.livrementehomeopatia.backend.dto.ProductSummaryDTO;
 import br.com.livrementehomeopatia.backend.enums.Categories;
+import br.com.livrementehomeopatia.backend.infra.catalog.CatalogSnapshot;
+import br.com.livrementehomeopatia.backend.infra.catalog.event.CatalogChangedEvent;
+import br.com.livrementehomeopatia.backend.infra.catalog.search.ProductSearchIndex;
+import br.com.livrementehomeopatia.backend.infra.catalog.service.CatalogSnapshotService;
 import br.com.livrementehomeopatia.backend.infra.exception.ExistingProductException;
 import br.com.livrementehomeopatia.backend.infra.exception.ProductNotFoundException;
+import br.com.livrementehomeopatia.backend.infra.image.service.ImageDerivativeService;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageMimeTypes;
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageStore;
+import br.com.livrementehomeopatia.backend.infra.image.store.StoredImage;
 import br.com.livrementehomeopatia.backend.model.Product;
 import br.com.livrementehomeopatia.backend.repository.ProductRepository;
 import jakarta.persistence.EntityNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,7 +33,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -37,6 +53,21 @@ public class ProductService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Cria um novo produto utilizando dados separados e uma imagem multipart.
      *
@@ -71,9 +102,11 @@ public class ProductService {
                 .collect(Collectors.toSet());
         product.setCategories(categoriesEnum);
 
-        product.setPhoto(image.getBytes());
+        storePhoto(product, image);
 
-        return repository.save(product);
+        Product saved = repository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(saved.getId()));
+        return saved;
     }
 
     /**
@@ -99,12 +132,14 @@ public class ProductService {
     public Product update(Integer id, String name, String description, Double price, Boolean available,
             String type, List<String> categories, MultipartFile image) throws IOException {
 
-        Product existingProduct = repository.findById(id)
+        Product existingProduct = repository.findWithCategoriesById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Produto não encontrado com ID: " + id));
 
         applyUpdates(existingProduct, name, description, price, available, type, categories, image);
 
-        return repository.save(existingProduct);
+        Product saved = repository.save(existingProduct);
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
+        return saved;
     }
 
     /**
@@ -157,10 +192,30 @@ public class ProductService {
         }
 
         if (image != null && !image.isEmpty()) {
-            product.setPhoto(image.getBytes());
+            storePhoto(product, image);
         }
     }
 
+    /**
+     * Grava a imagem no armazenamento de imagens e associa a referência ao
+     * produto. O tipo MIME é detectado uma única vez, aqui, e a geração das
+     * variantes redimensionadas é agendada em segundo plano.
+     *
+     * @param product produto que receberá a foto
+     * @param image   imagem enviada no upload
+     * @throws IOException se ocorrer erro ao gravar a imagem
+     */
+    private void storePhoto(Product product, MultipartFile image) throws IOException {
+        byte[] bytes = image.getBytes();
+        StoredImage stored = imageStore.put(bytes, ImageMimeTypes.detect(bytes, image.getContentType()));
+
+        product.setPhotoHash(stored.hash());
+        product.setPhotoSize(stored.size());
+        product.setPhotoMimeType(stored.mimeType());
+
+        imageDerivativeService.schedule(stored.hash());
+    }
+
     /**
      * Verifica se um produto já existe com base no nome informado.
      *
@@ -183,6 +238,7 @@ public class ProductService {
             throw new ProductNotFoundException("Produto com ID " + id + " não encontrado.");
         }
         repository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
     }
 
     /**
@@ -197,29 +253,95 @@ public class ProductService {
             throw new ProductNotFoundException("Produto com nome '" + name + "' não encontrado.");
         }
         repository.delete(obj.get());
+        eventPublisher.publishEvent(new CatalogChangedEvent(obj.get().getId()));
     }
 
     /**
-     * Retorna todos os produtos cadastrados.
+     * Retorna todos os produtos cadastrados, a partir do snapshot do catálogo
+     * em memória.
      *
-     * @return lista de produtos
+     * @return lista imutável de produtos, ordenada pelo nome
      */
-    public List<Product> findAll() {
-        return repository.findAll();
+    public List<ProductDTO> findAll() {
+        return catalogSnapshotService.current().products();
     }
 
     /**
-     * Retorna um produto pelo ID.
+     * Lista o catálogo de forma paginada, sem carregar as fotos.
+     * Sem ordenação ou ordenada pelo nome, a página vem do snapshot em memória;
+     * nos demais casos vem do banco, e as categorias da página são buscadas em
+     * uma única consulta adicional.
+     *
+     * @param type      filtro por tipo (opcional)
+     * @param category  filtro por categoria (opcional)
+     * @param available filtro por disponibilidade (opcional)
+     * @param pageable  paginação e ordenação
+     * @return página de resumos de produtos
+     */
+    public Page<ProductSummaryDTO> listCatalog(ProductType type, Categories category, Boolean available,
+            Pageable pageable) {
+        if (CatalogSnapshot.supports(pageable)) {
+            return catalogSnapshotService.current().page(type, category, available, pageable);
+        }
+
+        Page<ProductSummaryDTO> page = repository.findCatalog(type, category, available, pageable);
+
+        if (page.hasContent()) {
+            Map<Integer, Set<String>> categoriesById = new HashMap<>();
+            List<Integer> ids = page.getContent().stream().map(ProductSummaryDTO::getId).toList();
+            for (Object[] row : repository.findCategoriesByProductIds(ids)) {
+                categoriesById.computeIfAbsent((Integer) row[0], id -> new HashSet<>())
+                        .add(((Categories) row[1]).name());
+            }
+            page.forEach(product -> product.setCategories(categoriesById.getOrDefault(product.getId(), Set.of())));
+        }
+
+        return page;
+    }
+
+    /**
+     * Busca produtos pelo nome e pela descrição, ignorando acentos, maiúsculas
+     * e plurais e tolerando erros de digitação.
+     *
+     * @param query     texto da busca
+     * @param available filtro por disponibilidade (opcional)
+     * @param limit     número máximo de resultados
+     * @return produtos encontrados, do mais relevante para o menos relevante
+     */
+    public List<ProductSummaryDTO> search(String query, Boolean available, int limit) {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        int candidates = available == null ? limit : Math.max(limit, snapshot.size());
+
+        return productSearchIndex.search(query, candidates).stream()
+                .map(hit -> snapshot.findSummary(hit.productId()))
+                .flatMap(Optional::stream)
+                .filter(product -> available == null || product.isAvailable() == available)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Retorna um produto pelo ID, já com as categorias carregadas.
      *
      * @param id ID do produto
      * @return produto encontrado
      */
     public Product findById(Integer id) {
-        return repository.findById(id)
+        return repository.findWithCategoriesById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Produto com ID " + id + " não encontrado."));
     }
 
-   
+    /**
+     * Retorna a referência da foto de um produto, sem carregar a entidade nem
+     * os bytes da imagem.
+     *
+     * @param id ID do produto
+     * @return referência da foto, ou vazio se o produto não existir ou não tiver foto
+     */
+    public Optional<ProductImageDTO> findImage(Integer id) {
+        return repository.findImageById(id);
+    }
+
     public ProductDTO updateProduct(Integer id,
             String nome,
             String descricao,
@@ -229,7 +351,7 @@ public class ProductService {
             String categoriasJson,
             MultipartFile imagem) {
 
-        Optional<Product> optionalProduct = repository.findById(id);
+        Optional<Product> optionalProduct = repository.findWithCategoriesById(id);
         if (!optionalProduct.isPresent()) {
             throw new RuntimeException("Produto com ID " + id + " não encontrado.");
         }
@@ -258,13 +380,14 @@ public class ProductService {
 
         if (imagem != null && !imagem.isEmpty()) {
             try {
-                product.setPhoto(imagem.getBytes());
+                storePhoto(product, imagem);
             } catch (IOException e) {
                 throw new RuntimeException("Erro ao processar imagem: " + e.getMessage());
             }
         }
 
         Product atualizado = repository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(id));
         return new ProductDTO(atualizado);
     }
 }
@@ -2,10 +2,14 @@ package br.com.livrementehomeopatia.backend.services;
 
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.livrementehomeopatia.backend.dto.UserUpdateDTO;
+import br.com.livrementehomeopatia.backend.infra.security.event.PrincipalChangedEvent;
 import br.com.livrementehomeopatia.backend.model.User;
 import br.com.livrementehomeopatia.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -20,16 +24,26 @@ public class UserUpdateHelper {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Aplica atualizações nos dados de um usuário com base nas informações fornecidas.
      * Apenas campos não nulos e não em branco são atualizados. Também garante que o novo e-mail (se alterado) seja único.
+     * <p>
+     * Deve ser chamado dentro da transação que grava o usuário: a troca de e-mail
+     * publica um {@link PrincipalChangedEvent}, e o cache de autenticação só
+     * descarta o e-mail antigo depois que essa transação é confirmada. Fora de
+     * uma transação, a remoção aconteceria antes da gravação e uma requisição
+     * concorrente poderia guardar de novo o dado antigo.
+     * </p>
      *
      * @param user o usuário a ser atualizado
      * @param dto os novos dados do usuário encapsulados em um {@link UserUpdateDTO}
      * @throws RuntimeException se o e-mail informado já estiver em uso por outro usuário
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void applyUserUpdates(User user, UserUpdateDTO dto) {
+        String previousEmail = user.getEmail();
 
         if (dto.getFullName() != null && !dto.getFullName().isBlank()) {
             user.setFullName(dto.getFullName().trim());
@@ -56,5 +70,10 @@ public class UserUpdateHelper {
         if (dto.getPassword() != null && !dto.getPassword().isBlank()) {
             user.setPassword(passwordEncoder.encode(dto.getPassword().trim()));
         }
+
+        if (!previousEmail.equals(user.getEmail())) {
+            // O token atual foi emitido para o e-mail antigo e deixa de valer.
+            eventPublisher.publishEvent(new PrincipalChangedEvent(previousEmail));
+        }
     }
 }
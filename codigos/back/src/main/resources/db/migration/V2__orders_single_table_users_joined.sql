@@ -0,0 +1,165 @@
+-- Migração do mapeamento de herança de Order e User (PostgreSQL).
+--
+-- Antes: Order e User usavam TABLE_PER_CLASS. Toda busca polimórfica
+-- (orderRepository.findById, findByUserId, userRepository.findByEmail no
+-- SecurityFilter) virava um UNION ALL entre as tabelas das subclasses.
+--
+-- Depois:
+--   * Order usa SINGLE_TABLE: homeopathic_orders e resale_orders viram a
+--     tabela orders, com a coluna order_type (HOMEOPATICO / REVENDA).
+--   * User usa JOINED: os campos comuns de client, doctor e admin vão para a
+--     tabela users; cada subclasse fica só com o ID (e o CRM, no caso de doctor).
+--
+-- Nenhum ID muda, e as referências existentes (order_items.order_id,
+-- cart.user_id etc.) continuam válidas. As sequências order_seq e user_seq,
+-- já únicas entre as subclasses, passam a se chamar orders_seq e users_seq,
+-- nomes que o Hibernate deriva das novas tabelas raiz. Renomeá-las preserva o
+-- ponto em que pararam; sequências novas recomeçariam do 1 e repetiriam IDs.
+--
+-- O Flyway aplica esta migração na subida da aplicação, antes do Hibernate,
+-- dentro de uma transação: se qualquer conferência falhar, nada muda e a
+-- aplicação não sobe. Cada parte só roda se encontrar o esquema antigo, então
+-- bancos novos e bancos já migrados à mão passam direto.
+--
+-- Se a versão nova já tiver subido sobre o esquema antigo sem esta migração,
+-- o ddl-auto=update terá criado orders e users vazias ao lado das tabelas
+-- antigas. Vazias, elas são descartadas e recriadas aqui; com linhas, a
+-- migração falha, pois os dados gravados nelas precisam ser conciliados à mão.
+--
+-- As verificações olham só o esquema corrente (o primeiro do search_path).
+
+DO $$
+BEGIN
+    -- -----------------------------------------------------------------------
+    -- Pedidos: homeopathic_orders + resale_orders -> orders
+    -- -----------------------------------------------------------------------
+
+    IF to_regclass(format('%I.homeopathic_orders', current_schema())) IS NOT NULL THEN
+        IF to_regclass(format('%I.orders', current_schema())) IS NOT NULL THEN
+            IF EXISTS (SELECT 1 FROM orders) THEN
+                RAISE EXCEPTION 'orders já tem pedidos e homeopathic_orders ainda existe: concilie à mão';
+            END IF;
+            DROP TABLE orders CASCADE;
+        END IF;
+
+        CREATE TABLE orders (
+            order_type                 VARCHAR(20)      NOT NULL,
+            id                         INTEGER          NOT NULL PRIMARY KEY,
+            user_id                    INTEGER          NOT NULL,
+            neighborhood_id            INTEGER          NOT NULL,
+            total_value                DOUBLE PRECISION NOT NULL,
+            delivery_tax               DOUBLE PRECISION NOT NULL,
+            created_at                 TIMESTAMP(6)     NOT NULL,
+            status                     VARCHAR(255)     NOT NULL,
+            order_quote_id             INTEGER          UNIQUE,
+            checkout_pro_link          TEXT,
+            mercado_pago_preference_id VARCHAR(255),
+            mercado_pago_payment_id    BIGINT
+        );
+
+        INSERT INTO orders (order_type, id, user_id, neighborhood_id, total_value, delivery_tax, created_at,
+                            status, order_quote_id)
+        SELECT 'HOMEOPATICO', id, user_id, neighborhood_id, total_value, delivery_tax, created_at, status,
+               order_quote_id
+        FROM homeopathic_orders;
+
+        INSERT INTO orders (order_type, id, user_id, neighborhood_id, total_value, delivery_tax, created_at,
+                            status, checkout_pro_link, mercado_pago_preference_id, mercado_pago_payment_id)
+        SELECT 'REVENDA', id, user_id, neighborhood_id, total_value, delivery_tax, created_at, status,
+               checkout_pro_link, mercado_pago_preference_id, mercado_pago_payment_id
+        FROM resale_orders;
+
+        IF (SELECT COUNT(*) FROM orders) <>
+           (SELECT COUNT(*) FROM homeopathic_orders) + (SELECT COUNT(*) FROM resale_orders) THEN
+            RAISE EXCEPTION 'Contagem de pedidos divergente após a cópia';
+        END IF;
+
+        CREATE INDEX idx_orders_user_created ON orders (user_id, created_at);
+
+        ALTER TABLE orders ADD CONSTRAINT fk_orders_neighborhood
+            FOREIGN KEY (neighborhood_id) REFERENCES neighborhoods (id);
+        ALTER TABLE orders ADD CONSTRAINT fk_orders_order_quote
+            FOREIGN KEY (order_quote_id) REFERENCES order_quote (id);
+
+        -- Com TABLE_PER_CLASS não havia chave estrangeira para o pedido; agora há uma tabela só.
+        ALTER TABLE order_items ADD CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id);
+        ALTER TABLE order_quote ADD CONSTRAINT fk_order_quote_order FOREIGN KEY (order_id) REFERENCES orders (id);
+
+        DROP TABLE homeopathic_orders;
+        DROP TABLE resale_orders;
+
+        IF to_regclass(format('%I.order_seq', current_schema())) IS NOT NULL THEN
+            -- Uma orders_seq criada pelo ddl-auto recomeçou do 1 e não gerou nenhum pedido gravado.
+            EXECUTE format('DROP SEQUENCE IF EXISTS %I.orders_seq', current_schema());
+            ALTER SEQUENCE order_seq RENAME TO orders_seq;
+        END IF;
+
+        ANALYZE orders;
+    END IF;
+
+    -- -----------------------------------------------------------------------
+    -- Usuários: campos comuns de client, doctor e admin -> users
+    -- -----------------------------------------------------------------------
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'client' AND column_name = 'email') THEN
+        IF to_regclass(format('%I.users', current_schema())) IS NOT NULL THEN
+            IF EXISTS (SELECT 1 FROM users) THEN
+                RAISE EXCEPTION 'users já tem usuários e client ainda guarda os dados comuns: concilie à mão';
+            END IF;
+            DROP TABLE users CASCADE;
+        END IF;
+
+        CREATE TABLE users (
+            id           INTEGER      NOT NULL PRIMARY KEY,
+            full_name    VARCHAR(255) NOT NULL,
+            email        VARCHAR(255) NOT NULL UNIQUE,
+            password     VARCHAR(255) NOT NULL,
+            phone        VARCHAR(255) NOT NULL,
+            active       BOOLEAN      NOT NULL,
+            created_date DATE,
+            role         VARCHAR(255)
+        );
+
+        INSERT INTO users (id, full_name, email, password, phone, active, created_date, role)
+        SELECT id, full_name, email, password, phone, active, created_date, role FROM client
+        UNION ALL
+        SELECT id, full_name, email, password, phone, active, created_date, role FROM doctor
+        UNION ALL
+        SELECT id, full_name, email, password, phone, active, created_date, role FROM admin;
+
+        IF (SELECT COUNT(*) FROM users) <>
+           (SELECT COUNT(*) FROM client) + (SELECT COUNT(*) FROM doctor) + (SELECT COUNT(*) FROM admin) THEN
+            RAISE EXCEPTION 'Contagem de usuários divergente após a cópia';
+        END IF;
+
+        -- As restrições de unicidade de e-mail das subclasses saem junto com as colunas.
+        ALTER TABLE client DROP COLUMN full_name, DROP COLUMN email, DROP COLUMN password, DROP COLUMN phone,
+            DROP COLUMN active, DROP COLUMN created_date, DROP COLUMN role;
+        ALTER TABLE doctor DROP COLUMN full_name, DROP COLUMN email, DROP COLUMN password, DROP COLUMN phone,
+            DROP COLUMN active, DROP COLUMN created_date, DROP COLUMN role;
+        ALTER TABLE admin DROP COLUMN full_name, DROP COLUMN email, DROP COLUMN password, DROP COLUMN phone,
+            DROP COLUMN active, DROP COLUMN created_date, DROP COLUMN role;
+
+        IF to_regclass(format('%I.user_seq', current_schema())) IS NOT NULL THEN
+            EXECUTE format('DROP SEQUENCE IF EXISTS %I.users_seq', current_schema());
+            ALTER SEQUENCE user_seq RENAME TO users_seq;
+        END IF;
+
+        ALTER TABLE client ADD CONSTRAINT fk_client_users FOREIGN KEY (id) REFERENCES users (id);
+        ALTER TABLE doctor ADD CONSTRAINT fk_doctor_users FOREIGN KEY (id) REFERENCES users (id);
+        ALTER TABLE admin ADD CONSTRAINT fk_admin_users FOREIGN KEY (id) REFERENCES users (id);
+
+        -- Referências a usuários, antes sem chave estrangeira pelo mesmo motivo dos pedidos.
+        IF to_regclass(format('%I.orders', current_schema())) IS NOT NULL THEN
+            ALTER TABLE orders ADD CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id);
+        END IF;
+        ALTER TABLE cart ADD CONSTRAINT fk_cart_user FOREIGN KEY (user_id) REFERENCES users (id);
+        ALTER TABLE cart_item ADD CONSTRAINT fk_cart_item_user FOREIGN KEY (user_id) REFERENCES users (id);
+        ALTER TABLE order_quote ADD CONSTRAINT fk_order_quote_user FOREIGN KEY (user_id) REFERENCES users (id);
+        ALTER TABLE password_reset_token ADD CONSTRAINT fk_password_reset_token_user
+            FOREIGN KEY (user_id) REFERENCES users (id);
+
+        ANALYZE users;
+    END IF;
+END $$;
@@ -1,10 +1,10 @@
 package br.com.livrementehomeopatia.backend;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest(classes = BackendApplication.class)
-class BackendApplicationTests {
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+
+class BackendApplicationTests extends PostgresIntegrationTest {
 
      @Test
      void contextLoads() {
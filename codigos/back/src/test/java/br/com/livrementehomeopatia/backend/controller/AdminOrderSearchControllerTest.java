@@ -0,0 +1,153 @@
+package br.com.livrementehomeopatia.backend.controller;
+
+import static br.com.livrementehomeopatia.backend.support.Fixtures.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+import br.com.livrementehomeopatia.backend.enums.OrderStatus;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.admin.model.Admin;
+import br.com.livrementehomeopatia.backend.model.Client;
+import br.com.livrementehomeopatia.backend.model.Neighborhood;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.model.ResaleOrder;
+import br.com.livrementehomeopatia.backend.repository.NeighborhoodRepository;
+import br.com.livrementehomeopatia.backend.repository.OrderRepository;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+import br.com.livrementehomeopatia.backend.repository.UserRepository;
+import br.com.livrementehomeopatia.backend.support.Fixtures;
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+import br.com.livrementehomeopatia.backend.support.QueryCounter;
+
+/**
+ * Busca usada pelo painel de pedidos do administrador. O filtro por cliente
+ * isola os pedidos deste teste dos demais gravados no mesmo banco.
+ */
+@AutoConfigureMockMvc
+class AdminOrderSearchControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private NeighborhoodRepository neighborhoodRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Admin admin;
+    private Client client;
+    private Neighborhood neighborhood;
+    private Product product;
+    private ResaleOrder paidYesterday;
+    private ResaleOrder paidLastWeek;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        admin = Fixtures.admin(userRepository);
+        client = Fixtures.client(userRepository);
+        neighborhood = Fixtures.neighborhood(neighborhoodRepository);
+        product = Fixtures.product(productRepository, ProductType.REVENDA, 10.0);
+        now = LocalDateTime.now();
+
+        paidYesterday = Fixtures.resaleOrder(orderRepository, client, neighborhood, product, 1, now.minusDays(1),
+                OrderStatus.PAGO);
+        paidLastWeek = Fixtures.resaleOrder(orderRepository, client, neighborhood, product, 3, now.minusDays(7),
+                OrderStatus.PAGO);
+        Fixtures.resaleOrder(orderRepository, client, neighborhood, product, 2, now, OrderStatus.EM_ANDAMENTO);
+    }
+
+    @Test
+    void filtersByStatusAndPagesNewestFirst() throws Exception {
+        String firstPage = mockMvc.perform(get("/api/orders/admin/search")
+                        .param("status", "PAGO")
+                        .param("customer", client.getFullName())
+                        .param("size", "1")
+                        .with(as(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders", hasSize(1)))
+                .andExpect(jsonPath("$.orders[0].id").value(paidYesterday.getId()))
+                .andExpect(jsonPath("$.orders[0].fullName").value(client.getFullName()))
+                .andExpect(jsonPath("$.orders[0].items[0].quantity").value(1))
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+        mockMvc.perform(get("/api/orders/admin/search")
+                        .param("status", "PAGO")
+                        .param("customer", client.getFullName())
+                        .param("size", "1")
+                        .param("cursor", cursor)
+                        .with(as(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders", hasSize(1)))
+                .andExpect(jsonPath("$.orders[0].id").value(paidLastWeek.getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void filtersByPeriodAndSortsOldestFirst() throws Exception {
+        mockMvc.perform(get("/api/orders/admin/search")
+                        .param("customer", client.getFullName())
+                        .param("from", now.minusDays(2).toLocalDate().toString())
+                        .param("sort", "oldest")
+                        .with(as(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders", hasSize(2)))
+                .andExpect(jsonPath("$.orders[0].id").value(paidYesterday.getId()))
+                .andExpect(jsonPath("$.orders[1].status").value("EM_ANDAMENTO"));
+    }
+
+    @Test
+    void pageCostDoesNotGrowWithTheNumberOfCustomers() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Fixtures.resaleOrder(orderRepository, Fixtures.client(userRepository), neighborhood, product, 1,
+                    now.minusHours(i), OrderStatus.PAGO);
+        }
+
+        // O bairro é exclusivo deste teste: a página traz os 8 pedidos, de 6 clientes.
+        List<String> statements = QueryCounter.record(() -> mockMvc.perform(get("/api/orders/admin/search")
+                        .param("neighborhoodId", neighborhood.getId().toString())
+                        .with(as(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders", hasSize(8))));
+
+        // Pedidos com cliente e bairro, itens, orçamentos e links de pagamento.
+        assertThat(statements).hasSize(4);
+    }
+
+    @Test
+    void deprecatedAllOrdersPointsToTheSearch() throws Exception {
+        mockMvc.perform(get("/api/orders/allOrders").with(as(admin)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Deprecation", "true"))
+                .andExpect(header().string("Link", "</api/orders/admin/search>; rel=\"successor-version\""));
+    }
+
+    @Test
+    void rejectsCustomers() throws Exception {
+        mockMvc.perform(get("/api/orders/admin/search").with(as(client)))
+                .andExpect(status().isForbidden());
+    }
+}
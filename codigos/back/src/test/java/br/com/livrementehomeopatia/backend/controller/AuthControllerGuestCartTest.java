@@ -0,0 +1,154 @@
+package br.com.livrementehomeopatia.backend.controller;
+
+import static br.com.livrementehomeopatia.backend.support.Fixtures.as;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.cart.GuestCartCodec;
+import br.com.livrementehomeopatia.backend.infra.catalog.event.CatalogChangedEvent;
+import br.com.livrementehomeopatia.backend.model.Client;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+import br.com.livrementehomeopatia.backend.repository.UserRepository;
+import br.com.livrementehomeopatia.backend.support.Fixtures;
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+
+/**
+ * Incorporação do carrinho de visitante ({@code X-Guest-Cart}) ao carrinho
+ * persistente no cadastro e no login.
+ */
+@AutoConfigureMockMvc
+class AuthControllerGuestCartTest extends PostgresIntegrationTest {
+
+    private static final String PASSWORD = "senha-do-teste";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private GuestCartCodec guestCartCodec;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private Product cream;
+    private Product soap;
+    private Product tincture;
+
+    @BeforeEach
+    void setUp() {
+        cream = Fixtures.product(productRepository, ProductType.REVENDA, 12.5);
+        soap = Fixtures.product(productRepository, ProductType.REVENDA, 8.0);
+        tincture = Fixtures.product(productRepository, ProductType.HOMEOPATICO, 30.0);
+        eventPublisher.publishEvent(new CatalogChangedEvent(null));
+    }
+
+    @Test
+    void registrationKeepsTheVisitorCart() throws Exception {
+        String token = guestAdd(null, cream);
+        token = guestAdd(token, cream);
+        token = guestAdd(token, soap);
+
+        String email = "visitante-" + UUID.randomUUID().toString().substring(0, 8) + "@teste.com";
+        mockMvc.perform(post("/api/auth/register/client")
+                        .header(GuestCartCodec.HEADER, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"fullName": "Visitante", "email": "%s", "password": "%s", "phone": "11999999999"}
+                                """.formatted(email, PASSWORD)))
+                .andExpect(status().isOk());
+
+        Client client = (Client) userRepository.findByEmail(email).orElseThrow();
+        mockMvc.perform(get("/api/cart/items").with(as(client)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[?(@.productId == %d)].quantity".formatted(cream.getId())).value(2))
+                .andExpect(jsonPath("$[?(@.productId == %d)].quantity".formatted(soap.getId())).value(1));
+    }
+
+    @Test
+    void loginAddsToTheExistingCartAndSkipsOtherTypes() throws Exception {
+        Client client = clientWithPassword();
+        mockMvc.perform(post("/api/cart/add").param("productId", cream.getId().toString()).with(as(client)))
+                .andExpect(status().isOk());
+
+        Map<Integer, Integer> lines = new LinkedHashMap<>();
+        lines.put(cream.getId(), 2);
+        lines.put(tincture.getId(), 1);
+        login(client, guestCartCodec.encode(lines));
+
+        // O carrinho já era de revenda: o produto homeopático do visitante fica de fora.
+        mockMvc.perform(get("/api/cart/items").with(as(client)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].productId").value(cream.getId()))
+                .andExpect(jsonPath("$[0].quantity").value(3));
+    }
+
+    @Test
+    void invalidTokenDoesNotBlockTheLogin() throws Exception {
+        Client client = clientWithPassword();
+
+        login(client, "token.adulterado");
+
+        mockMvc.perform(get("/api/cart/items").with(as(client)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    private String guestAdd(String token, Product product) throws Exception {
+        var request = post("/api/guest-cart/add").param("productId", product.getId().toString());
+        if (token != null) {
+            request.header(GuestCartCodec.HEADER, token);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.token");
+    }
+
+    private void login(Client client, String guestToken) throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                        .header(GuestCartCodec.HEADER, guestToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email": "%s", "password": "%s"}
+                                """.formatted(client.getEmail(), PASSWORD)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+
+    private Client clientWithPassword() {
+        Client client = Fixtures.client(userRepository);
+        client.setPassword(passwordEncoder.encode(PASSWORD));
+        return userRepository.save(client);
+    }
+}
@@ -0,0 +1,180 @@
+package br.com.livrementehomeopatia.backend.controller;
+
+import static br.com.livrementehomeopatia.backend.support.Fixtures.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.jayway.jsonpath.JsonPath;
+
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.model.Client;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+import br.com.livrementehomeopatia.backend.repository.UserRepository;
+import br.com.livrementehomeopatia.backend.services.CartService;
+import br.com.livrementehomeopatia.backend.support.Fixtures;
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+
+@AutoConfigureMockMvc
+class CartControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Client client;
+    private Product product;
+    private Product soap;
+    private Product tincture;
+
+    @BeforeEach
+    void setUp() {
+        client = Fixtures.client(userRepository);
+        product = Fixtures.product(productRepository, ProductType.REVENDA, 12.5);
+        soap = Fixtures.product(productRepository, ProductType.REVENDA, 8.0);
+        tincture = Fixtures.product(productRepository, ProductType.HOMEOPATICO, 30.0);
+    }
+
+    @Test
+    void listsCartItems() throws Exception {
+        mockMvc.perform(post("/api/cart/add").param("productId", product.getId().toString()).with(as(client)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/cart/add").param("productId", product.getId().toString()).with(as(client)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/cart/items").with(as(client)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].productId").value(product.getId()))
+                .andExpect(jsonPath("$[0].quantity").value(2))
+                .andExpect(jsonPath("$[0].productPrice").value(12.5));
+    }
+
+    @Test
+    void listsAnEmptyCart() throws Exception {
+        mockMvc.perform(get("/api/cart/items").with(as(client)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void requiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/cart/items")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void batchUpdateSetsQuantitiesAndReturnsTheSummary() throws Exception {
+        add(product);
+
+        updateLines("""
+                [{"productId": %d, "targetQuantity": 3}, {"productId": %d, "targetQuantity": 2}]
+                """.formatted(product.getId(), soap.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.itemCount").value(5))
+                .andExpect(jsonPath("$.totalValue").value(53.5))
+                .andExpect(jsonPath("$.items[?(@.productId == %d)].quantity".formatted(product.getId())).value(3))
+                .andExpect(jsonPath("$.items[?(@.productId == %d)].quantity".formatted(soap.getId())).value(2));
+
+        mockMvc.perform(get("/api/cart/items").with(as(client)))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[?(@.productId == %d)].quantity".formatted(product.getId())).value(3));
+    }
+
+    @Test
+    void zeroQuantityRemovesTheLine() throws Exception {
+        add(product);
+        long version = versionOf(add(soap));
+
+        String body = updateLines("""
+                [{"productId": %d, "targetQuantity": 0}]
+                """.formatted(product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].productId").value(soap.getId()))
+                .andExpect(jsonPath("$.itemCount").value(1))
+                .andExpect(jsonPath("$.totalValue").value(8.0))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(versionOf(body)).isGreaterThan(version);
+    }
+
+    @Test
+    void mixedTypesRejectTheWholeBatch() throws Exception {
+        add(product);
+
+        updateLines("""
+                [{"productId": %d, "targetQuantity": 2}, {"productId": %d, "targetQuantity": 1}]
+                """.formatted(soap.getId(), tincture.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(CartService.MIXED_TYPES_MESSAGE));
+
+        mockMvc.perform(get("/api/cart/items").with(as(client)))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].productId").value(product.getId()))
+                .andExpect(jsonPath("$[0].quantity").value(1));
+
+        // Removendo o produto de revenda no mesmo lote, o carrinho passa a ser homeopático.
+        updateLines("""
+                [{"productId": %d, "targetQuantity": 0}, {"productId": %d, "targetQuantity": 1}]
+                """.formatted(product.getId(), tincture.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].productId").value(tincture.getId()))
+                .andExpect(jsonPath("$.totalValue").value(30.0));
+    }
+
+    @Test
+    void rejectsMoreThanOneHundredLines() throws Exception {
+        add(product);
+        String lines = IntStream.rangeClosed(1, 101)
+                .mapToObj(quantity -> "{\"productId\": %d, \"targetQuantity\": %d}".formatted(product.getId(), quantity))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        updateLines(lines)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Máximo de 100 alterações por requisição"));
+
+        mockMvc.perform(get("/api/cart/items").with(as(client)))
+                .andExpect(jsonPath("$[0].quantity").value(1));
+    }
+
+    private String add(Product productToAdd) throws Exception {
+        return mockMvc.perform(post("/api/cart/add").param("productId", productToAdd.getId().toString())
+                        .with(as(client)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private ResultActions updateLines(String json) throws Exception {
+        return mockMvc.perform(put("/api/cart/items")
+                .with(as(client))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json));
+    }
+
+    private static long versionOf(String summary) {
+        return ((Number) JsonPath.read(summary, "$.version")).longValue();
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.livrementehomeopatia.backend.controller;
+
+import static br.com.livrementehomeopatia.backend.support.Fixtures.as;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+import br.com.livrementehomeopatia.backend.enums.OrderStatus;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.model.Client;
+import br.com.livrementehomeopatia.backend.model.HomeophaticOrder;
+import br.com.livrementehomeopatia.backend.model.Neighborhood;
+import br.com.livrementehomeopatia.backend.model.OrderQuote;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.model.ResaleOrder;
+import br.com.livrementehomeopatia.backend.repository.NeighborhoodRepository;
+import br.com.livrementehomeopatia.backend.repository.OrderRepository;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+import br.com.livrementehomeopatia.backend.repository.UserRepository;
+import br.com.livrementehomeopatia.backend.support.Fixtures;
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+
+@AutoConfigureMockMvc
+class OrderHistoryControllerTest extends PostgresIntegrationTest {
+
+    private static final byte[] PRESCRIPTION = "receita-do-paciente".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private NeighborhoodRepository neighborhoodRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Client client;
+    private HomeophaticOrder homeopathicOrder;
+    private ResaleOrder resaleOrder;
+
+    @BeforeEach
+    void setUp() {
+        client = Fixtures.client(userRepository);
+        Neighborhood neighborhood = Fixtures.neighborhood(neighborhoodRepository);
+        Product product = Fixtures.product(productRepository, ProductType.REVENDA, 10.0);
+        LocalDateTime now = LocalDateTime.now();
+
+        resaleOrder = Fixtures.resaleOrder(orderRepository, client, neighborhood, product, 2, now.minusDays(1),
+                OrderStatus.PAGO);
+
+        OrderQuote quote = new OrderQuote();
+        quote.setUser(client);
+        quote.setFullName(client.getFullName());
+        quote.setPhone("11999999999");
+        quote.setEmail(client.getEmail());
+        quote.setMedicalPrescription(PRESCRIPTION);
+        homeopathicOrder = new HomeophaticOrder(client, neighborhood, 5.0, now, OrderStatus.EM_ANDAMENTO, quote);
+        homeopathicOrder = orderRepository.save(homeopathicOrder);
+    }
+
+    @Test
+    void pagesHistoryWithoutEmbeddedPrescription() throws Exception {
+        String firstPage = mockMvc.perform(get("/api/orders/myOrders/page").param("size", "1").with(as(client)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders", hasSize(1)))
+                .andExpect(jsonPath("$.orders[0].id").value(homeopathicOrder.getId()))
+                .andExpect(jsonPath("$.orders[0].prescriptionUrl")
+                        .value("/api/orders/" + homeopathicOrder.getId() + "/prescription"))
+                .andExpect(content().string(not(containsString(Base64.getEncoder().encodeToString(PRESCRIPTION)))))
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+        mockMvc.perform(get("/api/orders/myOrders/page").param("size", "1").param("cursor", cursor).with(as(client)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders", hasSize(1)))
+                .andExpect(jsonPath("$.orders[0].id").value(resaleOrder.getId()))
+                .andExpect(jsonPath("$.orders[0].items[0].quantity").value(2))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void deprecatedFullHistoryNoLongerEmbedsPrescription() throws Exception {
+        mockMvc.perform(get("/api/orders/myOrders").with(as(client)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Deprecation", "true"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(homeopathicOrder.getId()))
+                .andExpect(jsonPath("$[0].orderQuote").doesNotExist())
+                .andExpect(jsonPath("$[0].prescriptionUrl").exists())
+                .andExpect(jsonPath("$[1].id").value(resaleOrder.getId()))
+                .andExpect(content().string(not(containsString(Base64.getEncoder().encodeToString(PRESCRIPTION)))));
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.livrementehomeopatia.backend.infra.cart;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+class GuestCartCodecTest {
+
+    private static final String SECRET = "segredo-dos-testes";
+
+    private final GuestCartCodec codec = new GuestCartCodec(SECRET, Duration.ofDays(30));
+
+    @Test
+    void roundTripKeepsInsertionOrder() {
+        Map<Integer, Integer> lines = new LinkedHashMap<>();
+        lines.put(7, 2);
+        lines.put(3, 1);
+
+        Map<Integer, Integer> decoded = codec.decode(codec.encode(lines));
+
+        assertThat(decoded).containsExactly(Map.entry(7, 2), Map.entry(3, 1));
+    }
+
+    @Test
+    void tamperedDataIsAnEmptyCart() {
+        String token = codec.encode(Map.of(7, 2));
+        String forgedData = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("v1;" + Instant.now().getEpochSecond() + ";7:99").getBytes(StandardCharsets.UTF_8));
+
+        assertThat(codec.decode(forgedData + token.substring(token.indexOf('.')))).isEmpty();
+    }
+
+    @Test
+    void tokenSignedWithAnotherSecretIsAnEmptyCart() {
+        String token = new GuestCartCodec("outro-segredo", Duration.ofDays(30)).encode(Map.of(7, 2));
+
+        assertThat(codec.decode(token)).isEmpty();
+    }
+
+    @Test
+    void malformedTokensAreEmptyCarts() {
+        assertThat(codec.decode(null)).isEmpty();
+        assertThat(codec.decode("")).isEmpty();
+        assertThat(codec.decode("sem-separador")).isEmpty();
+        assertThat(codec.decode("não é base64.???")).isEmpty();
+        assertThat(codec.decode(signed("v2;" + Instant.now().getEpochSecond() + ";7:1"))).isEmpty();
+        assertThat(codec.decode(signed("v1;" + Instant.now().getEpochSecond() + ";7:x"))).isEmpty();
+    }
+
+    @Test
+    void expiredTokenIsAnEmptyCart() {
+        long issuedAt = Instant.now().minus(Duration.ofDays(31)).getEpochSecond();
+
+        assertThat(codec.decode(signed("v1;" + issuedAt + ";7:2"))).isEmpty();
+        assertThat(codec.decode(signed("v1;" + (issuedAt + Duration.ofDays(2).toSeconds()) + ";7:2")))
+                .containsEntry(7, 2);
+    }
+
+    @Test
+    void capsLinesAndQuantities() {
+        String items = IntStream.rangeClosed(1, GuestCartCodec.MAX_LINES + 10)
+                .mapToObj(productId -> productId + ":" + (productId == 1 ? 500 : 1))
+                .collect(Collectors.joining(","));
+
+        Map<Integer, Integer> decoded = codec.decode(signed("v1;" + Instant.now().getEpochSecond() + ";" + items));
+
+        assertThat(decoded).hasSize(GuestCartCodec.MAX_LINES);
+        assertThat(decoded).containsEntry(1, GuestCartCodec.MAX_QUANTITY);
+        assertThat(decoded).doesNotContainKey(GuestCartCodec.MAX_LINES + 1);
+    }
+
+    @Test
+    void dropsLinesWithoutQuantity() {
+        Map<Integer, Integer> decoded = codec.decode(signed("v1;" + Instant.now().getEpochSecond() + ";7:0,8:-3,9:1"));
+
+        assertThat(decoded).containsExactly(Map.entry(9, 1));
+    }
+
+    /**
+     * Assina dados arbitrários com a mesma chave do codec, para montar tokens
+     * válidos que o {@link GuestCartCodec#encode} não produziria.
+     */
+    private static String signed(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(("guest-cart:" + SECRET).getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] data = payload.getBytes(StandardCharsets.UTF_8);
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            return encoder.encodeToString(data) + "." + encoder.encodeToString(mac.doFinal(data));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
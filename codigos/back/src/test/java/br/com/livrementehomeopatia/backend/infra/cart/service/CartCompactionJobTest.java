@@ -0,0 +1,135 @@
+package br.com.livrementehomeopatia.backend.infra.cart.service;
+
+import static br.com.livrementehomeopatia.backend.support.Fixtures.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.model.Client;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+import br.com.livrementehomeopatia.backend.repository.UserRepository;
+import br.com.livrementehomeopatia.backend.support.Fixtures;
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Compactação dos carrinhos. O banco é compartilhado com os outros testes,
+ * então as quantidades devolvidas podem incluir carrinhos deles; as
+ * verificações olham os carrinhos criados aqui e a coerência com as métricas.
+ */
+@AutoConfigureMockMvc
+class CartCompactionJobTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CartCompactionJob job;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Client client;
+    private Product cream;
+    private Product soap;
+
+    @BeforeEach
+    void setUp() {
+        client = Fixtures.client(userRepository);
+        cream = Fixtures.product(productRepository, ProductType.REVENDA, 12.5);
+        soap = Fixtures.product(productRepository, ProductType.REVENDA, 8.0);
+    }
+
+    @Test
+    void removesUnavailableLinesAndRecalculatesTheCarts() throws Exception {
+        add(client, cream);
+        add(client, cream);
+        add(client, soap);
+        Client soapOnly = Fixtures.client(userRepository);
+        add(soapOnly, soap);
+        long versionBefore = ((Number) cart(client).get("version")).longValue();
+        double linesBefore = counter("cart.compaction.lines", "reason", "unavailable");
+        double recalculatedBefore = counter("cart.compaction.carts", "action", "recalculated");
+
+        soap.setAvailable(false);
+        productRepository.save(soap);
+        int removed = job.removeUnavailableLines();
+
+        assertThat(removed).isGreaterThanOrEqualTo(2);
+        assertThat(lineCount(client)).isEqualTo(1);
+        Map<String, Object> cart = cart(client);
+        assertThat(((Number) cart.get("total_value")).doubleValue()).isEqualTo(25.0);
+        assertThat(cart.get("product_type")).isEqualTo(ProductType.REVENDA.name());
+        assertThat(((Number) cart.get("version")).longValue()).isGreaterThan(versionBefore);
+
+        Map<String, Object> emptied = cart(soapOnly);
+        assertThat(((Number) emptied.get("total_value")).doubleValue()).isZero();
+        assertThat(emptied.get("product_type")).isNull();
+
+        assertThat(counter("cart.compaction.lines", "reason", "unavailable") - linesBefore).isEqualTo(removed);
+        assertThat(counter("cart.compaction.carts", "action", "recalculated") - recalculatedBefore)
+                .isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void removesOnlyIdleCartsWithTheirLines() throws Exception {
+        add(client, cream);
+        add(client, soap);
+        Client active = Fixtures.client(userRepository);
+        add(active, cream);
+        jdbcTemplate.update("UPDATE cart SET updated_at = now() - interval '100 days' WHERE user_id = ?",
+                client.getId());
+        double cartsBefore = counter("cart.compaction.carts", "action", "removed");
+        double linesBefore = counter("cart.compaction.lines", "reason", "idle");
+
+        int removed = job.removeIdleCarts();
+
+        assertThat(removed).isGreaterThanOrEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart WHERE user_id = ?", Integer.class,
+                client.getId())).isZero();
+        assertThat(lineCount(client)).isZero();
+        assertThat(lineCount(active)).isEqualTo(1);
+
+        assertThat(counter("cart.compaction.carts", "action", "removed") - cartsBefore).isEqualTo(removed);
+        assertThat(counter("cart.compaction.lines", "reason", "idle") - linesBefore).isGreaterThanOrEqualTo(2);
+    }
+
+    private void add(Client owner, Product product) throws Exception {
+        mockMvc.perform(post("/api/cart/add").param("productId", product.getId().toString()).with(as(owner)))
+                .andExpect(status().isOk());
+    }
+
+    private Map<String, Object> cart(Client owner) {
+        return jdbcTemplate.queryForMap("SELECT total_value, product_type, version FROM cart WHERE user_id = ?",
+                owner.getId());
+    }
+
+    private int lineCount(Client owner) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_item ci JOIN cart c ON c.id = ci.cart_id "
+                + "WHERE c.user_id = ?", Integer.class, owner.getId());
+    }
+
+    private double counter(String name, String tagKey, String tagValue) {
+        return meterRegistry.counter(name, tagKey, tagValue).count();
+    }
+}
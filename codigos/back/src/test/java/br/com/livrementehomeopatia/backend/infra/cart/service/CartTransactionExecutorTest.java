@@ -0,0 +1,107 @@
+package br.com.livrementehomeopatia.backend.infra.cart.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class CartTransactionExecutorTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final CartTransactionExecutor executor = new CartTransactionExecutor(transactionManager, 3);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void retriesConflictsUpToTheLimit() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        assertThatThrownBy(() -> executor.run(this::conflict)).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void returnsOnceAConflictIsResolved() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        String result = executor.execute(() -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new OptimisticLockingFailureException("conflito");
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void retriesDuplicateKeys() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        assertThatThrownBy(() -> executor.run(() -> {
+            calls.incrementAndGet();
+            throw new DuplicateKeyException("chave duplicada");
+        })).isInstanceOf(DuplicateKeyException.class);
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void retriesUniqueViolationsReportedThroughJpa() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        String result = executor.execute(() -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new DataIntegrityViolationException("carrinho criado por outra requisição",
+                        new SQLException("duplicate key value violates unique constraint", "23505"));
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void otherIntegrityViolationsFailImmediately() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        assertThatThrownBy(() -> executor.run(() -> {
+            calls.incrementAndGet();
+            throw new DataIntegrityViolationException("produto inexistente",
+                    new SQLException("violates foreign key constraint", "23503"));
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void doesNotRetryInsideAnOuterTransaction() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus(false));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThatThrownBy(() -> executor.run(this::conflict)).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    private void conflict() {
+        calls.incrementAndGet();
+        throw new OptimisticLockingFailureException("conflito");
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.livrementehomeopatia.backend.infra.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.livrementehomeopatia.backend.enums.Categories;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.catalog.event.CatalogChangedEvent;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+import br.com.livrementehomeopatia.backend.support.QueryCounter;
+
+/**
+ * Fixa o número de comandos SQL de cada leitura do catálogo, com 300 produtos
+ * de duas categorias cada. Um N+1 nas categorias apareceria aqui como
+ * centenas de comandos.
+ */
+@AutoConfigureMockMvc
+class CatalogQueryCountTest extends PostgresIntegrationTest {
+
+    private static final int PRODUCTS = 300;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Integer anyProductId;
+
+    @BeforeEach
+    void seedCatalog() {
+        if (productRepository.findByName("Produto de teste 1").isEmpty()) {
+            List<Product> products = new ArrayList<>();
+            Categories[] categories = Categories.values();
+            for (int i = 1; i <= PRODUCTS; i++) {
+                products.add(new Product(null, "Produto de teste " + i, "Arnica e calêndula, lote " + i,
+                        10.0 + i, i % 5 != 0, i % 2 == 0 ? ProductType.REVENDA : ProductType.HOMEOPATICO,
+                        EnumSet.of(categories[i % categories.length], categories[(i + 1) % categories.length])));
+            }
+            productRepository.saveAll(products);
+            eventPublisher.publishEvent(new CatalogChangedEvent(null));
+        }
+        anyProductId = productRepository.findByName("Produto de teste 1").orElseThrow().getId();
+    }
+
+    @Test
+    void snapshotReloadIsASingleStatement() throws Exception {
+        List<String> statements = QueryCounter.record(
+                () -> eventPublisher.publishEvent(new CatalogChangedEvent(anyProductId)));
+
+        // Uma consulta do snapshot (entity graph) e uma do índice de busca para o produto alterado.
+        assertThat(statements).hasSize(2);
+    }
+
+    @Test
+    void productListIsServedFromMemory() throws Exception {
+        mockMvc.perform(get("/api/product")).andExpect(status().isOk());
+
+        assertThat(QueryCounter.record(() -> mockMvc.perform(get("/api/product")).andExpect(status().isOk())))
+                .isEmpty();
+    }
+
+    @Test
+    void catalogPageFromSnapshotIssuesNoStatements() throws Exception {
+        mockMvc.perform(get("/api/product/catalog")).andExpect(status().isOk());
+
+        assertThat(QueryCounter.record(() -> mockMvc.perform(get("/api/product/catalog?category=ARNICA&page=2"))
+                .andExpect(status().isOk()))).isEmpty();
+    }
+
+    @Test
+    void catalogPageFromDatabaseLoadsCategoriesInOneStatement() throws Exception {
+        List<String> statements = QueryCounter.record(() -> mockMvc.perform(get("/api/product/catalog?sort=price,desc"))
+                .andExpect(status().isOk()));
+
+        // Página, contagem e as categorias de todos os produtos da página.
+        assertThat(statements).hasSize(3);
+    }
+
+    @Test
+    void singleProductLoadsCategoriesWithTheProduct() throws Exception {
+        List<String> statements = QueryCounter.record(() -> mockMvc.perform(get("/api/product/" + anyProductId))
+                .andExpect(status().isOk()));
+
+        assertThat(statements).hasSize(1);
+    }
+
+    @Test
+    void searchIsServedFromMemory() throws Exception {
+        mockMvc.perform(get("/api/product/search?q=arnica")).andExpect(status().isOk());
+
+        assertThat(QueryCounter.record(() -> mockMvc.perform(get("/api/product/search?q=calendula&limit=50"))
+                .andExpect(status().isOk()))).isEmpty();
+    }
+
+    @Test
+    void walkingCategoriesOfAProductListIsBatched() throws Exception {
+        List<String> statements = QueryCounter.record(() -> transactionTemplate.executeWithoutResult(status ->
+                productRepository.findAll().forEach(product -> product.getCategories().size())));
+
+        // Uma consulta dos produtos e uma por lote de até 100 coleções de categorias.
+        int products = (int) productRepository.count();
+        assertThat(statements).hasSize(1 + (products + 99) / 100);
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.livrementehomeopatia.backend.infra.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class PreparedJsonResponseTest {
+
+    private final PreparedJsonResponse prepared = PreparedJsonResponse.of(new ObjectMapper(), List.of("a", "b"), 7);
+
+    @Test
+    void gzipAndIdentityVariantsHaveDistinctEtags() {
+        ResponseEntity<byte[]> identity = prepared.toResponse(request(null, null));
+        ResponseEntity<byte[]> gzip = prepared.toResponse(request("gzip, deflate", null));
+
+        assertThat(identity.getHeaders().getETag()).isEqualTo("\"7\"");
+        assertThat(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(gzip.getHeaders().getETag()).isEqualTo("\"7-gzip\"");
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void notModifiedOnlyForTheSameEncoding() {
+        assertThat(prepared.toResponse(request("gzip", "\"7-gzip\"")).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(prepared.toResponse(request(null, "\"7\"")).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        assertThat(prepared.toResponse(request(null, "\"7-gzip\"")).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(prepared.toResponse(request("gzip", "\"7\"")).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void gzipWithZeroQualityIsNotUsed() {
+        ResponseEntity<byte[]> response = prepared.toResponse(request("gzip;q=0", null));
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(new String(response.getBody())).isEqualTo("[\"a\",\"b\"]");
+    }
+
+    private static ServletWebRequest request(String acceptEncoding, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/product");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
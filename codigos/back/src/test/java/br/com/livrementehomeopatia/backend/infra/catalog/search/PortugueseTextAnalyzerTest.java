@@ -0,0 +1,31 @@
+package br.com.livrementehomeopatia.backend.infra.catalog.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class PortugueseTextAnalyzerTest {
+
+    @Test
+    void foldsAccentsAndCaseAndDropsStopWords() {
+        assertThat(PortugueseTextAnalyzer.analyze("Pomada de Arnica para Contusões"))
+                .containsExactly("pomada", "arnica", "contusao");
+    }
+
+    @Test
+    void reducesRegularPluralsToSingular() {
+        assertThat(PortugueseTextAnalyzer.analyze("Loções géis cremes nuvens flores pães"))
+                .containsExactly("locao", "gel", "creme", "nuvem", "flor", "pao");
+    }
+
+    @Test
+    void keepsWordsThatOnlyLookPlural() {
+        assertThat(PortugueseTextAnalyzer.analyze("vírus tênis gás")).containsExactly("virus", "tenis", "gas");
+    }
+
+    @Test
+    void blankTextHasNoTerms() {
+        assertThat(PortugueseTextAnalyzer.analyze(null)).isEmpty();
+        assertThat(PortugueseTextAnalyzer.analyze("  - ")).isEmpty();
+    }
+}
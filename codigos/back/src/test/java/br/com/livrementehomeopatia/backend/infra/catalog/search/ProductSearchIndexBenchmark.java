@@ -0,0 +1,125 @@
+package br.com.livrementehomeopatia.backend.infra.catalog.search;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+import br.com.livrementehomeopatia.backend.support.Benchmarks;
+
+/**
+ * Busca em um catálogo sintético de 50 mil produtos: índice invertido contra
+ * a varredura linear com {@code contains} sobre a lista completa, que é o que
+ * o frontend fazia (sem ranking nem tolerância a erros de digitação).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchIndexBenchmark {
+
+    private static final int PRODUCTS = 50_000;
+
+    private static final String[] FORMS = {
+            "Pomada", "Creme", "Gel", "Loção", "Tintura", "Glóbulos", "Xarope", "Spray", "Óleo", "Cápsulas"};
+    private static final String[] ACTIVES = {
+            "Arnica", "Calêndula", "Própolis", "Camomila", "Hamamélis", "Belladonna", "Nux Vomica", "Ipeca",
+            "Chamomilla", "Aconitum", "Bryonia", "Pulsatilla", "Sulphur", "Thuya", "Rhus Tox", "Apis"};
+    private static final String[] EFFECTS = {
+            "alívio de contusões", "hidratação profunda", "ação cicatrizante", "uso adulto e infantil",
+            "dores musculares", "pele sensível", "tosse seca", "cólicas", "picadas de insetos", "ansiedade"};
+
+    @Param({"arnica", "calendula pomada", "cicatri", "hamamelys"})
+    public String query;
+
+    private ProductSearchIndex index;
+    private List<Product> products;
+    private List<String> foldedTexts;
+
+    @Setup
+    public void setUp() {
+        products = syntheticCatalog();
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findAll()).thenReturn(products);
+        index = new ProductSearchIndex(repository);
+        index.rebuild();
+
+        foldedTexts = new ArrayList<>(products.size());
+        for (Product product : products) {
+            foldedTexts.add(PortugueseTextAnalyzer.fold(product.getName() + " " + product.getDescription()));
+        }
+    }
+
+    @Benchmark
+    public List<ProductSearchIndex.Hit> indexSearch() {
+        return index.search(query, 20);
+    }
+
+    @Benchmark
+    public List<Integer> linearScan() {
+        String[] words = PortugueseTextAnalyzer.fold(query).split(" ");
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < foldedTexts.size(); i++) {
+            String text = foldedTexts.get(i);
+            boolean all = true;
+            for (String word : words) {
+                all &= text.contains(word);
+            }
+            if (all) {
+                ids.add(products.get(i).getId());
+            }
+        }
+        return ids;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public ProductSearchIndex rebuild() {
+        index.rebuild();
+        return index;
+    }
+
+    static List<Product> syntheticCatalog() {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int id = 1; id <= PRODUCTS; id++) {
+            String name = String.format(Locale.ROOT, "%s de %s %dCH",
+                    FORMS[random.nextInt(FORMS.length)], ACTIVES[random.nextInt(ACTIVES.length)], id);
+            String description = EFFECTS[random.nextInt(EFFECTS.length)] + ", "
+                    + EFFECTS[random.nextInt(EFFECTS.length)] + " - lote " + random.nextInt(10_000);
+            products.add(ProductSearchIndexTest.product(id, name, description));
+        }
+        return products;
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmark() {
+        Benchmarks.run(ProductSearchIndexBenchmark.class);
+    }
+}
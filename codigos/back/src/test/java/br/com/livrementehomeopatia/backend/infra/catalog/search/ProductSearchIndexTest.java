@@ -0,0 +1,116 @@
+package br.com.livrementehomeopatia.backend.infra.catalog.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.catalog.event.CatalogChangedEvent;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+
+class ProductSearchIndexTest {
+
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private final ProductSearchIndex index = new ProductSearchIndex(repository);
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        products.add(product(1, "Pomada de Arnica", "Alívio de contusões e dores musculares"));
+        products.add(product(2, "Creme Hidratante", "Creme com arnica para pele seca"));
+        products.add(product(3, "Gel de Calêndula", "Cicatrizante natural"));
+        products.add(product(4, "Loção Calmante", "Loções à base de camomila"));
+        when(repository.findAll()).thenReturn(products);
+        index.rebuild();
+    }
+
+    @Test
+    void ignoresAccentsCaseAndPlurals() {
+        assertThat(ids("CALENDULA")).containsExactly(3);
+        assertThat(ids("pomadas")).containsExactly(1);
+        assertThat(ids("locoes")).containsExactly(4);
+    }
+
+    @Test
+    void matchesPrefixes() {
+        assertThat(ids("hidra")).containsExactly(2);
+        assertThat(ids("cicatri")).containsExactly(3);
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertThat(ids("arnicca")).containsExactlyInAnyOrder(1, 2);
+        assertThat(ids("camomlia")).containsExactly(4);
+    }
+
+    @Test
+    void requiresEveryQueryTerm() {
+        assertThat(ids("creme arnica")).containsExactly(2);
+        assertThat(ids("creme calendula")).isEmpty();
+    }
+
+    @Test
+    void ranksNameHitsAboveDescriptionHits() {
+        assertThat(ids("arnica")).containsExactly(1, 2);
+    }
+
+    @Test
+    void respectsTheLimit() {
+        assertThat(index.search("arnica", 1)).hasSize(1);
+        assertThat(index.search("arnica", 0)).isEmpty();
+    }
+
+    @Test
+    void updatesOneProductAfterCommit() {
+        Product renamed = product(3, "Gel de Própolis", "Antisséptico natural");
+        when(repository.findById(3)).thenReturn(Optional.of(renamed));
+
+        index.onCatalogChanged(new CatalogChangedEvent(3));
+
+        assertThat(ids("calendula")).isEmpty();
+        assertThat(ids("propolis")).containsExactly(3);
+    }
+
+    @Test
+    void removesDeletedProducts() {
+        when(repository.findById(1)).thenReturn(Optional.empty());
+
+        index.onCatalogChanged(new CatalogChangedEvent(1));
+
+        assertThat(ids("pomada")).isEmpty();
+        assertThat(ids("arnica")).containsExactly(2);
+    }
+
+    @Test
+    void rebuildsWhenTheChangeCoversSeveralProducts() {
+        products.add(product(5, "Tintura de Própolis", "Uso oral"));
+
+        index.onCatalogChanged(new CatalogChangedEvent(null));
+
+        assertThat(ids("tintura")).containsExactly(5);
+    }
+
+    @Test
+    void editDistanceCountsTranspositionsAsOneEdit() {
+        assertThat(ProductSearchIndex.editDistance("arnica", "arnica", 2)).isZero();
+        assertThat(ProductSearchIndex.editDistance("arnica", "ranica", 2)).isEqualTo(1);
+        assertThat(ProductSearchIndex.editDistance("arnica", "arn", 2)).isEqualTo(3);
+    }
+
+    private List<Integer> ids(String query) {
+        return index.search(query, 10).stream().map(ProductSearchIndex.Hit::productId).toList();
+    }
+
+    static Product product(int id, String name, String description) {
+        return new Product(id, name, description, 10.0, true, ProductType.REVENDA, Set.of());
+    }
+}
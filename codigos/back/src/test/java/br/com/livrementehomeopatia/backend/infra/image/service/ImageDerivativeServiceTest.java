@@ -0,0 +1,86 @@
+package br.com.livrementehomeopatia.backend.infra.image.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.livrementehomeopatia.backend.infra.image.store.ImageStore;
+
+class ImageDerivativeServiceTest {
+
+    private final ImageDerivativeService service = new ImageDerivativeService(mock(ImageStore.class), 1, 1, 10_000);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void decodesImagesWithinThePixelBudget() throws IOException {
+        BufferedImage image = service.decode("pequena", png(100, 100));
+
+        assertThat(image).isNotNull();
+        assertThat(image.getWidth()).isEqualTo(100);
+        assertThat(image.getHeight()).isEqualTo(100);
+    }
+
+    @Test
+    void rejectsImagesAboveThePixelBudget() throws IOException {
+        assertThat(service.decode("grande", png(101, 100))).isNull();
+    }
+
+    @Test
+    void rejectsFromTheHeaderWithoutDecodingThePixels() throws IOException {
+        // Só o cabeçalho, declarando 50.000 x 50.000 pixels (cerca de 10 GB decodificada).
+        assertThat(service.decode("bomba", pngHeaderOnly(50_000, 50_000))).isNull();
+    }
+
+    @Test
+    void ignoresUnsupportedFormats() throws IOException {
+        assertThat(service.decode("texto", "não é uma imagem".getBytes(StandardCharsets.UTF_8))).isNull();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Assinatura PNG seguida apenas do bloco IHDR, sem dados de imagem.
+     */
+    private static byte[] pngHeaderOnly(int width, int height) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream ihdr = new DataOutputStream(header);
+        ihdr.writeBytes("IHDR");
+        ihdr.writeInt(width);
+        ihdr.writeInt(height);
+        ihdr.writeByte(8); // bits por canal
+        ihdr.writeByte(2); // RGB
+        ihdr.writeByte(0);
+        ihdr.writeByte(0);
+        ihdr.writeByte(0);
+        byte[] chunk = header.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(chunk);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream png = new DataOutputStream(out);
+        png.write(new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' });
+        png.writeInt(chunk.length - 4);
+        png.write(chunk);
+        png.writeInt((int) crc.getValue());
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,159 @@
+package br.com.livrementehomeopatia.backend.infra.mail.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import br.com.livrementehomeopatia.backend.enums.OutboxStatus;
+import br.com.livrementehomeopatia.backend.model.MailOutbox;
+import br.com.livrementehomeopatia.backend.repository.MailOutboxRepository;
+import br.com.livrementehomeopatia.backend.services.MailService;
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Envio real por SMTP, para um servidor GreenMail em processo na porta
+ * configurada no perfil de testes.
+ */
+class MailOutboxWorkerTest extends PostgresIntegrationTest {
+
+    @RegisterExtension
+    static final GreenMailExtension SMTP = new GreenMailExtension(ServerSetupTest.SMTP).withPerMethodLifecycle(false);
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailOutboxWorker worker;
+
+    @Autowired
+    private MailOutboxRepository outboxRepository;
+
+    @Test
+    void sendsQueuedMailAfterCommitAndClearsTheBody() throws Exception {
+        String to = "cliente-" + UUID.randomUUID() + "@teste.com";
+        String link = "http://localhost:5173/redefinir-senha?token=" + UUID.randomUUID();
+
+        int before = SMTP.getReceivedMessages().length;
+
+        mailService.sendPasswordResetEmail(to, "Redefinição de senha", link);
+
+        assertThat(SMTP.waitForIncomingEmail(10_000, before + 1)).isTrue();
+        MimeMessage message = receivedBy(to);
+        assertThat(message.getSubject()).isEqualTo("Redefinição de senha");
+        assertThat(html(message)).contains(link);
+
+        MailOutbox mail = awaitStatus(to, OutboxStatus.DONE);
+        assertThat(mail.getHtmlBody()).isEmpty();
+        assertThat(mail.getSentAt()).isNotNull();
+        assertThat(mail.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentEnqueuesAreAllSentWithoutWaitingForTheSweep() throws Exception {
+        int before = SMTP.getReceivedMessages().length;
+        int mails = 60;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> sends = new ArrayList<>();
+            for (int i = 0; i < mails; i++) {
+                String to = "lote-" + i + "-" + UUID.randomUUID() + "@teste.com";
+                sends.add(executor.submit(() -> mailService.sendPasswordResetEmail(to, "Redefinição de senha",
+                        "http://localhost:5173/redefinir-senha")));
+            }
+            for (Future<?> send : sends) {
+                send.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // A varredura periódica está desligada no perfil de testes: só os
+        // envios disparados após cada commit podem entregar os e-mails.
+        assertThat(SMTP.waitForIncomingEmail(15_000, before + mails)).isTrue();
+    }
+
+    @Test
+    void purgeRemovesOnlyOldFinishedMail() {
+        Instant old = Instant.now().minus(Duration.ofDays(30));
+        MailOutbox oldDone = save(OutboxStatus.DONE, old);
+        MailOutbox oldFailed = save(OutboxStatus.FAILED, old);
+        MailOutbox oldPending = save(OutboxStatus.PENDING, old);
+        MailOutbox recentDone = save(OutboxStatus.DONE, Instant.now());
+
+        worker.purge();
+
+        assertThat(outboxRepository.existsById(oldDone.getId())).isFalse();
+        assertThat(outboxRepository.existsById(oldFailed.getId())).isFalse();
+        assertThat(outboxRepository.existsById(oldPending.getId())).isTrue();
+        assertThat(outboxRepository.existsById(recentDone.getId())).isTrue();
+    }
+
+    private MailOutbox save(OutboxStatus status, Instant createdAt) {
+        MailOutbox mail = new MailOutbox("antigo-" + UUID.randomUUID() + "@teste.com", "Assunto", "<p>corpo</p>",
+                createdAt);
+        mail.setStatus(status);
+        // Pendente, mas só vence no futuro: fica fora dos envios durante o teste.
+        mail.setNextAttemptAt(Instant.now().plus(Duration.ofDays(1)));
+        return outboxRepository.save(mail);
+    }
+
+    private MimeMessage receivedBy(String to) throws Exception {
+        for (MimeMessage message : SMTP.getReceivedMessages()) {
+            if (message.getAllRecipients()[0].toString().equals(to)) {
+                return message;
+            }
+        }
+        throw new AssertionError("Nenhum e-mail recebido por " + to);
+    }
+
+    /**
+     * O resultado é gravado logo depois do envio, em outra transação.
+     */
+    private MailOutbox awaitStatus(String to, OutboxStatus status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            MailOutbox mail = outboxRepository.findAll().stream()
+                    .filter(candidate -> candidate.getTo().equals(to))
+                    .findFirst()
+                    .orElseThrow();
+            if (mail.getStatus() == status) {
+                return mail;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("E-mail para " + to + " não chegou ao status " + status);
+    }
+
+    private static String html(Part part) throws Exception {
+        if (part.isMimeType("text/html")) {
+            return (String) part.getContent();
+        }
+        if (part.getContent() instanceof Multipart multipart) {
+            for (int i = 0; i < multipart.getCount(); i++) {
+                String html = html(multipart.getBodyPart(i));
+                if (html != null) {
+                    return html;
+                }
+            }
+        }
+        return null;
+    }
+}
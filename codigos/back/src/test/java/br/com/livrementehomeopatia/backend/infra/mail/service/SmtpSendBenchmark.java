@@ -0,0 +1,142 @@
+package br.com.livrementehomeopatia.backend.infra.mail.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.util.MimeTypeUtils;
+
+import com.icegreen.greenmail.store.FolderException;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import br.com.livrementehomeopatia.backend.support.Benchmarks;
+import jakarta.activation.DataSource;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.ByteArrayDataSource;
+
+/**
+ * E-mails por segundo para um servidor SMTP local (GreenMail): o caminho
+ * antigo, com uma sessão SMTP e uma leitura do logotipo por e-mail, contra o
+ * envio em lote por uma conexão do {@link SmtpTransportPool} com o logotipo
+ * carregado uma vez. Sem TLS nem autenticação, a diferença medida aqui é menor
+ * que a de um servidor real.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SmtpSendBenchmark {
+
+    private static final int BATCH = 20;
+    private static final String LOGO_PATH = "/static/images/logo.png";
+    private static final String HTML = "<html><body><img src='cid:logoImage'/><p>"
+            + "Olá! Recebemos o pagamento do seu pedido.</p>".repeat(40) + "</body></html>";
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private SmtpTransportPool pool;
+    private DataSource logo;
+
+    @Setup
+    public void setUp() throws IOException {
+        greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        pool = new SmtpTransportPool(mailSender, 1);
+
+        try (InputStream in = new ClassPathResource(LOGO_PATH).getInputStream()) {
+            ByteArrayDataSource dataSource = new ByteArrayDataSource(in.readAllBytes(), MimeTypeUtils.IMAGE_PNG_VALUE);
+            dataSource.setName("logo.png");
+            logo = dataSource;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void purgeMailboxes() throws FolderException {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+        greenMail.stop();
+    }
+
+    /**
+     * Caminho anterior: {@code mailSender.send} abre uma sessão SMTP por
+     * e-mail, e o logotipo é relido do classpath a cada mensagem.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void sessionPerMessage() throws MessagingException {
+        for (int i = 0; i < BATCH; i++) {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setTo("cliente" + i + "@teste.com");
+            helper.setSubject("Confirmação de Pagamento");
+            helper.setText(HTML, true);
+            helper.addInline("logoImage", new ClassPathResource(LOGO_PATH));
+            mailSender.send(message);
+        }
+    }
+
+    /**
+     * Caminho atual: um lote enviado por uma conexão emprestada do pool, com o
+     * logotipo compartilhado.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void pooledBatch() throws MessagingException {
+        Transport transport = pool.borrow();
+        boolean healthy = true;
+        try {
+            for (int i = 0; i < BATCH; i++) {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+                helper.setTo("cliente" + i + "@teste.com");
+                helper.setSubject("Confirmação de Pagamento");
+                helper.setText(HTML, true);
+                helper.addInline("logoImage", logo);
+                message.saveChanges();
+                transport.sendMessage(message, message.getAllRecipients());
+            }
+        } catch (MessagingException e) {
+            healthy = false;
+            throw e;
+        } finally {
+            pool.release(transport, healthy);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmark() {
+        Benchmarks.run(SmtpSendBenchmark.class);
+    }
+}
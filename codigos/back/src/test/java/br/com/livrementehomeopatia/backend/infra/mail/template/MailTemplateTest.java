@@ -0,0 +1,19 @@
+package br.com.livrementehomeopatia.backend.infra.mail.template;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MailTemplateTest {
+
+    @ParameterizedTest
+    @ValueSource(doubles = { 0, 0.5, 1.005, 2.675, 10, 19.999, 0.125, 1234567.891, 99.995, -3.14159, -0.001, 1e-9 })
+    void moneyMatchesTheFormattedPath(double value) {
+        StringBuilder out = new StringBuilder();
+
+        MailTemplate.appendMoney(out, value);
+
+        assertThat(out.toString()).isEqualTo(String.format("%.2f", value));
+    }
+}
@@ -0,0 +1,248 @@
+package br.com.livrementehomeopatia.backend.infra.mercadopago.service;
+
+import static br.com.livrementehomeopatia.backend.support.Fixtures.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.jayway.jsonpath.JsonPath;
+
+import br.com.livrementehomeopatia.backend.enums.OrderStatus;
+import br.com.livrementehomeopatia.backend.enums.OutboxStatus;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.mercadopago.dto.PreferenceResponseDTO;
+import br.com.livrementehomeopatia.backend.model.Client;
+import br.com.livrementehomeopatia.backend.model.Neighborhood;
+import br.com.livrementehomeopatia.backend.model.PaymentLinkOutbox;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.model.ResaleOrder;
+import br.com.livrementehomeopatia.backend.repository.NeighborhoodRepository;
+import br.com.livrementehomeopatia.backend.repository.OrderRepository;
+import br.com.livrementehomeopatia.backend.repository.PaymentLinkOutboxRepository;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+import br.com.livrementehomeopatia.backend.repository.ResaleOrderRepository;
+import br.com.livrementehomeopatia.backend.repository.UserRepository;
+import br.com.livrementehomeopatia.backend.support.Fixtures;
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+
+/**
+ * Geração dos links de pagamento pela fila {@code payment_link_outbox}, com o
+ * Mercado Pago substituído por um dublê.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "app.payments.link-wait=PT1S")
+class PaymentLinkWorkerTest extends PostgresIntegrationTest {
+
+    @MockitoBean
+    private MercadoPagoService mercadoPagoService;
+
+    @Autowired
+    private PaymentLinkWorker worker;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentLinkOutboxRepository outboxRepository;
+
+    @Autowired
+    private ResaleOrderRepository resaleOrderRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NeighborhoodRepository neighborhoodRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Client client;
+    private Neighborhood neighborhood;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        client = Fixtures.client(userRepository);
+        neighborhood = Fixtures.neighborhood(neighborhoodRepository);
+        product = Fixtures.product(productRepository, ProductType.REVENDA, 20.0);
+    }
+
+    @Test
+    void checkoutReturnsTheLinkWhenItIsReadyInTime() throws Exception {
+        when(mercadoPagoService.createPaymentPreference(any()))
+                .thenReturn(new PreferenceResponseDTO("pref-rapida", "https://mp.teste/rapida"));
+        addToCart();
+
+        String body = mockMvc.perform(checkout())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paymentUrl").value("https://mp.teste/rapida"))
+                .andReturn().getResponse().getContentAsString();
+
+        Integer orderId = JsonPath.read(body, "$.orderDetails.id");
+        PaymentLinkOutbox task = outboxRepository.findByOrderId(orderId).orElseThrow();
+        assertThat(task.getStatus()).isEqualTo(OutboxStatus.DONE);
+        assertThat(task.getAttempts()).isEqualTo(1);
+        assertThat(task.getCompletedAt()).isNotNull();
+        assertThat(resaleOrderRepository.findById(orderId).orElseThrow().getMercadoPagoPreferenceId())
+                .isEqualTo("pref-rapida");
+    }
+
+    @Test
+    void slowLinkAnswers202AndIsDeliveredByThePollingEndpoint() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(mercadoPagoService.createPaymentPreference(any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return new PreferenceResponseDTO("pref-lenta", "https://mp.teste/lenta");
+        });
+        addToCart();
+
+        try {
+            String body = mockMvc.perform(checkout())
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.paymentUrl").doesNotExist())
+                    .andReturn().getResponse().getContentAsString();
+            Integer orderId = JsonPath.read(body, "$.orderDetails.id");
+
+            mockMvc.perform(get("/api/orders/{orderId}/payment-link", orderId).with(as(client)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("PENDING"))
+                    .andExpect(jsonPath("$.paymentUrl").doesNotExist());
+
+            release.countDown();
+            awaitStatus(orderId, OutboxStatus.DONE);
+
+            mockMvc.perform(get("/api/orders/{orderId}/payment-link", orderId).with(as(client)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("DONE"))
+                    .andExpect(jsonPath("$.paymentUrl").value("https://mp.teste/lenta"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void failuresAreRetriedWithExponentialBackoff() throws Exception {
+        when(mercadoPagoService.createPaymentPreference(any())).thenThrow(new RuntimeException("Mercado Pago fora do ar"));
+        ResaleOrder order = order();
+        outboxRepository.save(new PaymentLinkOutbox(order.getId(), Instant.now()));
+
+        worker.process(order.getId());
+
+        PaymentLinkOutbox task = outboxRepository.findByOrderId(order.getId()).orElseThrow();
+        assertThat(task.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(task.getAttempts()).isEqualTo(1);
+        assertThat(task.getLastError()).isEqualTo("Mercado Pago fora do ar");
+        assertThat(task.getNextAttemptAt()).isCloseTo(Instant.now().plusSeconds(30), within(5, ChronoUnit.SECONDS));
+
+        // Ainda não venceu: nenhuma nova tentativa.
+        worker.process(order.getId());
+        assertThat(outboxRepository.findByOrderId(order.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+
+        makeDue(task);
+        worker.process(order.getId());
+
+        task = outboxRepository.findByOrderId(order.getId()).orElseThrow();
+        assertThat(task.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(task.getAttempts()).isEqualTo(2);
+        assertThat(task.getNextAttemptAt()).isCloseTo(Instant.now().plusSeconds(60), within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() throws Exception {
+        when(mercadoPagoService.createPaymentPreference(any())).thenThrow(new RuntimeException("Preferência recusada"));
+        ResaleOrder order = order();
+        PaymentLinkOutbox task = new PaymentLinkOutbox(order.getId(), Instant.now());
+        task.setAttempts(7);
+        outboxRepository.save(task);
+
+        worker.process(order.getId());
+
+        task = outboxRepository.findByOrderId(order.getId()).orElseThrow();
+        assertThat(task.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(task.getAttempts()).isEqualTo(8);
+        assertThat(task.getLastError()).isEqualTo("Preferência recusada");
+    }
+
+    @Test
+    void failureToStoreTheLinkIsContainedAndKeepsTheLease() throws Exception {
+        // ID maior que a coluna: a gravação falha depois de a preferência ter sido criada.
+        when(mercadoPagoService.createPaymentPreference(any()))
+                .thenReturn(new PreferenceResponseDTO("p".repeat(300), "https://mp.teste/perdida"));
+        ResaleOrder order = order();
+        outboxRepository.save(new PaymentLinkOutbox(order.getId(), Instant.now()));
+
+        assertThatCode(() -> worker.process(order.getId())).doesNotThrowAnyException();
+
+        PaymentLinkOutbox task = outboxRepository.findByOrderId(order.getId()).orElseThrow();
+        assertThat(task.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(task.getAttempts()).isEqualTo(1);
+        assertThat(task.getNextAttemptAt()).isAfter(Instant.now().plusSeconds(60));
+        assertThat(resaleOrderRepository.findById(order.getId()).orElseThrow().hasCheckoutProLink()).isFalse();
+    }
+
+    private void addToCart() throws Exception {
+        mockMvc.perform(post("/api/cart/add").param("productId", product.getId().toString()).with(as(client)))
+                .andExpect(status().isOk());
+    }
+
+    private RequestBuilder checkout() {
+        return post("/api/orders/create-from-cart")
+                .with(as(client))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"neighborhood": "%s"}
+                        """.formatted(neighborhood.getName()));
+    }
+
+    private ResaleOrder order() {
+        return Fixtures.resaleOrder(orderRepository, client, neighborhood, product, 2, LocalDateTime.now(),
+                OrderStatus.AGUARDANDO_PAGAMENTO);
+    }
+
+    private void makeDue(PaymentLinkOutbox task) {
+        PaymentLinkOutbox current = outboxRepository.findById(task.getId()).orElseThrow();
+        current.setNextAttemptAt(Instant.now().minus(Duration.ofSeconds(1)));
+        outboxRepository.save(current);
+    }
+
+    /**
+     * O link é gravado pelo executor, em outra thread.
+     */
+    private void awaitStatus(Integer orderId, OutboxStatus status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (outboxRepository.findByOrderId(orderId).map(PaymentLinkOutbox::getStatus).orElse(null) == status) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Link do pedido " + orderId + " não chegou ao status " + status);
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.livrementehomeopatia.backend.infra.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class OutboxRetryPolicyTest {
+
+    private final OutboxRetryPolicy policy = new OutboxRetryPolicy(Duration.ofMinutes(2), Duration.ofSeconds(30),
+            Duration.ofMinutes(30), 8);
+
+    @Test
+    void delayDoublesUpToTheMaximum() {
+        assertThat(policy.retryDelay(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(policy.retryDelay(2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(policy.retryDelay(3)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(policy.retryDelay(6)).isEqualTo(Duration.ofMinutes(16));
+        assertThat(policy.retryDelay(7)).isEqualTo(Duration.ofMinutes(30));
+        assertThat(policy.retryDelay(60)).isEqualTo(Duration.ofMinutes(30));
+    }
+
+    @Test
+    void leaseAndExhaustion() {
+        Instant now = Instant.parse("2026-01-01T10:00:00Z");
+
+        assertThat(policy.leaseUntil(now)).isEqualTo(Instant.parse("2026-01-01T10:02:00Z"));
+        assertThat(policy.isExhausted(7)).isFalse();
+        assertThat(policy.isExhausted(8)).isTrue();
+    }
+
+    @Test
+    void allowsAtLeastOneAttempt() {
+        OutboxRetryPolicy single = new OutboxRetryPolicy(Duration.ofMinutes(2), Duration.ofSeconds(30),
+                Duration.ofMinutes(30), 0);
+
+        assertThat(single.maxAttempts()).isEqualTo(1);
+        assertThat(single.isExhausted(0)).isFalse();
+        assertThat(single.isExhausted(1)).isTrue();
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.livrementehomeopatia.backend.infra.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.livrementehomeopatia.backend.dto.ClientUpdateDTO;
+import br.com.livrementehomeopatia.backend.infra.admin.service.AdminService;
+import br.com.livrementehomeopatia.backend.infra.security.event.PrincipalChangedEvent;
+import br.com.livrementehomeopatia.backend.model.Client;
+import br.com.livrementehomeopatia.backend.repository.UserRepository;
+import br.com.livrementehomeopatia.backend.services.ClientService;
+import br.com.livrementehomeopatia.backend.services.UserUpdateHelper;
+import br.com.livrementehomeopatia.backend.support.Fixtures;
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+
+class PrincipalCacheTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private UserUpdateHelper userUpdateHelper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Client client;
+    private String oldEmail;
+    private String newEmail;
+
+    @BeforeEach
+    void setUp() {
+        client = Fixtures.client(userRepository);
+        oldEmail = client.getEmail();
+        newEmail = "novo-" + UUID.randomUUID().toString().substring(0, 8) + "@teste.com";
+    }
+
+    @Test
+    void emailChangeDropsTheOldEmail() {
+        assertThat(principalCache.get(oldEmail)).isPresent();
+
+        clientService.updateClient(client.getId(), emailUpdate(client, newEmail));
+
+        assertThat(principalCache.get(oldEmail)).isEmpty();
+        assertThat(principalCache.get(newEmail)).map(LoggedUser::getId).contains(client.getId());
+    }
+
+    @Test
+    void keepsTheEntryUntilTheUpdateCommits() {
+        assertThat(principalCache.get(oldEmail)).isPresent();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            clientService.updateClient(client.getId(), emailUpdate(client, newEmail));
+            // Ainda não confirmado: o e-mail antigo continua sendo o válido no banco.
+            assertThat(principalCache.get(oldEmail)).isPresent();
+        });
+
+        assertThat(principalCache.get(oldEmail)).isEmpty();
+    }
+
+    @Test
+    void lookupDuringTheUpdateDoesNotKeepTheOldEmail() {
+        // Sem entrada no cache, a consulta concorrente vai ao banco e lê a linha
+        // ainda não alterada; a remoção após o commit a descarta.
+        principalCache.onPrincipalChanged(new PrincipalChangedEvent(oldEmail));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            clientService.updateClient(client.getId(), emailUpdate(client, newEmail));
+            Optional<LoggedUser> concurrent = CompletableFuture.supplyAsync(() -> principalCache.get(oldEmail)).join();
+            assertThat(concurrent).isPresent();
+        });
+
+        assertThat(principalCache.get(oldEmail)).isEmpty();
+    }
+
+    @Test
+    void deactivationDropsTheEntry() {
+        assertThat(principalCache.get(oldEmail)).isPresent();
+
+        adminService.setUserActiveStatus(client.getId(), false);
+
+        assertThat(principalCache.get(oldEmail)).isEmpty();
+    }
+
+    @Test
+    void updateHelperRequiresATransaction() {
+        assertThatThrownBy(() -> userUpdateHelper.applyUserUpdates(client, emailUpdate(client, newEmail)))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    private static ClientUpdateDTO emailUpdate(Client client, String email) {
+        ClientUpdateDTO dto = new ClientUpdateDTO();
+        dto.setFullName(client.getFullName());
+        dto.setPhone(client.getPhone());
+        dto.setEmail(email);
+        return dto;
+    }
+}
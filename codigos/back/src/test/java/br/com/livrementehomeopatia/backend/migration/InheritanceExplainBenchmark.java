@@ -0,0 +1,151 @@
+package br.com.livrementehomeopatia.backend.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+
+/**
+ * Tempo de execução (EXPLAIN ANALYZE) das consultas de db/explain-inheritance.sql
+ * sobre 20 mil clientes e 400 mil pedidos, antes e depois da V2. Cada consulta
+ * roda {@value #RUNS} vezes com o cache aquecido; vale o menor tempo.
+ */
+class InheritanceExplainBenchmark extends PostgresIntegrationTest {
+
+    private static final int CLIENTS = 20_000;
+    private static final int ORDERS = 400_000;
+    private static final int RUNS = 20;
+
+    private static final int USER_ID = 4_242;
+    private static final String EMAIL = "'cliente4242@teste.com'";
+    private static final int ORDER_ID = 312_345;
+
+    private static final Map<String, String> BEFORE = new LinkedHashMap<>();
+    private static final Map<String, String> AFTER = new LinkedHashMap<>();
+
+    static {
+        BEFORE.put("orderRepository.findById", "SELECT o.* FROM ("
+                + "SELECT id, user_id, created_at, status, total_value, 1 AS clazz_ FROM homeopathic_orders "
+                + "UNION ALL "
+                + "SELECT id, user_id, created_at, status, total_value, 2 AS clazz_ FROM resale_orders"
+                + ") o WHERE o.id = " + ORDER_ID);
+        BEFORE.put("orderRepository.findHistoryByUserId", "SELECT o.id, o.created_at FROM ("
+                + "SELECT id, user_id, created_at FROM homeopathic_orders "
+                + "UNION ALL "
+                + "SELECT id, user_id, created_at FROM resale_orders"
+                + ") o WHERE o.user_id = " + USER_ID + " ORDER BY o.created_at DESC, o.id DESC LIMIT 21");
+        BEFORE.put("userRepository.findByEmail", "SELECT u.* FROM ("
+                + "SELECT id, email, password, role, active, NULL AS crm, 1 AS clazz_ FROM client "
+                + "UNION ALL "
+                + "SELECT id, email, password, role, active, crm, 2 AS clazz_ FROM doctor "
+                + "UNION ALL "
+                + "SELECT id, email, password, role, active, NULL AS crm, 3 AS clazz_ FROM admin"
+                + ") u WHERE u.email = " + EMAIL);
+
+        AFTER.put("orderRepository.findById", "SELECT o.* FROM orders o WHERE o.id = " + ORDER_ID);
+        AFTER.put("orderRepository.findHistoryByUserId", "SELECT o.id, o.created_at FROM orders o "
+                + "WHERE o.user_id = " + USER_ID + " ORDER BY o.created_at DESC, o.id DESC LIMIT 21");
+        AFTER.put("userRepository.findByEmail", "SELECT u.*, d.crm, "
+                + "CASE WHEN c.id IS NOT NULL THEN 1 WHEN d.id IS NOT NULL THEN 2 WHEN a.id IS NOT NULL THEN 3 END "
+                + "AS clazz_ FROM users u "
+                + "LEFT JOIN client c ON c.id = u.id "
+                + "LEFT JOIN doctor d ON d.id = u.id "
+                + "LEFT JOIN admin a ON a.id = u.id "
+                + "WHERE u.email = " + EMAIL);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @Tag("benchmark")
+    void benchmark() throws SQLException {
+        String schema = InheritanceMigrationTest.newSchema();
+        Flyway legacy = Flyway.configure()
+                .configuration(InheritanceMigrationTest.legacyFlyway(dataSource, schema, CLIENTS, ORDERS)
+                        .getConfiguration())
+                .target("1")
+                .load();
+        legacy.migrate();
+        Map<String, Plan> before = explainAll(schema, BEFORE);
+
+        InheritanceMigrationTest.legacyFlyway(dataSource, schema, CLIENTS, ORDERS).migrate();
+        Map<String, Plan> after = explainAll(schema, AFTER);
+
+        System.out.printf("%-38s %12s %12s   %s%n", "Consulta", "antes (ms)", "depois (ms)", "plano antes -> depois");
+        for (String query : BEFORE.keySet()) {
+            Plan b = before.get(query);
+            Plan a = after.get(query);
+            System.out.printf("%-38s %12.3f %12.3f   %s (%d buffers) -> %s (%d buffers)%n", query,
+                    b.millis(), a.millis(), b.root(), b.buffers(), a.root(), a.buffers());
+        }
+    }
+
+    private Map<String, Plan> explainAll(String schema, Map<String, String> queries) throws SQLException {
+        Map<String, Plan> plans = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + schema);
+            for (Map.Entry<String, String> query : queries.entrySet()) {
+                Plan best = null;
+                for (int i = 0; i < RUNS; i++) {
+                    Plan plan = explain(statement, query.getValue());
+                    if (best == null || plan.millis() < best.millis()) {
+                        best = plan;
+                    }
+                }
+                plans.put(query.getKey(), best);
+            }
+            statement.execute("RESET search_path");
+        }
+        return plans;
+    }
+
+    private static Plan explain(Statement statement, String sql) throws SQLException {
+        List<String> lines = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+            while (rs.next()) {
+                lines.add(rs.getString(1));
+            }
+        }
+        String root = lines.get(0).replaceAll("\\s+\\(cost=.*", "").trim();
+        double millis = 0;
+        long buffers = 0;
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("Execution Time:")) {
+                millis = Double.parseDouble(trimmed.replaceAll("[^0-9.]", ""));
+            }
+            if (buffers == 0 && trimmed.startsWith("Buffers:")) {
+                // A primeira linha de buffers é a do nó raiz, que já soma os filhos.
+                buffers = sumNumbers(trimmed);
+            }
+        }
+        return new Plan(root, millis, buffers);
+    }
+
+    private static long sumNumbers(String line) {
+        long sum = 0;
+        for (String part : line.split("[^0-9]+")) {
+            if (!part.isEmpty()) {
+                sum += Long.parseLong(part);
+            }
+        }
+        return sum;
+    }
+
+    private record Plan(String root, double millis, long buffers) {
+    }
+}
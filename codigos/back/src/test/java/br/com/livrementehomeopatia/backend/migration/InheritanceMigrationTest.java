@@ -0,0 +1,180 @@
+package br.com.livrementehomeopatia.backend.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import br.com.livrementehomeopatia.backend.BackendApplication;
+import br.com.livrementehomeopatia.backend.enums.OrderStatus;
+import br.com.livrementehomeopatia.backend.model.Client;
+import br.com.livrementehomeopatia.backend.model.Neighborhood;
+import br.com.livrementehomeopatia.backend.model.ResaleOrder;
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Aplica a V2 sobre um esquema antigo (TABLE_PER_CLASS) criado por uma
+ * migração de teste, cada caso em um esquema próprio do banco embutido.
+ */
+class InheritanceMigrationTest extends PostgresIntegrationTest {
+
+    private static final int CLIENTS = 10;
+    private static final int ORDERS = 40;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void startupAppliesMigrationOnFreshDatabase() {
+        Boolean success = jdbcTemplate.queryForObject(
+                "SELECT success FROM flyway_schema_history WHERE version = '2'", Boolean.class);
+
+        assertThat(success).isTrue();
+    }
+
+    @Test
+    void movesLegacyOrdersAndUsers() {
+        String schema = newSchema();
+        legacyFlyway(dataSource, schema, CLIENTS, ORDERS).migrate();
+
+        assertThat(count(schema, "orders")).isEqualTo(ORDERS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + schema + ".orders WHERE order_type = 'HOMEOPATICO'", Integer.class))
+                .isEqualTo(ORDERS / 2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT checkout_pro_link FROM " + schema + ".orders WHERE id = ?", String.class, ORDERS))
+                .isEqualTo("https://mp.example/" + ORDERS);
+        assertThat(count(schema, "users")).isEqualTo(CLIENTS + 2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT d.crm FROM " + schema + ".users u JOIN " + schema + ".doctor d ON d.id = u.id "
+                        + "WHERE u.email = 'medica@teste.com'", String.class))
+                .isEqualTo("123456-PE");
+
+        assertThat(tableExists(schema, "homeopathic_orders")).isFalse();
+        assertThat(tableExists(schema, "resale_orders")).isFalse();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = ? AND table_name = 'client' "
+                        + "AND column_name = 'email'", Integer.class, schema))
+                .isZero();
+    }
+
+    @Test
+    void replacesEmptyTablesCreatedByTheNewVersion() {
+        String schema = newSchema();
+        legacyFlyway(dataSource, schema, CLIENTS, ORDERS, "classpath:db/legacy-empty-new-tables").migrate();
+
+        assertThat(count(schema, "orders")).isEqualTo(ORDERS);
+        assertThat(count(schema, "users")).isEqualTo(CLIENTS + 2);
+    }
+
+    @Test
+    void newVersionSavesUsersAndOrdersAfterMigration() {
+        String schema = newSchema();
+        legacyFlyway(dataSource, schema, CLIENTS, ORDERS, "classpath:db/legacy-empty-new-tables").migrate();
+
+        LocalContainerEntityManagerFactoryBean factory = entityManagerFactory(schema);
+        try {
+            EntityManager entityManager = factory.getObject().createEntityManager();
+            entityManager.getTransaction().begin();
+            Client client = new Client("Cliente novo", "cliente-novo@teste.com", "senha", "11999999999", null);
+            entityManager.persist(client);
+            ResaleOrder order = new ResaleOrder(client, entityManager.find(Neighborhood.class, 1), 5.0,
+                    LocalDateTime.now(), OrderStatus.EM_ANDAMENTO);
+            entityManager.persist(order);
+            entityManager.getTransaction().commit();
+            entityManager.close();
+
+            // As sequências seguem de onde order_seq e user_seq pararam.
+            assertThat(client.getId()).isGreaterThan(CLIENTS + 2);
+            assertThat(order.getId()).isGreaterThan(ORDERS);
+            assertThat(count(schema, "users")).isEqualTo(CLIENTS + 3);
+            assertThat(count(schema, "orders")).isEqualTo(ORDERS + 1);
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    @Test
+    void refusesToStartWhenNewTablesAlreadyHaveRows() {
+        String schema = newSchema();
+        Flyway flyway = legacyFlyway(dataSource, schema, CLIENTS, ORDERS, "classpath:db/legacy-conflict");
+
+        assertThatThrownBy(flyway::migrate)
+                .isInstanceOf(FlywayException.class)
+                .hasMessageContaining("users já tem usuários");
+
+        // A V2 roda em uma transação: a parte dos pedidos também foi desfeita.
+        assertThat(tableExists(schema, "homeopathic_orders")).isTrue();
+        assertThat(tableExists(schema, "orders")).isFalse();
+        assertThat(count(schema, "users")).isEqualTo(1);
+    }
+
+    /**
+     * Flyway que cria o esquema antigo (V1 de teste, com dados sintéticos) e
+     * depois aplica as migrações da aplicação.
+     */
+    static Flyway legacyFlyway(DataSource dataSource, String schema, int clients, int orders,
+            String... extraLocations) {
+        String[] locations = Stream.concat(Stream.of("classpath:db/legacy", "classpath:db/migration"),
+                Stream.of(extraLocations)).toArray(String[]::new);
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(schema)
+                .createSchemas(true)
+                .locations(locations)
+                .placeholders(Map.of("clients", String.valueOf(clients), "orders", String.valueOf(orders)))
+                .load();
+    }
+
+    /**
+     * Hibernate configurado como o da aplicação (nomes, ddl-auto=update), mas
+     * apontado para o esquema migrado, como na primeira subida após a V2.
+     */
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory(String schema) {
+        Properties properties = new Properties();
+        properties.put("hibernate.default_schema", schema);
+        properties.put("hibernate.hbm2ddl.auto", "update");
+        properties.put("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName());
+        properties.put("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(BackendApplication.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaProperties(properties);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    static String newSchema() {
+        return "legado_" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private int count(String schema, String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + schema + "." + table, Integer.class);
+    }
+
+    private boolean tableExists(String schema, String table) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, schema + "." + table);
+    }
+}
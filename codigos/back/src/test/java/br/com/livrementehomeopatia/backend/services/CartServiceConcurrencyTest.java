@@ -0,0 +1,142 @@
+package br.com.livrementehomeopatia.backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.model.Cart;
+import br.com.livrementehomeopatia.backend.model.Client;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.repository.CartItemRepository;
+import br.com.livrementehomeopatia.backend.repository.CartRepository;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+import br.com.livrementehomeopatia.backend.repository.UserRepository;
+import br.com.livrementehomeopatia.backend.support.Fixtures;
+import br.com.livrementehomeopatia.backend.support.PostgresIntegrationTest;
+
+/**
+ * Adições simultâneas ao carrinho de um mesmo usuário, todas liberadas ao
+ * mesmo tempo. Cada repetição usa um cliente novo, de modo que o carrinho
+ * ainda não existe e também é criado sob concorrência.
+ */
+class CartServiceConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 12;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @RepeatedTest(5)
+    void parallelAddsOfDifferentTypesLeaveASingleType() throws Exception {
+        Client client = Fixtures.client(userRepository);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            products.add(Fixtures.product(productRepository,
+                    i % 2 == 0 ? ProductType.REVENDA : ProductType.HOMEOPATICO, 10.0));
+        }
+
+        List<Callable<Void>> adds = new ArrayList<>();
+        products.forEach(product -> adds.add(() -> {
+            cartService.addItemToCart(product.getId());
+            return null;
+        }));
+        List<Throwable> failures = runTogether(client, adds);
+
+        Cart cart = cartRepository.findByUserId(client.getId()).orElseThrow();
+        List<Object[]> lines = cartItemRepository.findLinesByCartId(cart.getId());
+        ProductType winner = cart.getProductType();
+
+        assertThat(winner).isNotNull();
+        assertThat(lines).isNotEmpty().allSatisfy(line -> assertThat(line[1]).isEqualTo(winner));
+        assertThat(lines).hasSize((int) products.stream().filter(p -> p.getType() == winner).count());
+        assertThat(failures).hasSize(THREADS - lines.size())
+                .allSatisfy(failure -> assertThat(failure).hasMessage(CartService.MIXED_TYPES_MESSAGE));
+        assertThat(cart.getTotalValue()).isEqualTo(10.0 * lines.size());
+    }
+
+    @RepeatedTest(5)
+    void parallelAddsOfTheSameProductAreAllCounted() throws Exception {
+        Client client = Fixtures.client(userRepository);
+        Product product = Fixtures.product(productRepository, ProductType.REVENDA, 2.5);
+
+        List<Callable<Void>> adds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            adds.add(() -> {
+                cartService.addItemToCart(product.getId());
+                return null;
+            });
+        }
+
+        assertThat(runTogether(client, adds)).isEmpty();
+
+        Cart cart = cartRepository.findByUserId(client.getId()).orElseThrow();
+        List<Object[]> lines = cartItemRepository.findLinesByCartId(cart.getId());
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0)[2]).isEqualTo(THREADS);
+        assertThat(cart.getTotalValue()).isEqualTo(2.5 * THREADS);
+    }
+
+    /**
+     * Libera todas as ações ao mesmo tempo, cada uma autenticada como o cliente,
+     * e retorna as falhas.
+     */
+    private List<Throwable> runTogether(Client client, List<Callable<Void>> actions) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> action : actions) {
+            futures.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(Fixtures.authentication(client));
+                try {
+                    start.await();
+                    return action.call();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        start.countDown();
+
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<Void> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        return failures;
+    }
+}
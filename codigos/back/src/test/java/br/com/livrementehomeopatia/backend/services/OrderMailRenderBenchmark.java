@@ -0,0 +1,211 @@
+package br.com.livrementehomeopatia.backend.services;
+
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+
+import br.com.livrementehomeopatia.backend.enums.OrderStatus;
+import br.com.livrementehomeopatia.backend.model.Client;
+import br.com.livrementehomeopatia.backend.model.HomeophaticOrder;
+import br.com.livrementehomeopatia.backend.model.Neighborhood;
+import br.com.livrementehomeopatia.backend.model.Order;
+import br.com.livrementehomeopatia.backend.model.OrderItem;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.model.ResaleOrder;
+import br.com.livrementehomeopatia.backend.repository.MailOutboxRepository;
+import br.com.livrementehomeopatia.backend.support.Benchmarks;
+
+/**
+ * Renderização do e-mail de novo pedido para a farmácia: template pré-compilado
+ * em segmentos ({@link MailService}) contra o caminho antigo, com text block,
+ * {@code formatted} e {@code String.format("%.2f")} por item, copiado abaixo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMailRenderBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int items;
+
+    private MailService mailService;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        mailService = new MailService(mock(MailOutboxRepository.class), mock(ApplicationEventPublisher.class));
+        order = order(items);
+    }
+
+    @Benchmark
+    public String precompiledSegments() {
+        return mailService.buildOrderNotificationHtml(order);
+    }
+
+    @Benchmark
+    public String formatted() {
+        return formattedOrderNotification(order);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmark() {
+        Benchmarks.run(OrderMailRenderBenchmark.class);
+    }
+
+    private static Order order(int items) {
+        Client client = new Client("Maria da Silva", "maria@teste.com", "senha", "81999990000", "12345678900");
+        Neighborhood neighborhood = new Neighborhood(1, "Boa Viagem", 7.5);
+        Order order = new ResaleOrder(client, neighborhood, 7.5, LocalDateTime.of(2026, 10, 1, 14, 30),
+                OrderStatus.AGUARDANDO_PAGAMENTO);
+        order.setId(4242);
+
+        double total = order.getDeliveryTax();
+        for (int i = 0; i < items; i++) {
+            Product product = new Product();
+            product.setName("Pomada de Arnica <" + i + "> 30g");
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(1 + i % 3);
+            item.setPrice(19.9 + i);
+            item.setOrder(order);
+            order.getItems().add(item);
+            total += item.getPrice() * item.getQuantity();
+        }
+        order.setTotalValue(total);
+        return order;
+    }
+
+    // Caminho antigo do MailService, mantido aqui só para comparação.
+
+    private static String formattedOrderNotification(Order order) {
+        String orderType = order instanceof HomeophaticOrder ? "Homeopático" : "Revenda";
+        String orderIcon = order instanceof HomeophaticOrder ? "🌿" : "🏪";
+        String actionNeeded;
+
+        if (order instanceof HomeophaticOrder) {
+            actionNeeded = "Aguardar o envio do orçamento e o contato via WhatsApp.";
+        } else {
+            actionNeeded = "Aguardar a confirmação do pagamento e entrar em contato com o cliente sobre a entrega.";
+        }
+
+        return """
+            <html>
+            <body style="font-family: Arial, sans-serif; padding: 20px; background-color: #f4f4f4;">
+                <div style="max-width: 700px; margin: auto; background: white; padding: 30px; border-radius: 10px;">
+                    <img src='cid:logoImage' alt='Logo' style='height: 60px; margin-bottom: 20px;'/>
+                    <h2 style="color: #333;">%s Novo Pedido %s</h2>
+                    
+                    <div style="background-color: #f8f9fa; padding: 15px; border-radius: 8px; margin-bottom: 25px;">
+                        <h3 style="margin: 0; color: #495057;">📋 Informações do Pedido</h3>
+                        <p style="margin: 5px 0;"><b>Número:</b> #%d</p>
+                        <p style="margin: 5px 0;"><b>Tipo:</b> %s</p>
+                        <p style="margin: 5px 0;"><b>Data:</b> %s</p>
+                        <p style="margin: 5px 0;"><b>Status:</b> %s</p>
+                    </div>
+
+                    <div style="background-color: #e3f2fd; padding: 15px; border-radius: 8px; margin-bottom: 25px;">
+                        <h3 style="margin: 0; color: #1976d2;">👤 Dados do Cliente</h3>
+                        <p style="margin: 5px 0;"><b>Nome:</b> %s</p>
+                        <p style="margin: 5px 0;"><b>E-mail:</b> %s</p>
+                        <p style="margin: 5px 0;"><b>Bairro:</b> %s</p>
+                    </div>
+
+                    <h3 style="color: #495057;">🛍️ Itens do Pedido</h3>
+                    <table style="width:100%%; border-collapse: collapse; margin-bottom: 20px;">
+                        <thead>
+                            <tr style="background-color: #f8f9fa;">
+                                <th style="border:1px solid #dee2e6; padding:12px; text-align:left;">Produto</th>
+                                <th style="border:1px solid #dee2e6; padding:12px; text-align:center;">Qtd</th>
+                                <th style="border:1px solid #dee2e6; padding:12px; text-align:right;">Valor Unit.</th>
+                                <th style="border:1px solid #dee2e6; padding:12px; text-align:right;">Subtotal</th>
+                            </tr>
+                        </thead>
+                        <tbody>
+                            %s
+                        </tbody>
+                    </table>
+
+                    <div style="background-color: #e8f5e8; padding: 15px; border-radius: 8px; margin-bottom: 20px;">
+                        <div style="display: flex; justify-content: space-between; margin-bottom: 5px;">
+                            <span><b>Subtotal:</b></span>
+                            <span>R$ %.2f</span>
+                        </div>
+                        <div style="display: flex; justify-content: space-between; margin-bottom: 5px;">
+                            <span><b>Taxa de Entrega:</b></span>
+                            <span>R$ %.2f</span>
+                        </div>
+                        <hr style="margin: 10px 0;">
+                        <div style="display: flex; justify-content: space-between; font-size: 18px;">
+                            <span><b>💰 Total:</b></span>
+                            <span><b>R$ %.2f</b></span>
+                        </div>
+                    </div>
+
+                    <div style="margin-top: 30px; padding: 15px; background-color: #fff3cd; border-radius: 8px;">
+                        <p style="margin: 0; font-size: 14px; color: #856404;">
+                            ⚠️ <b>Ação Necessária:</b> %s
+                        </p>
+                    </div>
+
+                    <div style="margin-top: 20px; padding: 15px; background-color: #e9ecef; border-radius: 8px;">
+                        <p style="margin: 0; font-size: 14px; color: #6c757d;">
+                            📧 Este e-mail foi gerado automaticamente pelo sistema.<br>
+                            🕐 Data/Hora: %s
+                        </p>
+                    </div>
+                </div>
+                <p style="font-size: 12px; color: #aaaaaa; margin-top: 30px; text-align: center;">© 2025 LivreMente Homeopatia</p>
+            </body>
+            </html>
+            """.formatted(
+                orderIcon, orderType,
+                order.getId(),
+                orderType,
+                order.getCreatedAt().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")),
+                order.getStatus().name(),
+                order.getUser().getFullName(),
+                order.getUser().getEmail(),
+                order.getNeighborhood() != null ? order.getNeighborhood().getName() : "N/A",
+                buildOrderItemsTableRows(order),
+                order.getTotalValue() - order.getDeliveryTax(),
+                order.getDeliveryTax(),
+                order.getTotalValue(),
+                actionNeeded,
+                java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))
+            );
+    }
+
+    private static String buildOrderItemsTableRows(Order order) {
+        StringBuilder sb = new StringBuilder();
+        order.getItems().forEach(item -> {
+            double subtotal = item.getPrice() * item.getQuantity();
+            sb.append("<tr>")
+                .append("<td style='border:1px solid #dee2e6; padding:10px;'>").append(item.getProduct().getName()).append("</td>")
+                .append("<td style='border:1px solid #dee2e6; padding:10px; text-align:center;'>").append(item.getQuantity()).append("</td>")
+                .append("<td style='border:1px solid #dee2e6; padding:10px; text-align:right;'>R$ ").append(String.format("%.2f", item.getPrice())).append("</td>")
+                .append("<td style='border:1px solid #dee2e6; padding:10px; text-align:right;'>R$ ").append(String.format("%.2f", subtotal)).append("</td>")
+                .append("</tr>");
+        });
+        return sb.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.livrementehomeopatia.backend.support;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa benchmarks JMH a partir de testes marcados com {@code @Tag("benchmark")}.
+ * <p>
+ * Esses testes ficam fora do {@code mvn test} comum; para rodá-los:
+ * {@code mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark}. Os resultados
+ * são impressos no console e gravados em {@code target/jmh-<classe>.json}.
+ * </p>
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Roda todos os métodos {@code @Benchmark} da classe informada.
+     *
+     * @param benchmarkClass classe com os benchmarks
+     */
+    public static void run(Class<?> benchmarkClass) {
+        Options options = new OptionsBuilder()
+                .include(benchmarkClass.getName() + "\\.")
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + benchmarkClass.getSimpleName() + ".json")
+                .build();
+        try {
+            if (new Runner(options).run().isEmpty()) {
+                throw new IllegalStateException("Nenhum benchmark de " + benchmarkClass.getSimpleName()
+                        + " terminou; veja os erros acima");
+            }
+        } catch (RunnerException e) {
+            throw new IllegalStateException("Falha ao executar o benchmark " + benchmarkClass.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.livrementehomeopatia.backend.support;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import br.com.livrementehomeopatia.backend.enums.Categories;
+import br.com.livrementehomeopatia.backend.enums.OrderStatus;
+import br.com.livrementehomeopatia.backend.enums.ProductType;
+import br.com.livrementehomeopatia.backend.infra.security.LoggedUser;
+import br.com.livrementehomeopatia.backend.infra.admin.model.Admin;
+import br.com.livrementehomeopatia.backend.model.Client;
+import br.com.livrementehomeopatia.backend.model.Neighborhood;
+import br.com.livrementehomeopatia.backend.model.OrderItem;
+import br.com.livrementehomeopatia.backend.model.Product;
+import br.com.livrementehomeopatia.backend.model.ResaleOrder;
+import br.com.livrementehomeopatia.backend.model.User;
+import br.com.livrementehomeopatia.backend.repository.NeighborhoodRepository;
+import br.com.livrementehomeopatia.backend.repository.OrderRepository;
+import br.com.livrementehomeopatia.backend.repository.ProductRepository;
+import br.com.livrementehomeopatia.backend.repository.UserRepository;
+
+/**
+ * Dados de teste com nomes e e-mails únicos, para que os testes de integração
+ * compartilhem o mesmo banco sem interferir uns nos outros.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static Client client(UserRepository userRepository) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(new Client("Cliente " + suffix, "cliente-" + suffix + "@teste.com",
+                "senha-criptografada", "11999999999", null));
+    }
+
+    public static Admin admin(UserRepository userRepository) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Admin admin = new Admin();
+        admin.setFullName("Admin " + suffix);
+        admin.setEmail("admin-" + suffix + "@teste.com");
+        admin.setPassword("senha-criptografada");
+        return userRepository.save(admin);
+    }
+
+    public static Neighborhood neighborhood(NeighborhoodRepository neighborhoodRepository) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return neighborhoodRepository.save(new Neighborhood(null, "Bairro " + suffix, 5.0));
+    }
+
+    /**
+     * Pedido de revenda com um único item, gravado com a data e a situação informadas.
+     */
+    public static ResaleOrder resaleOrder(OrderRepository orderRepository, User user, Neighborhood neighborhood,
+            Product product, int quantity, LocalDateTime createdAt, OrderStatus status) {
+        ResaleOrder order = new ResaleOrder(user, neighborhood, neighborhood.getTax(), createdAt, status);
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setPrice(product.getPrice());
+        order.getItems().add(item);
+        order.setTotalValue(neighborhood.getTax() + product.getPrice() * quantity);
+        return orderRepository.save(order);
+    }
+
+    public static Product product(ProductRepository productRepository, ProductType type, double price) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return productRepository.save(new Product(null, "Produto " + suffix, "Descrição do produto " + suffix,
+                price, true, type, Set.of(Categories.CREMES)));
+    }
+
+    /**
+     * Autentica a requisição como o usuário informado, do mesmo modo que o
+     * {@code SecurityFilter} faz a partir do token.
+     */
+    public static RequestPostProcessor as(User user) {
+        return SecurityMockMvcRequestPostProcessors.authentication(authentication(user));
+    }
+
+    public static UsernamePasswordAuthenticationToken authentication(User user) {
+        String role = "ROLE_" + user.getRole().name();
+        return new UsernamePasswordAuthenticationToken(new LoggedUser(user.getId(), user.getEmail(), role), null,
+                List.of(new SimpleGrantedAuthority(role)));
+    }
+}
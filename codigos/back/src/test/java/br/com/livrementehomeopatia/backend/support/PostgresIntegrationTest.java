@@ -0,0 +1,39 @@
+package br.com.livrementehomeopatia.backend.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import br.com.livrementehomeopatia.backend.BackendApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Base dos testes de integração que precisam de um PostgreSQL real (consultas
+ * nativas, upserts, SKIP LOCKED). Um único servidor embutido é iniciado para
+ * toda a execução dos testes, sem depender de Docker.
+ */
+@SpringBootTest(classes = BackendApplication.class)
+@ActiveProfiles("test")
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível iniciar o PostgreSQL embutido", e);
+        }
+    }
+}
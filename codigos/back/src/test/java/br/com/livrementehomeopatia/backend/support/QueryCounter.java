@@ -0,0 +1,51 @@
+package br.com.livrementehomeopatia.backend.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registra os comandos SQL preparados pelo Hibernate na thread atual.
+ * <p>
+ * Registrado nos testes pela propriedade
+ * {@code hibernate.session_factory.statement_inspector}. A contagem é por
+ * thread para que as tarefas agendadas (outboxes, reconciliador) não
+ * interfiram nas contagens de uma requisição.
+ * </p>
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = RECORDING.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Executa a ação e retorna os comandos SQL que ela disparou nesta thread.
+     *
+     * @param action ação a ser medida
+     * @return comandos SQL, na ordem em que foram preparados
+     */
+    public static List<String> record(ThrowingRunnable action) throws Exception {
+        List<String> statements = new ArrayList<>();
+        RECORDING.set(statements);
+        try {
+            action.run();
+        } finally {
+            RECORDING.remove();
+        }
+        return statements;
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
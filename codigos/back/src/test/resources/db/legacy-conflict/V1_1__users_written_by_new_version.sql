@@ -0,0 +1,10 @@
+-- A versão nova subiu sobre o esquema antigo sem a V2: o ddl-auto=update
+-- criou users ao lado de client/doctor/admin e um cadastro foi gravado nela.
+
+CREATE TABLE users (
+    id        INTEGER      NOT NULL PRIMARY KEY,
+    full_name VARCHAR(255) NOT NULL,
+    email     VARCHAR(255) NOT NULL UNIQUE
+);
+
+INSERT INTO users (id, full_name, email) VALUES (1000, 'Cadastro novo', 'novo@teste.com');
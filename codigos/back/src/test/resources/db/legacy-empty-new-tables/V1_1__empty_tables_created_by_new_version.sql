@@ -0,0 +1,16 @@
+-- A versão nova subiu sobre o esquema antigo sem a V2, mas nada foi gravado:
+-- orders e users existem, vazias, ao lado das tabelas antigas, e as
+-- sequências com os nomes novos recomeçam do 1.
+
+CREATE TABLE orders (
+    id         INTEGER     NOT NULL PRIMARY KEY,
+    order_type VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE users (
+    id    INTEGER      NOT NULL PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,144 @@
+-- Esquema anterior à V2 (Order e User em TABLE_PER_CLASS), com dados
+-- sintéticos: ${clients} clientes, um médico, um administrador e ${orders}
+-- pedidos, metade de cada tipo, distribuídos entre os clientes.
+
+-- Sequências que o Hibernate usava com TABLE_PER_CLASS, nomeadas pela classe raiz.
+CREATE SEQUENCE order_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE user_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE neighborhoods (
+    id   INTEGER          NOT NULL PRIMARY KEY,
+    name VARCHAR(255)     NOT NULL UNIQUE,
+    tax  DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE client (
+    id           INTEGER      NOT NULL PRIMARY KEY,
+    full_name    VARCHAR(255) NOT NULL,
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    password     VARCHAR(255) NOT NULL,
+    phone        VARCHAR(255) NOT NULL,
+    active       BOOLEAN      NOT NULL,
+    created_date DATE,
+    role         VARCHAR(255),
+    cpf          VARCHAR(255)
+);
+
+CREATE TABLE doctor (
+    id           INTEGER      NOT NULL PRIMARY KEY,
+    full_name    VARCHAR(255) NOT NULL,
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    password     VARCHAR(255) NOT NULL,
+    phone        VARCHAR(255) NOT NULL,
+    active       BOOLEAN      NOT NULL,
+    created_date DATE,
+    role         VARCHAR(255),
+    crm          VARCHAR(255)
+);
+
+CREATE TABLE admin (
+    id           INTEGER      NOT NULL PRIMARY KEY,
+    full_name    VARCHAR(255) NOT NULL,
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    password     VARCHAR(255) NOT NULL,
+    phone        VARCHAR(255) NOT NULL,
+    active       BOOLEAN      NOT NULL,
+    created_date DATE,
+    role         VARCHAR(255)
+);
+
+CREATE TABLE order_quote (
+    id        INTEGER      NOT NULL PRIMARY KEY,
+    user_id   INTEGER,
+    order_id  INTEGER,
+    full_name VARCHAR(255) NOT NULL,
+    phone     VARCHAR(255) NOT NULL,
+    email     VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE homeopathic_orders (
+    id              INTEGER          NOT NULL PRIMARY KEY,
+    user_id         INTEGER          NOT NULL,
+    neighborhood_id INTEGER          NOT NULL REFERENCES neighborhoods (id),
+    total_value     DOUBLE PRECISION NOT NULL,
+    delivery_tax    DOUBLE PRECISION NOT NULL,
+    created_at      TIMESTAMP(6)     NOT NULL,
+    status          VARCHAR(255)     NOT NULL,
+    order_quote_id  INTEGER          UNIQUE REFERENCES order_quote (id)
+);
+
+CREATE TABLE resale_orders (
+    id                         INTEGER          NOT NULL PRIMARY KEY,
+    user_id                    INTEGER          NOT NULL,
+    neighborhood_id            INTEGER          NOT NULL REFERENCES neighborhoods (id),
+    total_value                DOUBLE PRECISION NOT NULL,
+    delivery_tax               DOUBLE PRECISION NOT NULL,
+    created_at                 TIMESTAMP(6)     NOT NULL,
+    status                     VARCHAR(255)     NOT NULL,
+    checkout_pro_link          TEXT,
+    mercado_pago_preference_id VARCHAR(255),
+    mercado_pago_payment_id    BIGINT
+);
+
+CREATE TABLE order_items (
+    id         INTEGER          NOT NULL PRIMARY KEY,
+    order_id   INTEGER,
+    product_id INTEGER          NOT NULL,
+    quantity   INTEGER          NOT NULL,
+    price      DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE cart (
+    id          INTEGER          NOT NULL PRIMARY KEY,
+    user_id     INTEGER          NOT NULL UNIQUE,
+    total_value DOUBLE PRECISION
+);
+
+CREATE TABLE cart_item (
+    id      INTEGER NOT NULL PRIMARY KEY,
+    user_id INTEGER,
+    cart_id INTEGER REFERENCES cart (id)
+);
+
+CREATE TABLE password_reset_token (
+    id      INTEGER      NOT NULL PRIMARY KEY,
+    token   VARCHAR(255) NOT NULL,
+    user_id INTEGER      NOT NULL UNIQUE
+);
+
+INSERT INTO neighborhoods (id, name, tax) VALUES (1, 'Centro', 5.0);
+
+INSERT INTO client (id, full_name, email, password, phone, active, created_date, role)
+SELECT i, 'Cliente ' || i, 'cliente' || i || '@teste.com', 'senha', '11999999999', TRUE, DATE '2025-01-01', 'CLIENTE'
+FROM generate_series(1, ${clients}) AS i;
+
+INSERT INTO doctor (id, full_name, email, password, phone, active, created_date, role, crm)
+VALUES (${clients} + 1, 'Médica', 'medica@teste.com', 'senha', '11988888888', TRUE, DATE '2025-01-01', 'MEDICO',
+        '123456-PE');
+
+INSERT INTO admin (id, full_name, email, password, phone, active, created_date, role)
+VALUES (${clients} + 2, 'Admin', 'admin@teste.com', 'senha', '00000000000', TRUE, DATE '2025-01-01', 'ADMIN');
+
+INSERT INTO homeopathic_orders (id, user_id, neighborhood_id, total_value, delivery_tax, created_at, status)
+SELECT i, 1 + i % ${clients}, 1, 55.0, 5.0, TIMESTAMP '2025-01-01' + i * INTERVAL '1 minute', 'EM_ANDAMENTO'
+FROM generate_series(1, ${orders} / 2) AS i;
+
+INSERT INTO resale_orders (id, user_id, neighborhood_id, total_value, delivery_tax, created_at, status,
+                           checkout_pro_link)
+SELECT i, 1 + i % ${clients}, 1, 35.0, 5.0, TIMESTAMP '2025-01-01' + i * INTERVAL '1 minute', 'PAGO',
+       'https://mp.example/' || i
+FROM generate_series(${orders} / 2 + 1, ${orders}) AS i;
+
+INSERT INTO order_items (id, order_id, product_id, quantity, price)
+SELECT i, i, 1, 2, 15.0 FROM generate_series(1, ${orders}) AS i;
+
+INSERT INTO order_quote (id, user_id, order_id, full_name, phone, email)
+VALUES (1, 1, 1, 'Cliente 1', '11999999999', 'cliente1@teste.com');
+UPDATE homeopathic_orders SET order_quote_id = 1 WHERE id = 1;
+
+INSERT INTO cart (id, user_id, total_value) VALUES (1, 1, 0.0);
+
+SELECT setval('order_seq', ${orders});
+SELECT setval('user_seq', ${clients} + 2);
+
+ANALYZE;
@@ -1,6 +1,7 @@
 import React, { useState } from 'react';
 import { useNavigate, Link } from 'react-router-dom';
 import { api } from '../services/api';
+import { cabecalhoCarrinhoVisitante, limparCarrinhoVisitante } from '../services/guestCartService';
 import '../styles/Login.css';
 import logo from '../assets/Logo.png';
 import homeopatia from '../assets/Homeopatia.jpg';
@@ -36,7 +37,9 @@ export default function Login(): JSX.Element {
   setLoading(true);
 
   try {
-    const response = await api.post('/auth/login', form);
+    // Envia o carrinho de visitante para ser incorporado ao da conta.
+    const response = await api.post('/auth/login', form, { headers: cabecalhoCarrinhoVisitante() });
+    limparCarrinhoVisitante();
     
     console.log('ROLE RECEBIDO:', response.data.role); // <--- DEBUG
 
@@ -1,4 +1,4 @@
-import React, { useEffect, useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import {api} from '../services/api';
 import '../styles/MeusPedidos.css';
@@ -9,7 +9,7 @@ interface PedidoItem {
   productName: string;
   quantity: number;
   price: number;
-  productImageBase64?: string;
+  productImageUrl?: string;
 }
 
 interface Pedido {
@@ -20,14 +20,23 @@ interface Pedido {
   totalValue: number;
   deliveryTax: number;
   totalWithDelivery: number;
-  fullName: string;
   neighborhoodName: string;
 }
 
+interface PaginaDePedidos {
+  orders: Pedido[];
+  nextCursor: string | null;
+}
+
+const TAMANHO_PAGINA = 20;
+
 const MeusPedidos: React.FC = () => {
   const [filtro, setFiltro] = useState('Todos');
   const [pedidos, setPedidos] = useState<Pedido[]>([]);
+  const [proximoCursor, setProximoCursor] = useState<string | null>(null);
   const [carregando, setCarregando] = useState(true);
+  const [carregandoMais, setCarregandoMais] = useState(false);
+  const paginasExtras = useRef(0);
   const [modalProdutos, setModalProdutos] = useState({ aberto: false, pedido: null as Pedido | null });
   const [modalDetalhes, setModalDetalhes] = useState({ aberto: false, pedido: null as Pedido | null });
   const [atualizando, setAtualizando] = useState(false);
@@ -57,6 +66,18 @@ const MeusPedidos: React.FC = () => {
     fetchStatusOptions();
   }, []);
 
+  const buscarPagina = async (token: string, cursor?: string | null) => {
+    const { data } = await api.get<PaginaDePedidos>('/orders/myOrders/page', {
+      headers: { Authorization: `Bearer ${token}` },
+      params: { size: TAMANHO_PAGINA, ...(cursor ? { cursor } : {}) },
+    });
+    return data;
+  };
+
+  /**
+   * Recarrega a primeira página do histórico. Páginas mais antigas já
+   * carregadas com "Carregar mais" são mantidas, sem repetir pedidos.
+   */
   const fetchPedidos = async (mostrarCarregando = true) => {
     try {
       if (mostrarCarregando) setCarregando(true);
@@ -65,11 +86,15 @@ const MeusPedidos: React.FC = () => {
       const token = localStorage.getItem('token');
       if (!token) return navigate('/login');
 
-      const { data } = await api.get('/orders/myOrders', {
-        headers: { Authorization: `Bearer ${token}` },
-      });
+      const pagina = await buscarPagina(token);
+      const ids = new Set(pagina.orders.map(p => p.id));
 
-      setPedidos(data);
+      if (paginasExtras.current === 0) {
+        setPedidos(pagina.orders);
+        setProximoCursor(pagina.nextCursor);
+      } else {
+        setPedidos(anteriores => [...pagina.orders, ...anteriores.filter(p => !ids.has(p.id))]);
+      }
     } catch (error) {
       console.error('Erro ao buscar pedidos:', error);
     } finally {
@@ -78,6 +103,27 @@ const MeusPedidos: React.FC = () => {
     }
   };
 
+  const carregarMais = async () => {
+    if (!proximoCursor) return;
+    try {
+      setCarregandoMais(true);
+      const token = localStorage.getItem('token');
+      if (!token) return navigate('/login');
+
+      const pagina = await buscarPagina(token, proximoCursor);
+      setPedidos(anteriores => {
+        const ids = new Set(anteriores.map(p => p.id));
+        return [...anteriores, ...pagina.orders.filter(p => !ids.has(p.id))];
+      });
+      setProximoCursor(pagina.nextCursor);
+      paginasExtras.current += 1;
+    } catch (error) {
+      console.error('Erro ao carregar mais pedidos:', error);
+    } finally {
+      setCarregandoMais(false);
+    }
+  };
+
   useEffect(() => {
     fetchPedidos();
 
@@ -187,6 +233,14 @@ const MeusPedidos: React.FC = () => {
             ))}
           </div>
         )}
+
+        {!carregando && proximoCursor && (
+          <div className="carregar-mais">
+            <button className="btn-secundario" onClick={carregarMais} disabled={carregandoMais}>
+              {carregandoMais ? 'Carregando...' : 'Carregar mais'}
+            </button>
+          </div>
+        )}
       </div>
 
       {/* Modal Produtos */}
@@ -202,7 +256,7 @@ const MeusPedidos: React.FC = () => {
                 <p>Nenhum produto encontrado neste pedido.</p>
               ) : modalProdutos.pedido.items.map((item, i) => (
                 <div key={i} className="item-produto-modal">
-                  <img src={item.productImageBase64 ? `data:image/jpeg;base64,${item.productImageBase64}` : logo} alt={item.productName} />
+                  <img src={item.productImageUrl || logo} alt={item.productName} />
                   <div className="detalhes-produto-modal">
                     <h3>{item.productName}</h3>
                     <p>Qtd: {item.quantity}</p>
@@ -227,7 +281,7 @@ const MeusPedidos: React.FC = () => {
             <div className="modal-body">
               <p><strong>Data:</strong> {new Date(modalDetalhes.pedido.orderDate).toLocaleDateString('pt-BR')}</p>
               <p><strong>Status:</strong> {getStatusDescricao(modalDetalhes.pedido.status)}</p>
-              <p><strong>Nome:</strong> {modalDetalhes.pedido.fullName}</p>
+              <p><strong>Nome:</strong> {localStorage.getItem('userName')}</p>
               <p><strong>Bairro:</strong> {modalDetalhes.pedido.neighborhoodName}</p>
               <p><strong>Produtos:</strong> {modalDetalhes.pedido.items.length}</p>
               <p><strong>Subtotal:</strong> R$ {modalDetalhes.pedido.totalValue?.toFixed(2)}</p>
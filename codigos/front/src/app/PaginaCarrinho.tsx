@@ -5,15 +5,31 @@ import ItemProduto from '../components/ItemProduto';
 import InformacaoEntrega from '../components/InformacaoEntrega';
 import '../styles/PaginaCarrinho.css';
 import { api } from '../services/api';
+import {
+  adicionarAoCarrinho,
+  diminuirNoCarrinho,
+  notificarCarrinhoAlterado,
+  removerDoCarrinho,
+  ResumoCarrinho,
+} from '../services/cartService';
+import {
+  adicionarAoCarrinhoVisitante,
+  CarrinhoVisitante,
+  carregarCarrinhoVisitante,
+  diminuirNoCarrinhoVisitante,
+  estaLogado,
+  quantidadeDeItens,
+  removerDoCarrinhoVisitante,
+} from '../services/guestCartService';
 
 interface Produto {
-  cartItemId: number;
+  cartItemId: number | null;
   productId: number;
   productName: string;
   productPrice: number;
   quantity: number;
   productType: 'REVENDA' | 'HOMEOPATICO';
-  productPhotoBase64?: string;
+  productImageUrl?: string;
 }
 
 interface Bairro {
@@ -21,10 +37,18 @@ interface Bairro {
   tax: number;
 }
 
+const tipoDoCarrinho = (produtos: Produto[]): 'REVENDA' | 'HOMEOPATICO' | 'MISTO' | null => {
+  const temHomeopaticos = produtos.some(p => p.productType === 'HOMEOPATICO');
+  const temRevenda = produtos.some(p => p.productType === 'REVENDA');
+  if (temHomeopaticos && temRevenda) return 'MISTO';
+  if (temHomeopaticos) return 'HOMEOPATICO';
+  if (temRevenda) return 'REVENDA';
+  return null;
+};
+
 const PaginaCarrinho = () => {
   const navigate = useNavigate();
   const [produtos, setProdutos] = useState<Produto[]>([]);
-  const [tipoCarrinho, setTipoCarrinho] = useState<'REVENDA' | 'HOMEOPATICO' | 'MISTO' | null>(null);
   const [bairroSelecionado, setBairroSelecionado] = useState('');
   const [bairrosDisponiveis, setBairrosDisponiveis] = useState<Bairro[]>([]);
   const [observacao, setObservacao] = useState('');
@@ -32,6 +56,7 @@ const PaginaCarrinho = () => {
   const [loading, setLoading] = useState(true);
   const [isProcessing, setIsProcessing] = useState(false);
   const [error, setError] = useState('');
+  const tipoCarrinho = tipoDoCarrinho(produtos);
 
   const carregarBairros = async () => {
     try {
@@ -50,21 +75,10 @@ const PaginaCarrinho = () => {
   const carregarCarrinho = async () => {
     try {
       setLoading(true);
-      const response = await api.get('/cart/items');
-      const produtosDoCarrinho: Produto[] = Array.isArray(response.data) ? response.data : [];
+      const produtosDoCarrinho: Produto[] = estaLogado()
+        ? await api.get('/cart/items').then(response => Array.isArray(response.data) ? response.data : [])
+        : (await carregarCarrinhoVisitante()).items;
       setProdutos(produtosDoCarrinho);
-
-      if (produtosDoCarrinho.length > 0) {
-        const temHomeopaticos = produtosDoCarrinho.some(p => p.productType === 'HOMEOPATICO');
-        const temRevenda = produtosDoCarrinho.some(p => p.productType === 'REVENDA');
-
-        if (temHomeopaticos && !temRevenda) setTipoCarrinho('HOMEOPATICO');
-        else if (!temHomeopaticos && temRevenda) setTipoCarrinho('REVENDA');
-        else if (temHomeopaticos && temRevenda) setTipoCarrinho('MISTO');
-        else setTipoCarrinho(null);
-      } else {
-        setTipoCarrinho(null);
-      }
     } catch (err) {
       console.error('Erro ao carregar carrinho:', err);
       setError('Erro ao carregar o carrinho. Tente novamente mais tarde.');
@@ -73,6 +87,35 @@ const PaginaCarrinho = () => {
     }
   };
 
+  /**
+   * Atualiza quantidades e preços a partir do resumo devolvido pela alteração,
+   * sem buscar os itens de novo. Nome, tipo e foto vêm da lista exibida; um
+   * produto que não esteja nela (adicionado em outra aba) faz a lista ser
+   * recarregada. Resumos antigos chegam como null e são ignorados.
+   */
+  const aplicarResumo = (resumo: ResumoCarrinho | null) => {
+    if (!resumo) return;
+    notificarCarrinhoAlterado(resumo.itemCount);
+
+    const exibidos = new Set(produtos.map(p => p.productId));
+    if (resumo.items.some(item => !exibidos.has(item.productId))) {
+      carregarCarrinho();
+      return;
+    }
+    const noResumo = new Map(resumo.items.map(item => [item.productId, item]));
+    setProdutos(produtos
+      .filter(p => noResumo.has(p.productId))
+      .map(p => {
+        const item = noResumo.get(p.productId)!;
+        return { ...p, cartItemId: item.cartItemId, quantity: item.quantity, productPrice: item.productPrice };
+      }));
+  };
+
+  const aplicarCarrinhoVisitante = (carrinho: CarrinhoVisitante) => {
+    setProdutos(carrinho.items);
+    notificarCarrinhoAlterado(quantidadeDeItens(carrinho));
+  };
+
   useEffect(() => {
     carregarCarrinho();
     carregarBairros();
@@ -92,9 +135,11 @@ const PaginaCarrinho = () => {
 
   const adicionarProduto = async (productId: number) => {
   try {
-    await api.post('/cart/add', null, { params: { productId } });
-    await carregarCarrinho();
-    window.dispatchEvent(new CustomEvent('cartUpdated'));
+    if (estaLogado()) {
+      aplicarResumo(await adicionarAoCarrinho(productId));
+    } else {
+      aplicarCarrinhoVisitante(await adicionarAoCarrinhoVisitante(productId));
+    }
     setError('');
   } catch (err: any) {
     console.error('Erro ao adicionar produto:', err);
@@ -115,9 +160,11 @@ const PaginaCarrinho = () => {
     try {
       const produtoAtual = produtos.find(p => p.productId === productId);
       if (produtoAtual && produtoAtual.quantity > 1) {
-        await api.post('/cart/decrease', null, { params: { productId } });
-        await carregarCarrinho();
-        window.dispatchEvent(new CustomEvent('cartUpdated'));
+        if (estaLogado()) {
+          aplicarResumo(await diminuirNoCarrinho(productId));
+        } else {
+          aplicarCarrinhoVisitante(await diminuirNoCarrinhoVisitante(productId));
+        }
       }
     } catch(err) {
       console.error('Erro ao diminuir quantidade:', err);
@@ -126,9 +173,11 @@ const PaginaCarrinho = () => {
 
   const removerProduto = async (productId: number) => {
     try {
-      await api.delete('/cart/remove', { params: { productId } });
-      await carregarCarrinho();
-      window.dispatchEvent(new CustomEvent('cartUpdated'));
+      if (estaLogado()) {
+        aplicarResumo(await removerDoCarrinho(productId));
+      } else {
+        aplicarCarrinhoVisitante(await removerDoCarrinhoVisitante(productId));
+      }
       setError('');
     } catch (err) {
       console.error('Erro ao remover produto:', err);
@@ -138,6 +187,25 @@ const PaginaCarrinho = () => {
   const totalProdutos = produtos.reduce((soma, p) => soma + p.productPrice * p.quantity, 0);
   const total = totalProdutos + frete;
 
+  /**
+   * Consulta o link de pagamento de um pedido de revenda até que ele fique
+   * pronto, falhe ou o tempo limite seja atingido.
+   */
+  const aguardarLinkDePagamento = async (orderId: number): Promise<string> => {
+    const limite = Date.now() + 60000;
+    while (Date.now() < limite) {
+      await new Promise((resolve) => setTimeout(resolve, 1500));
+      const { data } = await api.get(`/orders/${orderId}/payment-link`);
+      if (data.status === 'DONE' && data.paymentUrl) {
+        return data.paymentUrl;
+      }
+      if (data.status === 'FAILED') {
+        throw new Error("Não foi possível gerar o link de pagamento do seu pedido. Tente novamente mais tarde ou fale conosco.");
+      }
+    }
+    throw new Error("O link de pagamento está demorando mais que o esperado. Seu pedido foi registrado e pode ser acompanhado em Meus Pedidos.");
+  };
+
   const finalizarCompra = async () => {
     if (!bairroSelecionado) {
       alert("Por favor, selecione um bairro para calcular o frete.");
@@ -148,6 +216,12 @@ const PaginaCarrinho = () => {
       return;
     }
     if (isProcessing) return;
+    if (!estaLogado()) {
+      // O carrinho de visitante é incorporado à conta no login.
+      alert("Entre ou cadastre-se para finalizar o pedido. Os produtos do carrinho serão mantidos.");
+      navigate('/login');
+      return;
+    }
 
     setIsProcessing(true);
 
@@ -159,7 +233,10 @@ const PaginaCarrinho = () => {
       console.log("Resposta do backend recebida:", response.data);
 
       if (tipoCarrinho === 'REVENDA') {
-        const paymentUrl = response.data.paymentUrl;
+        // 202: o pedido foi criado, mas o link de pagamento ainda está sendo gerado.
+        const paymentUrl = response.status === 202
+          ? await aguardarLinkDePagamento(response.data.orderDetails.id)
+          : response.data.paymentUrl;
         if (!paymentUrl || typeof paymentUrl !== 'string') {
           throw new Error("A resposta do servidor não incluiu uma URL de pagamento válida.");
         }
@@ -205,7 +282,7 @@ const PaginaCarrinho = () => {
                 id={produto.productId}
                 nome={produto.productName}
                 preco={produto.productPrice}
-                photo={produto.productPhotoBase64 || ''}
+                photo={produto.productImageUrl || ''}
                 quantidade={produto.quantity}
                 type={produto.productType}
                 onQuantidadeChange={(e) => {
@@ -5,11 +5,14 @@ import ListaDeProdutos from '../components/ListaDeProdutos';
 import ProdutoCard from '../components/ProdutoCard';
 import fallbackImg from '../assets/Logo.png';
 import { api } from '../services/api';
+import { adicionarAoCarrinho as adicionarAoCarrinhoDoUsuario, notificarCarrinhoAlterado } from '../services/cartService';
+import { adicionarAoCarrinhoVisitante, estaLogado, quantidadeDeItens } from '../services/guestCartService';
 
 type Produto = {
   id: number;
   name: string;
   photo: string;
+  cardPhoto?: string;
   price: number;
   available: boolean;
   description: string;
@@ -41,22 +44,17 @@ const PaginaProdutos: React.FC = () => {
 
   const adicionarAoCarrinho = async (productId: number) => {
     try {
-      const token = localStorage.getItem("token");
-      if (!token) {
-        setMensagemFeedback({
-          tipo: 'erro',
-          texto: 'Você precisa estar logado para adicionar produtos ao carrinho.'
-        });
-        setTimeout(() => setMensagemFeedback(null), 4000);
-        return;
+      // Visitantes usam o carrinho assinado, incorporado à conta no login.
+      // A resposta já traz a quantidade de itens: o contador não consulta a API.
+      if (estaLogado()) {
+        const resumo = await adicionarAoCarrinhoDoUsuario(productId);
+        if (resumo) {
+          notificarCarrinhoAlterado(resumo.itemCount);
+        }
+      } else {
+        notificarCarrinhoAlterado(quantidadeDeItens(await adicionarAoCarrinhoVisitante(productId)));
       }
       
-      const response = await api.post(`/cart/add?productId=${productId}`);
-
-      console.log('Produto adicionado com sucesso:', response.data);
-      
-      window.dispatchEvent(new CustomEvent('cartUpdated'));
-      
       setMensagemFeedback({
         tipo: 'sucesso',
         texto: 'Produto adicionado ao carrinho com sucesso!'
@@ -195,7 +193,7 @@ const PaginaProdutos: React.FC = () => {
                   key={produto.id}
                   produto={{
                     ...produto,
-                    photo: produto.photo || `/api/product/${produto.id}/image`,
+                    photo: produto.cardPhoto || produto.photo,
                   }}
                   onAdicionarAoCarrinho={adicionarAoCarrinho}
                   onVerDetalhes={setProdutoSelecionado}
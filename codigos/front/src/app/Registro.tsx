@@ -1,6 +1,7 @@
 import React, { useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { api } from '../services/api';
+import { cabecalhoCarrinhoVisitante, limparCarrinhoVisitante } from '../services/guestCartService';
 import { IMaskInput } from 'react-imask';
 import '../styles/Registro.css';
 import logo from '../assets/Logo.png';
@@ -114,7 +115,8 @@ export default function Registro() {
     const endpoint = tipo === 'cliente' ? '/auth/register/client' : '/auth/register/doctor';
 
     try {
-      const response = await api.post(endpoint, payload);
+      const response = await api.post(endpoint, payload, { headers: cabecalhoCarrinhoVisitante() });
+      limparCarrinhoVisitante();
       localStorage.setItem('token', response.data.token);
       localStorage.setItem('userName', response.data.name);
       setMensagemSucesso('Cadastro realizado com sucesso!');
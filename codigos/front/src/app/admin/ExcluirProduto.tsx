@@ -11,7 +11,7 @@ interface Produto {
   available: boolean;
   type: string;
   categories: string[];
-  photo?: string; // base64
+  photo?: string; // URL da imagem
 }
 
 export default function ExcluirProduto() {
@@ -110,7 +110,7 @@ export default function ExcluirProduto() {
           {/* Exibe a imagem do produto, se existir */}
           {produto.photo && (
             <img
-              src={`data:image/png;base64,${produto.photo}`}
+              src={produto.photo}
               alt="Imagem do produto"
               className="preview-imagem"
               style={{ marginTop: 16, maxWidth: 200, maxHeight: 120 }}
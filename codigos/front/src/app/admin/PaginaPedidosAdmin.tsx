@@ -8,7 +8,7 @@ interface PedidoItem {
   productName: string;
   quantity: number;
   price: number;
-  productImageBase64?: string;
+  productImageUrl?: string;
 }
 
 interface Pedido {
@@ -23,6 +23,13 @@ interface Pedido {
   neighborhoodName: string;
 }
 
+interface PaginaDePedidos {
+  orders: Pedido[];
+  nextCursor: string | null;
+}
+
+const TAMANHO_PAGINA = 20;
+
 interface Notificacao {
   id: number;
   tipo: 'sucesso' | 'erro';
@@ -31,8 +38,9 @@ interface Notificacao {
 
 const PaginaPedidosAdmin: React.FC = () => {
   const [pedidos, setPedidos] = useState<Pedido[]>([]);
-  const [pedidosExibidos, setPedidosExibidos] = useState<Pedido[]>([]);
+  const [proximoCursor, setProximoCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState<boolean>(true);
+  const [carregandoMais, setCarregandoMais] = useState<boolean>(false);
   const [statusAtualizado, setStatusAtualizado] = useState<{ [id: number]: string }>({});
   const [notificacoes, setNotificacoes] = useState<Notificacao[]>([]);
   const [filtroStatus, setFiltroStatus] = useState<string>('todos');
@@ -59,74 +67,72 @@ const PaginaPedidosAdmin: React.FC = () => {
     fetchStatusOptions();
   }, []);
 
+  /**
+   * Busca uma página de pedidos no servidor, já filtrada e ordenada.
+   */
+  const buscarPagina = async (cursor?: string | null) => {
+    const params: Record<string, string | number> = {
+      sort: ordenacao === 'antigo' ? 'oldest' : 'newest',
+      size: TAMANHO_PAGINA,
+    };
+    if (filtroStatus !== 'todos') params.status = filtroStatus;
+    if (dataInicial) params.from = dataInicial;
+    if (dataFinal) params.to = dataFinal;
+    if (cursor) params.cursor = cursor;
+
+    const { data } = await api.get<PaginaDePedidos>('/orders/admin/search', { params });
+    return data;
+  };
+
+  const registrarStatus = (novos: Pedido[]) => {
+    setStatusAtualizado(prev => {
+      const proximo = { ...prev };
+      novos.forEach(pedido => proximo[pedido.id] = pedido.status);
+      return proximo;
+    });
+  };
+
+  // Recarrega a primeira página sempre que os filtros mudarem
   useEffect(() => {
     const fetchPedidos = async () => {
       try {
         setLoading(true);
-        
+
         const token = localStorage.getItem('token');
         if (!token) return navigate('/login');
 
-
-        const { data } = await api.get('/orders/allOrders', {
-          headers: { Authorization: `Bearer ${token}` },
-        });
-        
-        setPedidos(data);
-        setPedidosExibidos(data);
-        
-        // Inicializar status atualizado com status atual
-        const statusInicial: { [id: number]: string } = {};
-        data.forEach((pedido: Pedido) => statusInicial[pedido.id] = pedido.status);
-        setStatusAtualizado(statusInicial);
-        
-        setLoading(false);
+        const pagina = await buscarPagina();
+        setPedidos(pagina.orders);
+        setProximoCursor(pagina.nextCursor);
+        registrarStatus(pagina.orders);
       } catch (error) {
         console.error('Erro ao buscar pedidos:', error);
+      } finally {
         setLoading(false);
       }
     };
 
     fetchPedidos();
-  }, [navigate]);
-
-  // Aplicar filtros sempre que os critérios mudarem
-  useEffect(() => {
-    let resultado = [...pedidos];
-
-    // Filtro por status
-    if (filtroStatus !== 'todos') {
-      resultado = resultado.filter(pedido => pedido.status === filtroStatus);
-    }
+  }, [navigate, filtroStatus, dataInicial, dataFinal, ordenacao]);
 
-    // Filtro por data inicial
-    if (dataInicial) {
-      resultado = resultado.filter(pedido => {
-        const dataPedido = new Date(pedido.orderDate);
-        const dataFiltro = new Date(dataInicial);
-        return dataPedido >= dataFiltro;
-      });
-    }
-
-    // Filtro por data final
-    if (dataFinal) {
-      resultado = resultado.filter(pedido => {
-        const dataPedido = new Date(pedido.orderDate);
-        const dataFiltro = new Date(dataFinal);
-        dataFiltro.setHours(23, 59, 59, 999); // Incluir todo o dia final
-        return dataPedido <= dataFiltro;
+  const carregarMais = async () => {
+    if (!proximoCursor) return;
+    try {
+      setCarregandoMais(true);
+      const pagina = await buscarPagina(proximoCursor);
+      setPedidos(prev => {
+        const ids = new Set(prev.map(pedido => pedido.id));
+        return [...prev, ...pagina.orders.filter(pedido => !ids.has(pedido.id))];
       });
+      setProximoCursor(pagina.nextCursor);
+      registrarStatus(pagina.orders);
+    } catch (error) {
+      console.error('Erro ao carregar mais pedidos:', error);
+      adicionarNotificacao('erro', 'Erro ao carregar mais pedidos. Tente novamente.');
+    } finally {
+      setCarregandoMais(false);
     }
-
-    // Aplicar ordenação
-    if (ordenacao === 'recente') {
-      resultado.sort((a, b) => new Date(b.orderDate).getTime() - new Date(a.orderDate).getTime());
-    } else if (ordenacao === 'antigo') {
-      resultado.sort((a, b) => new Date(a.orderDate).getTime() - new Date(b.orderDate).getTime());
-    }
-
-    setPedidosExibidos(resultado);
-  }, [pedidos, filtroStatus, dataInicial, dataFinal, ordenacao]);
+  };
 
   const adicionarNotificacao = (tipo: 'sucesso' | 'erro', mensagem: string) => {
     const id = Date.now();
@@ -291,7 +297,7 @@ const PaginaPedidosAdmin: React.FC = () => {
       {/* Contador de resultados */}
       {!loading && (
         <div className="contador-pedidos">
-          Mostrando {pedidosExibidos.length} de {pedidos.length} pedidos
+          Mostrando {pedidos.length} pedidos{proximoCursor ? ' (há mais para carregar)' : ''}
         </div>
       )}
 
@@ -301,7 +307,7 @@ const PaginaPedidosAdmin: React.FC = () => {
         <div className="loading">Nenhum pedido encontrado</div>
       ) : (
         <div className="produtos-lista">
-          {pedidosExibidos.map((pedido: Pedido) => (
+          {pedidos.map((pedido: Pedido) => (
             <div className="produto-item" key={pedido.id}>
               <div className="produto-info">
                 <div className="produto-nome">
@@ -349,6 +355,14 @@ const PaginaPedidosAdmin: React.FC = () => {
           ))}
         </div>
       )}
+
+      {!loading && proximoCursor && (
+        <div className="carregar-mais">
+          <button className="btn-limpar-filtros" onClick={carregarMais} disabled={carregandoMais}>
+            {carregandoMais ? 'Carregando...' : 'Carregar mais'}
+          </button>
+        </div>
+      )}
     </div>
   );
 };
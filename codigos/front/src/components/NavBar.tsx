@@ -208,6 +208,20 @@ const NavBar: React.FC<NavBarProps> = ({ nomeLogo, imgLogo }) => {
     }
   };
 
+  // Visitantes também têm carrinho, guardado no token assinado do backend.
+  const botaoCarrinho = (
+    <button
+      className={`carrinho-icon ${isShaking ? 'shake' : ''}`}
+      title="Carrinho"
+      onClick={() => navigate('/carrinho-de-compras')}
+    >
+      <FaShoppingCart size={18} />
+      {cartCount > 0 && (
+        <span className="carrinho-badge">{cartCount > 99 ? '99+' : cartCount}</span>
+      )}
+    </button>
+  );
+
   return (
     <div className="nav">
       <Link to="/" className="logo" style={{ textDecoration: 'none' }}>
@@ -244,24 +258,16 @@ const NavBar: React.FC<NavBarProps> = ({ nomeLogo, imgLogo }) => {
         </button>
 
         {!isAuthenticated ? (
-          // Usuário NÃO autenticado - mostrar links de login/registro
+          // Usuário NÃO autenticado - carrinho de visitante e links de login/registro
           <div className="nav-links">
+            {botaoCarrinho}
             <Link to="/login" className="nav-link">ENTRE</Link>
             <Link to="/registro" className="nav-link">CADASTRE-SE</Link>
           </div>
         ) : (
           // Usuário autenticado - mostrar ícone e carrinho
           <div className="usuario-wrapper">
-            <button 
-              className={`carrinho-icon ${isShaking ? 'shake' : ''}`}
-              title="Carrinho" 
-              onClick={() => navigate('/carrinho-de-compras')}
-            >
-              <FaShoppingCart size={18} />
-              {cartCount > 0 && (
-                <span className="carrinho-badge">{cartCount > 99 ? '99+' : cartCount}</span>
-              )}
-            </button>
+            {botaoCarrinho}
 
             <div className="usuario-container">
               <div 
@@ -1,5 +1,11 @@
 import { useState, useEffect } from 'react';
-import { api } from '../services/api';
+import { carregarResumoCarrinho } from '../services/cartService';
+import {
+  cabecalhoCarrinhoVisitante,
+  carregarCarrinhoVisitante,
+  estaLogado,
+  quantidadeDeItens,
+} from '../services/guestCartService';
 
 interface CartItem {
   cartItemId: number;
@@ -19,12 +25,19 @@ export const useCartCount = () => {
     try {
       setLoading(true);
       
-      // Tentar carregar do backend primeiro
+      if (!estaLogado()) {
+        // Sem token de visitante não há carrinho: nenhuma requisição.
+        const temCarrinho = Object.keys(cabecalhoCarrinhoVisitante()).length > 0;
+        setCartCount(temCarrinho ? quantidadeDeItens(await carregarCarrinhoVisitante()) : 0);
+        return;
+      }
+
+      // Tentar carregar do backend primeiro; um resumo mais antigo que o último recebido é ignorado
       try {
-        const response = await api.get('/cart/items');
-        const items: CartItem[] = response.data;
-        const totalItems = items.reduce((total, item) => total + item.quantity, 0);
-        setCartCount(totalItems);
+        const resumo = await carregarResumoCarrinho();
+        if (resumo) {
+          setCartCount(resumo.itemCount);
+        }
       } catch (err) {
         // Fallback para localStorage se a API falhar
         console.warn('Erro ao carregar carrinho da API, usando localStorage:', err);
@@ -69,10 +82,16 @@ export const useCartCount = () => {
 
     window.addEventListener('storage', handleStorageChange);
 
-    // Listener customizado para mudanças no carrinho
-    const handleCartUpdate = () => {
+    // Listener customizado para mudanças no carrinho. Quem altera o carrinho
+    // informa a nova quantidade de itens, que dispensa a consulta à API.
+    const handleCartUpdate = (e: Event) => {
       triggerShake();
-      updateCartCount();
+      const itemCount = (e as CustomEvent<{ itemCount?: number } | null>).detail?.itemCount;
+      if (typeof itemCount === 'number') {
+        setCartCount(itemCount);
+      } else {
+        updateCartCount();
+      }
     };
 
     window.addEventListener('cartUpdated', handleCartUpdate);
@@ -0,0 +1,74 @@
+import { api } from './api';
+
+/**
+ * Carrinho do usuário logado.
+ *
+ * As alterações respondem com o resumo do carrinho (CartSummaryDTO), que já
+ * traz quantidades, preços e total; não é preciso buscar os itens de novo. A
+ * versão do resumo muda a cada alteração: com vários cliques seguidos, uma
+ * resposta que chegue depois de outra mais nova é descartada.
+ */
+
+export interface ItemResumoCarrinho {
+  cartItemId: number;
+  productId: number;
+  quantity: number;
+  productPrice: number;
+  imageHash?: string;
+  imageUrl?: string;
+}
+
+export interface ResumoCarrinho {
+  cartId: number;
+  version: number;
+  totalValue: number;
+  itemCount: number;
+  items: ItemResumoCarrinho[];
+}
+
+let ultimoResumo: { cartId: number; version: number } | null = null;
+
+/**
+ * Registra a versão do resumo e indica se ele deve ser exibido. Um carrinho
+ * diferente (outro usuário, ou recriado após ser descartado) sempre é aceito.
+ */
+const ehAtual = (resumo: ResumoCarrinho): boolean => {
+  if (ultimoResumo && ultimoResumo.cartId === resumo.cartId && resumo.version < ultimoResumo.version) {
+    return false;
+  }
+  ultimoResumo = { cartId: resumo.cartId, version: resumo.version };
+  return true;
+};
+
+const atual = (resumo: ResumoCarrinho): ResumoCarrinho | null => (ehAtual(resumo) ? resumo : null);
+
+/**
+ * Avisa os componentes (contador da barra de navegação) que o carrinho mudou.
+ * Com a quantidade de itens informada, eles não precisam consultar a API.
+ */
+export const notificarCarrinhoAlterado = (itemCount?: number): void => {
+  window.dispatchEvent(new CustomEvent('cartUpdated', { detail: { itemCount } }));
+};
+
+/**
+ * @returns o resumo, ou null se já havia chegado uma resposta mais nova
+ */
+export const carregarResumoCarrinho = async (): Promise<ResumoCarrinho | null> => {
+  const { data } = await api.get<ResumoCarrinho>('/cart/summary');
+  return atual(data);
+};
+
+export const adicionarAoCarrinho = async (productId: number): Promise<ResumoCarrinho | null> => {
+  const { data } = await api.post<ResumoCarrinho>('/cart/add', null, { params: { productId } });
+  return atual(data);
+};
+
+export const diminuirNoCarrinho = async (productId: number): Promise<ResumoCarrinho | null> => {
+  const { data } = await api.post<ResumoCarrinho>('/cart/decrease', null, { params: { productId } });
+  return atual(data);
+};
+
+export const removerDoCarrinho = async (productId: number): Promise<ResumoCarrinho | null> => {
+  const { data } = await api.delete<ResumoCarrinho>('/cart/remove', { params: { productId } });
+  return atual(data);
+};
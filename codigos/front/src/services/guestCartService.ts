@@ -0,0 +1,89 @@
+import { api } from './api';
+
+/**
+ * Carrinho de visitante (sem login).
+ *
+ * O estado fica em um token assinado pelo backend, guardado no localStorage e
+ * enviado no cabeçalho X-Guest-Cart. As operações não gravam no banco; no
+ * login ou no cadastro o token é enviado junto e o carrinho é incorporado ao
+ * carrinho da conta.
+ */
+
+const CHAVE_TOKEN = 'guestCart';
+const CABECALHO = 'X-Guest-Cart';
+
+export interface ItemCarrinhoVisitante {
+  cartItemId: null;
+  productId: number;
+  productName: string;
+  productPrice: number;
+  quantity: number;
+  productType: 'REVENDA' | 'HOMEOPATICO';
+  productImageUrl?: string;
+}
+
+export interface CarrinhoVisitante {
+  token: string;
+  items: ItemCarrinhoVisitante[];
+  totalValue: number;
+  productType: 'REVENDA' | 'HOMEOPATICO' | null;
+}
+
+export const estaLogado = (): boolean => !!localStorage.getItem('token');
+
+/**
+ * Cabeçalho com o token do carrinho de visitante, ou vazio se não houver.
+ * Usado no login e no cadastro.
+ */
+export const cabecalhoCarrinhoVisitante = (): Record<string, string> => {
+  const token = localStorage.getItem(CHAVE_TOKEN);
+  return token ? { [CABECALHO]: token } : {};
+};
+
+/**
+ * Descarta o token depois que o carrinho foi incorporado à conta.
+ */
+export const limparCarrinhoVisitante = (): void => {
+  localStorage.removeItem(CHAVE_TOKEN);
+};
+
+export const quantidadeDeItens = (carrinho: CarrinhoVisitante): number =>
+  carrinho.items.reduce((total, item) => total + item.quantity, 0);
+
+const guardar = (carrinho: CarrinhoVisitante): CarrinhoVisitante => {
+  if (carrinho.items.length > 0) {
+    localStorage.setItem(CHAVE_TOKEN, carrinho.token);
+  } else {
+    limparCarrinhoVisitante();
+  }
+  return carrinho;
+};
+
+export const carregarCarrinhoVisitante = async (): Promise<CarrinhoVisitante> => {
+  const { data } = await api.get<CarrinhoVisitante>('/guest-cart', { headers: cabecalhoCarrinhoVisitante() });
+  return guardar(data);
+};
+
+export const adicionarAoCarrinhoVisitante = async (productId: number): Promise<CarrinhoVisitante> => {
+  const { data } = await api.post<CarrinhoVisitante>('/guest-cart/add', null, {
+    params: { productId },
+    headers: cabecalhoCarrinhoVisitante(),
+  });
+  return guardar(data);
+};
+
+export const diminuirNoCarrinhoVisitante = async (productId: number): Promise<CarrinhoVisitante> => {
+  const { data } = await api.post<CarrinhoVisitante>('/guest-cart/decrease', null, {
+    params: { productId },
+    headers: cabecalhoCarrinhoVisitante(),
+  });
+  return guardar(data);
+};
+
+export const removerDoCarrinhoVisitante = async (productId: number): Promise<CarrinhoVisitante> => {
+  const { data } = await api.delete<CarrinhoVisitante>('/guest-cart/remove', {
+    params: { productId },
+    headers: cabecalhoCarrinhoVisitante(),
+  });
+  return guardar(data);
+};